@@ -0,0 +1,58 @@
+package guru.springframework.reactivemongo.benchmark;
+
+import guru.springframework.reactivemongo.domain.Beer;
+import guru.springframework.reactivemongo.domain.Customer;
+import guru.springframework.reactivemongo.model.BeerDTO;
+import org.bson.types.ObjectId;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Deterministic documents shared by the benchmarks, shaped like the bootstrap data.
+ */
+final class BenchmarkData {
+    private static final String[] STYLES = {"Pale Ale", "IPA", "Stout", "Lager", "Pilsner"};
+    private static final LocalDateTime CREATED = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    private BenchmarkData() {
+    }
+
+    static Beer beer(int i) {
+        return Beer.builder()
+                .id(new ObjectId(i, i).toHexString())
+                .beerName("Benchmark Beer " + i)
+                .beerStyle(STYLES[i % STYLES.length])
+                .upc(String.format("%012d", i))
+                .quantityOnHand(i % 500)
+                .price(new BigDecimal("9.99").add(BigDecimal.valueOf(i % 100, 2)))
+                .createdDate(CREATED)
+                .lastModifiedDate(CREATED.plusMinutes(i))
+                .build();
+    }
+
+    static List<Beer> beers(int count) {
+        return IntStream.range(0, count).mapToObj(BenchmarkData::beer).toList();
+    }
+
+    static BeerDTO newBeerDTO(int i) {
+        return BeerDTO.builder()
+                .beerName("Benchmark Beer " + i)
+                .beerStyle(STYLES[i % STYLES.length])
+                .upc(String.format("%012d", i))
+                .quantityOnHand(i % 500)
+                .price(new BigDecimal("12.49"))
+                .build();
+    }
+
+    static Customer customer(int i) {
+        return Customer.builder()
+                .id(new ObjectId(i, i).toHexString())
+                .customerName("Benchmark Customer " + i)
+                .createdDate(CREATED)
+                .lastModifiedDate(CREATED.plusMinutes(i))
+                .build();
+    }
+}
@@ -0,0 +1,98 @@
+package guru.springframework.reactivemongo.benchmark;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import guru.springframework.reactivemongo.mappers.BeerMapper;
+import guru.springframework.reactivemongo.model.BeerDTO;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encoding and decoding of a beer and a page of beers in each media type the document
+ * routes negotiate, with mappers configured like the application's codecs. The encoded
+ * sizes are printed at setup, since payload size is half of the comparison.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CodecBenchmark {
+
+    @Param({"json", "cbor", "smile"})
+    String format;
+
+    @Param({"50"})
+    int pageSize;
+
+    private ObjectMapper objectMapper;
+    private JavaType pageType;
+    private BeerDTO beerDTO;
+    private List<BeerDTO> page;
+    private byte[] encodedBeer;
+    private byte[] encodedPage;
+
+    @Setup
+    public void setUp() throws IOException {
+        BeerMapper beerMapper = Mappers.getMapper(BeerMapper.class);
+
+        objectMapper = Jackson2ObjectMapperBuilder.json().factory(factory(format)).build();
+        pageType = objectMapper.getTypeFactory().constructCollectionType(List.class, BeerDTO.class);
+        beerDTO = beerMapper.toDTO(BenchmarkData.beer(42));
+        page = BenchmarkData.beers(pageSize).stream().map(beerMapper::toDTO).toList();
+        encodedBeer = objectMapper.writeValueAsBytes(beerDTO);
+        encodedPage = objectMapper.writeValueAsBytes(page);
+
+        System.out.printf("%n%s: beer %d bytes, page of %d %d bytes%n",
+                format, encodedBeer.length, pageSize, encodedPage.length);
+    }
+
+    private static JsonFactory factory(String format) {
+        return switch (format) {
+            case "json" -> new JsonFactory();
+            case "cbor" -> new CBORFactory();
+            case "smile" -> new SmileFactory();
+            default -> throw new IllegalArgumentException("Unknown format: " + format);
+        };
+    }
+
+    @Benchmark
+    public byte[] encodeBeer() throws IOException {
+        return objectMapper.writeValueAsBytes(beerDTO);
+    }
+
+    @Benchmark
+    public byte[] encodePage() throws IOException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public BeerDTO decodeBeer() throws IOException {
+        return objectMapper.readValue(encodedBeer, BeerDTO.class);
+    }
+
+    @Benchmark
+    public List<BeerDTO> decodePage() throws IOException {
+        return objectMapper.readValue(encodedPage, pageType);
+    }
+}
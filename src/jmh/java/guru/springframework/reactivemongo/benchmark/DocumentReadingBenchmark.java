@@ -0,0 +1,85 @@
+package guru.springframework.reactivemongo.benchmark;
+
+import guru.springframework.reactivemongo.domain.Beer;
+import guru.springframework.reactivemongo.domain.Customer;
+import guru.springframework.reactivemongo.repositories.convert.BeerReadingConverter;
+import guru.springframework.reactivemongo.repositories.convert.CustomerReadingConverter;
+import org.bson.Document;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading beer and customer documents through the reflective {@code MappingMongoConverter}
+ * and through the same converter with the hand-written reading converters registered.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DocumentReadingBenchmark {
+
+    private MappingMongoConverter reflectiveConverter;
+    private MappingMongoConverter handWrittenConverter;
+    private Document beerDocument;
+    private Document customerDocument;
+
+    @Setup
+    public void setUp() {
+        reflectiveConverter = converter(new MongoCustomConversions(List.of()));
+        handWrittenConverter = converter(new MongoCustomConversions(
+                List.of(new BeerReadingConverter(), new CustomerReadingConverter())));
+
+        beerDocument = new Document();
+        reflectiveConverter.write(BenchmarkData.beer(42), beerDocument);
+        customerDocument = new Document();
+        reflectiveConverter.write(BenchmarkData.customer(42), customerDocument);
+    }
+
+    private static MappingMongoConverter converter(MongoCustomConversions conversions) {
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        mappingContext.afterPropertiesSet();
+
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        return converter;
+    }
+
+    @Benchmark
+    public Beer readBeerReflective() {
+        return reflectiveConverter.read(Beer.class, beerDocument);
+    }
+
+    @Benchmark
+    public Beer readBeerHandWritten() {
+        return handWrittenConverter.read(Beer.class, beerDocument);
+    }
+
+    @Benchmark
+    public Customer readCustomerReflective() {
+        return reflectiveConverter.read(Customer.class, customerDocument);
+    }
+
+    @Benchmark
+    public Customer readCustomerHandWritten() {
+        return handWrittenConverter.read(Customer.class, customerDocument);
+    }
+}
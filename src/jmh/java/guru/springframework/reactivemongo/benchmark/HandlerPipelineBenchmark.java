@@ -0,0 +1,136 @@
+package guru.springframework.reactivemongo.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import guru.springframework.reactivemongo.cache.EntityCache;
+import guru.springframework.reactivemongo.config.BeerStatsProperties;
+import guru.springframework.reactivemongo.config.BulkProperties;
+import guru.springframework.reactivemongo.config.ChangeFeedProperties;
+import guru.springframework.reactivemongo.config.ConcurrencyLimitProperties;
+import guru.springframework.reactivemongo.config.EntityCacheProperties;
+import guru.springframework.reactivemongo.config.InMemoryProperties;
+import guru.springframework.reactivemongo.config.OptimisticUpdateProperties;
+import guru.springframework.reactivemongo.config.StreamingProperties;
+import guru.springframework.reactivemongo.domain.Beer;
+import guru.springframework.reactivemongo.mappers.BeerMapper;
+import guru.springframework.reactivemongo.model.BeerDTO;
+import guru.springframework.reactivemongo.repositories.inmemory.InMemoryBeerRepository;
+import guru.springframework.reactivemongo.services.BeerServiceImpl;
+import guru.springframework.reactivemongo.services.BeerStatsService;
+import guru.springframework.reactivemongo.services.ChangeFeedService;
+import guru.springframework.reactivemongo.web.fn.BeerHandler;
+import guru.springframework.reactivemongo.web.fn.BeerRouterConfig;
+import guru.springframework.reactivemongo.web.fn.ConcurrencyLimitFilter;
+import guru.springframework.reactivemongo.web.fn.ExportEncoder;
+import guru.springframework.reactivemongo.web.fn.ImportDecoder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * End to end cost of the beer routes without the network and without Mongo: requests go
+ * through the router, handler, validation, service, cache, mapping and JSON codecs of a
+ * {@link WebTestClient} bound to {@link BeerRouterConfig#beerRoutes()}, backed by the
+ * {@link InMemoryBeerRepository} without added latency so runs are reproducible offline.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HandlerPipelineBenchmark {
+    private static final int BEER_COUNT = 1000;
+
+    private LocalValidatorFactoryBean validator;
+    private WebTestClient webTestClient;
+    private String beerId;
+    private BeerDTO newBeer;
+
+    @Setup
+    public void setUp() {
+        List<Beer> beers = BenchmarkData.beers(BEER_COUNT);
+        InMemoryBeerRepository beerRepository = new InMemoryBeerRepository(
+                new InMemoryProperties(Duration.ZERO, Duration.ZERO));
+        beerRepository.insert(beers).blockLast();
+
+        validator = new LocalValidatorFactoryBean();
+        validator.afterPropertiesSet();
+
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        BeerServiceImpl beerService = new BeerServiceImpl(beerRepository, Mappers.getMapper(BeerMapper.class),
+                new StreamingProperties(256), new BulkProperties(1000, 2),
+                new OptimisticUpdateProperties(5, Duration.ofMillis(10)),
+                new EntityCache<>("beerById", new EntityCacheProperties(10_000, Duration.ofMinutes(10), false,
+                        Duration.ofSeconds(1), Duration.ofMinutes(1)),
+                        new SimpleMeterRegistry()));
+        BeerHandler beerHandler = new BeerHandler(beerService, mock(BeerStatsService.class),
+                new BeerStatsProperties(Duration.ofSeconds(30), Duration.ofMinutes(10)), mock(ChangeFeedService.class),
+                new ChangeFeedProperties(256, Duration.ofSeconds(15)), validator,
+                new ExportEncoder(objectMapper, new StreamingProperties(256)),
+                new ImportDecoder(objectMapper, new BulkProperties(1000, 2)));
+
+        ConcurrencyLimitFilter concurrencyLimitFilter = new ConcurrencyLimitFilter(new ConcurrencyLimitProperties(
+                true, Duration.ofSeconds(1), 0.9,
+                new ConcurrencyLimitProperties.Budget(100, 10, 1000, Duration.ofMillis(250)),
+                new ConcurrencyLimitProperties.Budget(20, 2, 200, Duration.ofMillis(500))), new SimpleMeterRegistry());
+
+        webTestClient = WebTestClient.bindToRouterFunction(
+                new BeerRouterConfig(beerHandler, concurrencyLimitFilter).beerRoutes()).build();
+        beerId = beers.get(BEER_COUNT / 2).getId();
+        newBeer = BenchmarkData.newBeerDTO(BEER_COUNT + 1);
+    }
+
+    @TearDown
+    public void tearDown() {
+        validator.close();
+    }
+
+    @Benchmark
+    public byte[] getBeerById() {
+        return webTestClient.get().uri(BeerRouterConfig.BEERS_PATH_ID, beerId)
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().returnResult().getResponseBody();
+    }
+
+    @Benchmark
+    public byte[] listBeersPage() {
+        return webTestClient.get().uri(BeerRouterConfig.BEERS_PATH + "?limit=50")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().returnResult().getResponseBody();
+    }
+
+    @Benchmark
+    public String createBeer() {
+        return webTestClient.post().uri(BeerRouterConfig.BEERS_PATH)
+                .accept(MediaType.APPLICATION_JSON)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(newBeer)
+                .exchange()
+                .expectStatus().isCreated()
+                .returnResult(Void.class).getResponseHeaders().getFirst("Location");
+    }
+}
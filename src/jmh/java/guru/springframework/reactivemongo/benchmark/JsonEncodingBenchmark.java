@@ -0,0 +1,61 @@
+package guru.springframework.reactivemongo.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import guru.springframework.reactivemongo.mappers.BeerMapper;
+import guru.springframework.reactivemongo.model.BeerDTO;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson encoding of beer responses with an {@link ObjectMapper} configured the way
+ * Spring Boot configures the WebFlux codecs.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonEncodingBenchmark {
+
+    @Param({"50"})
+    int pageSize;
+
+    private ObjectMapper objectMapper;
+    private BeerDTO beerDTO;
+    private List<BeerDTO> page;
+
+    @Setup
+    public void setUp() {
+        BeerMapper beerMapper = Mappers.getMapper(BeerMapper.class);
+
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        beerDTO = beerMapper.toDTO(BenchmarkData.beer(42));
+        page = BenchmarkData.beers(pageSize).stream().map(beerMapper::toDTO).toList();
+    }
+
+    @Benchmark
+    public byte[] encodeBeer() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(beerDTO);
+    }
+
+    @Benchmark
+    public byte[] encodePage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+}
@@ -0,0 +1,278 @@
+package guru.springframework.reactivemongo.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import guru.springframework.reactivemongo.Spring6ReactiveMongoApplication;
+import guru.springframework.reactivemongo.web.fn.BeerRouterConfig;
+import guru.springframework.reactivemongo.web.fn.CustomerRouterConfig;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+import java.util.stream.Collectors;
+
+/**
+ * Closed loop load driver: {@code clients} concurrent clients each send a weighted mix of
+ * beer and customer requests, back to back, for {@code duration} after a {@code warmup},
+ * then throughput and latency percentiles are printed per route.
+ * <p>
+ * Without {@code baseUrl} the application is started in process under the
+ * {@code inmemory} and {@code seed} profiles, so no MongoDB is needed:
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec@load-driver -Dload.args="clients=128 duration=60s latency=2ms"
+ * </pre>
+ * Options ({@code name=value}): {@code clients} (64), {@code warmup} (10s), {@code duration}
+ * (30s), {@code beers} (10000), {@code customers} (1000), {@code latency} (1ms) and
+ * {@code jitter} (1ms) for the in-memory repositories, or {@code baseUrl} and {@code token}
+ * to drive a running server with a bearer token.
+ */
+public class LoadDriver {
+
+    private final WebClient webClient;
+    private final int clients;
+    private final List<Route> routes;
+    private final int totalWeight;
+    private final Map<String, RouteStats> stats = new LinkedHashMap<>();
+
+    LoadDriver(WebClient webClient, int clients, List<Route> routes) {
+        this.webClient = webClient;
+        this.clients = clients;
+        this.routes = routes;
+        this.totalWeight = routes.stream().mapToInt(Route::weight).sum();
+        routes.forEach(route -> stats.put(route.name(), new RouteStats()));
+    }
+
+    public static void main(String[] args) {
+        Map<String, String> options = Arrays.stream(args)
+                .map(arg -> arg.split("=", 2))
+                .collect(Collectors.toMap(option -> option[0], option -> option.length > 1 ? option[1] : ""));
+        int clients = Integer.parseInt(options.getOrDefault("clients", "64"));
+        Duration warmup = DurationStyle.detectAndParse(options.getOrDefault("warmup", "10s"));
+        Duration duration = DurationStyle.detectAndParse(options.getOrDefault("duration", "30s"));
+
+        String baseUrl = options.get("baseUrl");
+        String token = options.getOrDefault("token", "load-driver");
+        ConfigurableApplicationContext application = null;
+        if (baseUrl == null) {
+            application = new SpringApplicationBuilder(Spring6ReactiveMongoApplication.class, AcceptAnyToken.class)
+                    .profiles("inmemory", "seed")
+                    // passed as arguments to take precedence over application.properties
+                    .run("--server.port=0",
+                            "--app.seed.beers=" + options.getOrDefault("beers", "10000"),
+                            "--app.seed.customers=" + options.getOrDefault("customers", "1000"),
+                            "--app.in-memory.latency=" + options.getOrDefault("latency", "1ms"),
+                            "--app.in-memory.jitter=" + options.getOrDefault("jitter", "1ms"));
+            baseUrl = "http://localhost:" + application.getEnvironment().getProperty("local.server.port");
+        }
+
+        ConnectionProvider connections = ConnectionProvider.builder("load-driver")
+                .maxConnections(clients)
+                .pendingAcquireMaxCount(-1)
+                .build();
+        WebClient webClient = WebClient.builder()
+                .baseUrl(baseUrl)
+                .clientConnector(new ReactorClientHttpConnector(HttpClient.create(connections)))
+                .defaultHeader(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(16 * 1024 * 1024))
+                .build();
+
+        try {
+            LoadDriver driver = new LoadDriver(webClient, clients, routes(webClient));
+            System.out.printf("Warming up for %s with %d clients against %s%n", warmup, clients, baseUrl);
+            driver.run(warmup);
+            driver.reset();
+            System.out.printf("Measuring for %s%n", duration);
+            driver.run(duration);
+            driver.report(duration);
+        } finally {
+            connections.dispose();
+            if (application != null) {
+                application.close();
+            }
+        }
+    }
+
+    /**
+     * The request mix, with ids and name prefixes sampled from the first pages of the data.
+     */
+    static List<Route> routes(WebClient webClient) {
+        List<String> beerIds = sampleIds(webClient, BeerRouterConfig.BEERS_PATH);
+        List<String> customerIds = sampleIds(webClient, CustomerRouterConfig.CUSTOMER_PATH);
+        if (beerIds.isEmpty() || customerIds.isEmpty()) {
+            throw new IllegalStateException("Load driver needs at least one beer and one customer");
+        }
+
+        return List.of(
+                new Route("GET beer page", 10, (client, random) -> client.get()
+                        .uri(uri -> uri.path(BeerRouterConfig.BEERS_PATH).queryParam("limit", 50).build())
+                        .accept(MediaType.APPLICATION_JSON)),
+                new Route("GET beer by id", 40, (client, random) -> client.get()
+                        .uri(BeerRouterConfig.BEERS_PATH_ID, pick(beerIds, random))
+                        .accept(MediaType.APPLICATION_JSON)),
+                new Route("GET beer search prefix", 20, (client, random) -> client.get()
+                        .uri(uri -> uri.path(BeerRouterConfig.BEERS_SEARCH_PATH)
+                                .queryParam("mode", "prefix")
+                                .queryParam("q", "ABCDEFGHILMNORSTVW".charAt(random.nextInt(18)))
+                                .build())
+                        .accept(MediaType.APPLICATION_JSON)),
+                new Route("POST beer stock", 10, (client, random) -> client.post()
+                        .uri(BeerRouterConfig.BEERS_STOCK_PATH, pick(beerIds, random))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .bodyValue(Map.of("delta", random.nextInt(1, 10)))),
+                new Route("GET beer stats", 5, (client, random) -> client.get()
+                        .uri(BeerRouterConfig.BEERS_STATS_PATH)
+                        .accept(MediaType.APPLICATION_JSON)),
+                new Route("GET customer by id", 15, (client, random) -> client.get()
+                        .uri(CustomerRouterConfig.CUSTOMER_PATH_ID, pick(customerIds, random))
+                        .accept(MediaType.APPLICATION_JSON)));
+    }
+
+    private static List<String> sampleIds(WebClient webClient, String path) {
+        return webClient.get()
+                .uri(uri -> uri.path(path).queryParam("limit", 500).queryParam("fields", "id").build())
+                .accept(MediaType.APPLICATION_JSON)
+                .retrieve()
+                .bodyToFlux(JsonNode.class)
+                .map(node -> node.get("id").asText())
+                .collectList()
+                .block(Duration.ofSeconds(30));
+    }
+
+    private static String pick(List<String> values, SplittableRandom random) {
+        return values.get(random.nextInt(values.size()));
+    }
+
+    void run(Duration duration) {
+        long deadline = System.nanoTime() + duration.toNanos();
+
+        Flux.range(0, clients)
+                .flatMap(client -> {
+                    SplittableRandom random = new SplittableRandom(client);
+                    return Mono.defer(() -> send(pickRoute(random), random))
+                            .repeat(() -> System.nanoTime() < deadline);
+                }, clients)
+                .blockLast();
+    }
+
+    private Route pickRoute(SplittableRandom random) {
+        int ticket = random.nextInt(totalWeight);
+        for (Route route : routes) {
+            ticket -= route.weight();
+            if (ticket < 0) {
+                return route;
+            }
+        }
+        throw new IllegalStateException("Route weights changed");
+    }
+
+    private Mono<Void> send(Route route, SplittableRandom random) {
+        RouteStats routeStats = stats.get(route.name());
+        long start = System.nanoTime();
+
+        return route.request().apply(webClient, random)
+                .exchangeToMono(response -> response.releaseBody().thenReturn(response.statusCode()))
+                .doOnNext(status -> routeStats.record(System.nanoTime() - start,
+                        status.is2xxSuccessful() || status.isSameCodeAs(HttpStatus.NOT_MODIFIED)))
+                .onErrorResume(throwable -> {
+                    routeStats.record(System.nanoTime() - start, false);
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    void reset() {
+        stats.values().forEach(RouteStats::reset);
+    }
+
+    void report(Duration duration) {
+        double seconds = duration.toNanos() / 1e9;
+        System.out.printf("%n%-24s %10s %8s %10s %9s %9s %9s %9s %9s%n",
+                "route", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+
+        Histogram all = new Histogram(3);
+        long allErrors = 0;
+        for (Map.Entry<String, RouteStats> entry : stats.entrySet()) {
+            Histogram latencies = entry.getValue().latencies.copy();
+            long errors = entry.getValue().errors.get();
+            all.add(latencies);
+            allErrors += errors;
+            printRow(entry.getKey(), latencies, errors, seconds);
+        }
+        printRow("all", all, allErrors, seconds);
+    }
+
+    private static void printRow(String route, Histogram latencies, long errors, double seconds) {
+        System.out.printf("%-24s %10d %8d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                route, latencies.getTotalCount(), errors, latencies.getTotalCount() / seconds,
+                millis(latencies.getValueAtPercentile(50)), millis(latencies.getValueAtPercentile(90)),
+                millis(latencies.getValueAtPercentile(99)), millis(latencies.getValueAtPercentile(99.9)),
+                millis(latencies.getMaxValue()));
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    record Route(String name, int weight,
+                 BiFunction<WebClient, SplittableRandom, WebClient.RequestHeadersSpec<?>> request) {
+    }
+
+    /**
+     * Latencies in microseconds, errors included.
+     */
+    static class RouteStats {
+        final Histogram latencies = new ConcurrentHistogram(3);
+        final AtomicLong errors = new AtomicLong();
+
+        void record(long nanos, boolean success) {
+            latencies.recordValue(Math.max(1, nanos / 1000));
+            if (!success) {
+                errors.incrementAndGet();
+            }
+        }
+
+        void reset() {
+            latencies.reset();
+            errors.set(0);
+        }
+    }
+
+    /**
+     * Added to the in-process application in place of the issuer backed decoder, so the
+     * driver's fixed bearer token authenticates. Deliberately not a {@code @Configuration}
+     * to keep it out of component scanning.
+     */
+    static class AcceptAnyToken {
+        @Bean
+        ReactiveJwtDecoder jwtDecoder() {
+            return token -> Mono.just(Jwt.withTokenValue(token)
+                    .header("alg", "none")
+                    .subject("load-driver")
+                    .issuedAt(Instant.now())
+                    .expiresAt(Instant.now().plusSeconds(3600))
+                    .build());
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package guru.springframework.reactivemongo.benchmark;
+
+import guru.springframework.reactivemongo.domain.Beer;
+import guru.springframework.reactivemongo.domain.Customer;
+import guru.springframework.reactivemongo.mappers.BeerMapper;
+import guru.springframework.reactivemongo.mappers.CustomerMapper;
+import guru.springframework.reactivemongo.model.BeerDTO;
+import guru.springframework.reactivemongo.model.CustomerDTO;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MapStruct entity/DTO conversion, done once per document on every read and write.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MappingBenchmark {
+
+    private final BeerMapper beerMapper = Mappers.getMapper(BeerMapper.class);
+    private final CustomerMapper customerMapper = Mappers.getMapper(CustomerMapper.class);
+
+    private Beer beer;
+    private BeerDTO beerDTO;
+    private Customer customer;
+
+    @Setup
+    public void setUp() {
+        beer = BenchmarkData.beer(42);
+        beerDTO = beerMapper.toDTO(beer);
+        customer = BenchmarkData.customer(42);
+    }
+
+    @Benchmark
+    public BeerDTO beerToDTO() {
+        return beerMapper.toDTO(beer);
+    }
+
+    @Benchmark
+    public Beer beerToEntity() {
+        return beerMapper.toEntity(beerDTO);
+    }
+
+    @Benchmark
+    public CustomerDTO customerToDTO() {
+        return customerMapper.toDTO(customer);
+    }
+}
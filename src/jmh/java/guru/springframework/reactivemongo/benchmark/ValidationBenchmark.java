@@ -0,0 +1,67 @@
+package guru.springframework.reactivemongo.benchmark;
+
+import guru.springframework.reactivemongo.model.BeerDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.Errors;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request body validation as done by {@code BeerHandler}: a {@link BeanPropertyBindingResult}
+ * plus Jakarta validation through the Spring validator adapter, for a valid and an invalid body.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ValidationBenchmark {
+
+    private LocalValidatorFactoryBean validator;
+    private BeerDTO validBeer;
+    private BeerDTO invalidBeer;
+
+    @Setup
+    public void setUp() {
+        validator = new LocalValidatorFactoryBean();
+        validator.afterPropertiesSet();
+
+        validBeer = BenchmarkData.newBeerDTO(1);
+        invalidBeer = BenchmarkData.newBeerDTO(2);
+        invalidBeer.setBeerName("");
+    }
+
+    @TearDown
+    public void tearDown() {
+        validator.close();
+    }
+
+    @Benchmark
+    public Errors validBody() {
+        return validate(validBeer);
+    }
+
+    @Benchmark
+    public Errors invalidBody() {
+        return validate(invalidBeer);
+    }
+
+    private Errors validate(BeerDTO beerDTO) {
+        Errors errors = new BeanPropertyBindingResult(beerDTO, "beerDTO");
+        validator.validate(beerDTO, errors);
+        return errors;
+    }
+}
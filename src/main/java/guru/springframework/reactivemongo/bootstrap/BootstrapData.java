@@ -6,6 +6,7 @@ import guru.springframework.reactivemongo.repositories.BeerRepository;
 import guru.springframework.reactivemongo.repositories.CustomerRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Mono;
 
@@ -13,7 +14,12 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 
+/**
+ * Loads a few sample beers and customers into empty collections, leaving existing data in
+ * place; the {@code seed} profile replaces the samples with {@link DataSeeder}.
+ */
 @Component
+@Profile("!seed")
 @RequiredArgsConstructor
 public class BootstrapData implements CommandLineRunner {
 
@@ -22,14 +28,12 @@ public class BootstrapData implements CommandLineRunner {
 
     @Override
     public void run(String... args) throws Exception {
-        beerRepository.deleteAll()
-                .then(loadBeerData())
+        loadBeerData()
                 .subscribe(null,
                         throwable -> System.out.println("Error: " + throwable.getMessage()),
                         () -> System.out.println("Loaded Beer Data Successfully"));
 
-        customerRepository.deleteAll()
-                .then(loadCustomerData())
+        loadCustomerData()
                 .subscribe(null,
                         throwable -> System.out.println("Error: " + throwable.getMessage()),
                         () -> System.out.println("Loaded Customer Data Successfully"));
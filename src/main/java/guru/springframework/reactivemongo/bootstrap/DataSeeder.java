@@ -0,0 +1,90 @@
+package guru.springframework.reactivemongo.bootstrap;
+
+import guru.springframework.reactivemongo.config.SeedProperties;
+import guru.springframework.reactivemongo.repositories.BeerRepository;
+import guru.springframework.reactivemongo.repositories.CustomerRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Tops the beer and customer collections up to the configured sizes with synthetic data,
+ * in batched inserts run in parallel. Never deletes anything. Startup waits for seeding,
+ * so the app only reports ready once the data is in place.
+ */
+@Slf4j
+@Component
+@Profile("seed")
+@RequiredArgsConstructor
+public class DataSeeder implements CommandLineRunner {
+
+    private final BeerRepository beerRepository;
+    private final CustomerRepository customerRepository;
+    private final SeedProperties seedProperties;
+
+    @Override
+    public void run(String... args) {
+        SyntheticDataGenerator generator = new SyntheticDataGenerator(seedProperties.randomSeed());
+
+        seed("beers", beerRepository.count(), seedProperties.beers(),
+                batch -> beerRepository.insert(generator.beers(batch.from(), batch.count())).count())
+                .then(seed("customers", customerRepository.count(), seedProperties.customers(),
+                        batch -> customerRepository.insert(generator.customers(batch.from(), batch.count())).count()))
+                .block();
+    }
+
+    private Mono<Void> seed(String collection, Mono<Long> existing, long target, Function<Batch, Mono<Long>> insert) {
+        return existing.flatMap(present -> {
+            if (present >= target) {
+                log.info("Found {} {}, nothing to seed", present, collection);
+                return Mono.empty();
+            }
+
+            List<Batch> batches = Batch.covering(present, target, seedProperties.batchSize());
+            long missing = target - present;
+            AtomicLong inserted = new AtomicLong();
+            long start = System.nanoTime();
+
+            log.info("Seeding {} {} in {} batches", missing, collection, batches.size());
+            Disposable progress = Flux.interval(seedProperties.progressInterval())
+                    .subscribe(tick -> logProgress(collection, inserted.get(), missing, start));
+
+            return Flux.fromIterable(batches)
+                    // generation runs off the driver's threads
+                    .flatMap(batch -> Mono.just(batch)
+                            .publishOn(Schedulers.parallel())
+                            .flatMap(insert), seedProperties.concurrency())
+                    .doOnNext(inserted::addAndGet)
+                    .doFinally(signal -> progress.dispose())
+                    .then(Mono.fromRunnable(() -> logProgress(collection, inserted.get(), missing, start)));
+        });
+    }
+
+    private static void logProgress(String collection, long inserted, long total, long start) {
+        long elapsedMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        log.info("Seeded {}/{} {} in {} ms ({} docs/s)", inserted, total, collection, elapsedMillis,
+                inserted * 1000 / elapsedMillis);
+    }
+
+    record Batch(long from, int count) {
+        static List<Batch> covering(long from, long to, int batchSize) {
+            List<Batch> batches = new ArrayList<>();
+            for (long start = from; start < to; start += batchSize) {
+                batches.add(new Batch(start, (int) Math.min(batchSize, to - start)));
+            }
+            return batches;
+        }
+    }
+}
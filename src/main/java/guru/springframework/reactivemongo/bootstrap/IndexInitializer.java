@@ -0,0 +1,180 @@
+package guru.springframework.reactivemongo.bootstrap;
+
+import guru.springframework.reactivemongo.config.IndexProperties;
+import guru.springframework.reactivemongo.domain.Beer;
+import guru.springframework.reactivemongo.domain.Customer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.ReactiveMongoOperations;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.util.Streamable;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static guru.springframework.reactivemongo.repositories.CustomerRepositoryCustomImpl.CUSTOMER_NAME_COLLATION;
+
+/**
+ * Creates the indexes declared on the domain classes, checks that they exist on the live
+ * collections and explains each derived repository query to catch collection scans.
+ * Runs in the background unless {@code app.indexes.plan-check=fail}, in which case
+ * startup waits for it and aborts on a collection scan.
+ */
+@Slf4j
+@Component
+@Profile("!inmemory")
+@RequiredArgsConstructor
+public class IndexInitializer implements ApplicationRunner {
+
+    static final List<QueryPlanProbe> QUERY_PLAN_PROBES = List.of(
+            new QueryPlanProbe("BeerRepository.findFirstByBeerName", Beer.class,
+                    new Document("beerName", "probe")),
+            new QueryPlanProbe("BeerRepository.findByBeerNamePrefix", Beer.class,
+                    new Document("beerName", new Document("$gte", "probe").append("$lt", "probe\uffff"))),
+            new QueryPlanProbe("BeerRepository.findByBeerStyle", Beer.class,
+                    new Document("beerStyle", "probe")),
+            new QueryPlanProbe("CustomerRepository.findByCustomerName", Customer.class,
+                    new Document("customerName", "probe")),
+            new QueryPlanProbe("CustomerRepository.findByCustomerNameIgnoreCase", Customer.class,
+                    new Document("customerName", "probe"), CUSTOMER_NAME_COLLATION.toDocument()),
+            new QueryPlanProbe("CustomerRepository.findByCustomerNamePrefix", Customer.class,
+                    new Document("customerName", new Document("$gte", "probe").append("$lt", "probe\uffff")),
+                    CUSTOMER_NAME_COLLATION.toDocument()));
+
+    /**
+     * Indexes earlier versions declared that no query uses any more; they only cost writes.
+     */
+    static final Set<String> OBSOLETE_INDEXES = Set.of("id_version");
+
+    private final ReactiveMongoOperations mongoOperations;
+    private final IndexProperties indexProperties;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Mono<Void> initialization = Mono.empty();
+        if (indexProperties.createOnStartup()) {
+            initialization = ensureIndexes(Beer.class).then(ensureIndexes(Customer.class));
+        }
+        initialization = initialization.then(verifyQueryPlans());
+
+        if (indexProperties.planCheck() == IndexProperties.PlanCheck.FAIL) {
+            initialization.block(indexProperties.timeout());
+        } else {
+            initialization.subscribe(null,
+                    throwable -> log.warn("Index initialization failed: {}", throwable.getMessage()));
+        }
+    }
+
+    Mono<Void> ensureIndexes(Class<?> entityType) {
+        IndexResolver indexResolver = IndexResolver.create(mongoOperations.getConverter().getMappingContext());
+        List<IndexDefinition> definitions = Streamable.of(indexResolver.resolveIndexFor(entityType))
+                .map(IndexDefinition.class::cast)
+                .toList();
+
+        return dropObsoleteIndexes(entityType)
+                .thenMany(Flux.fromIterable(definitions))
+                .concatMap(definition -> mongoOperations.indexOps(entityType).ensureIndex(definition)
+                        .doOnNext(name -> log.debug("Ensured index {} on {}", name, entityType.getSimpleName()))
+                        .onErrorResume(throwable -> {
+                            log.warn("Could not create index {} on {}: {}", definition.getIndexKeys(),
+                                    entityType.getSimpleName(), throwable.getMessage());
+                            return Mono.empty();
+                        }))
+                .then(verifyIndexes(entityType, definitions));
+    }
+
+    private Mono<Void> dropObsoleteIndexes(Class<?> entityType) {
+        return mongoOperations.indexOps(entityType).getIndexInfo()
+                .map(IndexInfo::getName)
+                .filter(OBSOLETE_INDEXES::contains)
+                .concatMap(name -> mongoOperations.indexOps(entityType).dropIndex(name)
+                        .doOnSuccess(dropped -> log.info("Dropped obsolete index {} on {}", name,
+                                entityType.getSimpleName())))
+                .onErrorResume(throwable -> {
+                    log.warn("Could not drop obsolete indexes on {}: {}", entityType.getSimpleName(),
+                            throwable.getMessage());
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    private Mono<Void> verifyIndexes(Class<?> entityType, List<IndexDefinition> definitions) {
+        return mongoOperations.indexOps(entityType).getIndexInfo()
+                .map(IndexInfo::getName)
+                .collect(Collectors.toSet())
+                .doOnNext(liveIndexNames -> missingIndexNames(definitions, liveIndexNames)
+                        .forEach(name -> log.warn("Index {} declared on {} is missing from collection {}", name,
+                                entityType.getSimpleName(), mongoOperations.getCollectionName(entityType))))
+                .then();
+    }
+
+    private static List<String> missingIndexNames(List<IndexDefinition> definitions, Set<String> liveIndexNames) {
+        return definitions.stream()
+                .map(definition -> definition.getIndexOptions().getString("name"))
+                .filter(Objects::nonNull)
+                .filter(name -> !liveIndexNames.contains(name))
+                .toList();
+    }
+
+    Mono<Void> verifyQueryPlans() {
+        if (indexProperties.planCheck() == IndexProperties.PlanCheck.OFF) {
+            return Mono.empty();
+        }
+
+        return Flux.fromIterable(QUERY_PLAN_PROBES)
+                .concatMap(probe -> explain(probe)
+                        .filter(IndexInitializer::isCollectionScan)
+                        .map(winningPlan -> probe.description()))
+                .collectList()
+                .flatMap(collectionScans -> {
+                    if (collectionScans.isEmpty()) {
+                        log.info("All {} derived queries have an index backed winning plan", QUERY_PLAN_PROBES.size());
+                        return Mono.empty();
+                    }
+
+                    String message = "Winning plan is a COLLSCAN for " + collectionScans;
+                    if (indexProperties.planCheck() == IndexProperties.PlanCheck.FAIL) {
+                        return Mono.error(new IllegalStateException(message));
+                    }
+                    log.warn(message);
+                    return Mono.empty();
+                });
+    }
+
+    private Mono<Document> explain(QueryPlanProbe probe) {
+        Document find = new Document("find", mongoOperations.getCollectionName(probe.entityType()))
+                .append("filter", probe.filter());
+        if (probe.collation() != null) {
+            find.append("collation", probe.collation());
+        }
+
+        return mongoOperations.executeCommand(new Document("explain", find).append("verbosity", "queryPlanner"))
+                .map(explanation -> explanation.get("queryPlanner", Document.class)
+                        .get("winningPlan", Document.class));
+    }
+
+    static boolean isCollectionScan(Document winningPlan) {
+        return winningPlan.toJson().contains("\"COLLSCAN\"");
+    }
+
+    /**
+     * A query to explain; {@code collation} must be set for queries meant to use a collated
+     * index, since the planner only considers indexes with the query's collation.
+     */
+    record QueryPlanProbe(String description, Class<?> entityType, Document filter, Document collation) {
+        QueryPlanProbe(String description, Class<?> entityType, Document filter) {
+            this(description, entityType, filter, null);
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package guru.springframework.reactivemongo.bootstrap;
+
+import guru.springframework.reactivemongo.domain.Beer;
+import guru.springframework.reactivemongo.domain.Customer;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Generates beers and customers with a skewed style distribution, per style price ranges
+ * and varying name lengths. Every document is derived from the seed and its position
+ * alone, so batches can be generated in any order, and in parallel, with the same result.
+ */
+class SyntheticDataGenerator {
+
+    private static final List<Style> STYLES = List.of(
+            new Style("IPA", "9.99", "15.99"),
+            new Style("Pale Ale", "8.99", "13.99"),
+            new Style("Lager", "6.99", "10.99"),
+            new Style("Stout", "9.99", "16.99"),
+            new Style("Pilsner", "6.99", "10.99"),
+            new Style("Wheat", "7.99", "11.99"),
+            new Style("Porter", "8.99", "14.99"),
+            new Style("Saison", "10.99", "17.99"),
+            new Style("Amber Ale", "7.99", "12.99"),
+            new Style("Sour", "11.99", "22.99"),
+            new Style("Double IPA", "12.99", "19.99"),
+            new Style("Barleywine", "15.99", "34.99"));
+
+    /**
+     * Zipf weights (exponent 1.1), so the first styles make up most of the catalog.
+     */
+    private static final double[] STYLE_CUMULATIVE_WEIGHTS = cumulativeZipfWeights(STYLES.size(), 1.1);
+
+    private static final String[] NAME_ADJECTIVES = {
+            "Galaxy", "Hazy", "Golden", "Midnight", "Crooked", "Rusty", "Wild", "Lazy", "Bitter", "Velvet",
+            "Electric", "Howling", "Silent", "Copper", "Frosty", "Smoky", "Lucky", "Broken", "Northern", "Salty"};
+    private static final String[] NAME_NOUNS = {
+            "Cat", "Crank", "Harbor", "Fox", "Anchor", "Lantern", "Orchard", "Owl", "River", "Summit",
+            "Hop", "Barrel", "Tide", "Comet", "Meadow", "Raven", "Forge", "Canyon", "Bison", "Lighthouse"};
+    private static final String[] NAME_SUFFIXES = {
+            "Reserve", "Special", "Imperial", "Session", "Unfiltered", "Nitro", "Vintage", "Export"};
+
+    private static final String[] FIRST_NAMES = {
+            "Alice", "Bob", "Charlie", "Zoë", "José", "Renée", "Mia", "Noah", "Liam", "Olivia",
+            "Emma", "Łukasz", "Søren", "Chloé", "Hiroshi", "Ana", "Björn", "Fatima", "Mateo", "Priya"};
+    private static final String[] LAST_NAMES = {
+            "Smith", "Müller", "García", "O'Brien", "Nguyen", "Kowalski", "Johansson", "Rossi", "Dubois", "Tanaka",
+            "Brown", "Fernández", "Novák", "Andersen", "Patel", "Costa", "Schmidt", "Lefèvre", "Kim", "Wright"};
+
+    private final long seed;
+
+    SyntheticDataGenerator(long seed) {
+        this.seed = seed;
+    }
+
+    List<Beer> beers(long from, int count) {
+        List<Beer> beers = new ArrayList<>(count);
+        for (long index = from; index < from + count; index++) {
+            beers.add(beer(random(index, 1)));
+        }
+        return beers;
+    }
+
+    List<Customer> customers(long from, int count) {
+        List<Customer> customers = new ArrayList<>(count);
+        for (long index = from; index < from + count; index++) {
+            customers.add(customer(random(index, 2)));
+        }
+        return customers;
+    }
+
+    private SplittableRandom random(long index, long stream) {
+        return new SplittableRandom(mix(seed, stream, index));
+    }
+
+    /**
+     * SplitMix64 finalizer, so neighbouring indexes get unrelated random streams.
+     */
+    private static long mix(long seed, long stream, long index) {
+        long z = seed + stream * 0x9E3779B97F4A7C15L + index * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static Beer beer(SplittableRandom random) {
+        Style style = STYLES.get(pick(STYLE_CUMULATIVE_WEIGHTS, random.nextDouble()));
+
+        return Beer.builder()
+                .beerName(beerName(random))
+                .beerStyle(style.name())
+                .upc(String.valueOf(random.nextLong(100_000_000_000L, 1_000_000_000_000L)))
+                .price(style.price(random))
+                // about one in ten beers is out of stock, the rest mostly carry a small stock
+                .quantityOnHand(random.nextInt(10) == 0 ? 0 : (int) Math.min(5000, 1 + random.nextExponential() * 150))
+                .build();
+    }
+
+    /**
+     * One to four words, two being the most common.
+     */
+    private static String beerName(SplittableRandom random) {
+        StringBuilder name = new StringBuilder();
+        int shape = random.nextInt(10);
+        if (shape >= 2) {
+            name.append(NAME_ADJECTIVES[random.nextInt(NAME_ADJECTIVES.length)]).append(' ');
+        }
+        name.append(NAME_NOUNS[random.nextInt(NAME_NOUNS.length)]);
+        if (shape >= 7) {
+            name.append(' ').append(NAME_SUFFIXES[random.nextInt(NAME_SUFFIXES.length)]);
+        }
+        if (shape == 9) {
+            name.append(' ').append(random.nextInt(2, 100));
+        }
+        return name.toString();
+    }
+
+    private static Customer customer(SplittableRandom random) {
+        String firstName = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+        String lastName = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+        String customerName = random.nextInt(5) == 0
+                ? firstName + " " + LAST_NAMES[random.nextInt(LAST_NAMES.length)] + "-" + lastName
+                : firstName + " " + lastName;
+
+        return Customer.builder()
+                .customerName(customerName)
+                .build();
+    }
+
+    static int pick(double[] cumulativeWeights, double value) {
+        for (int i = 0; i < cumulativeWeights.length - 1; i++) {
+            if (value < cumulativeWeights[i]) {
+                return i;
+            }
+        }
+        return cumulativeWeights.length - 1;
+    }
+
+    private static double[] cumulativeZipfWeights(int size, double exponent) {
+        double[] weights = new double[size];
+        double total = 0;
+        for (int rank = 1; rank <= size; rank++) {
+            total += 1 / Math.pow(rank, exponent);
+            weights[rank - 1] = total;
+        }
+        for (int i = 0; i < size; i++) {
+            weights[i] /= total;
+        }
+        return weights;
+    }
+
+    private record Style(String name, BigDecimal minPrice, BigDecimal maxPrice) {
+        Style(String name, String minPrice, String maxPrice) {
+            this(name, new BigDecimal(minPrice), new BigDecimal(maxPrice));
+        }
+
+        /**
+         * A price in the style's range that ends in .99 like the catalog's.
+         */
+        BigDecimal price(SplittableRandom random) {
+            int dollars = random.nextInt(minPrice.intValue(), maxPrice.intValue() + 1);
+            return BigDecimal.valueOf(dollars).add(new BigDecimal("0.99")).setScale(2, RoundingMode.UNNECESSARY);
+        }
+    }
+}
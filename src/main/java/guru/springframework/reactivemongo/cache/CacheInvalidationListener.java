@@ -0,0 +1,89 @@
+package guru.springframework.reactivemongo.cache;
+
+import guru.springframework.reactivemongo.config.EntityCacheProperties;
+import guru.springframework.reactivemongo.domain.Beer;
+import guru.springframework.reactivemongo.domain.Customer;
+import guru.springframework.reactivemongo.model.ChangeEventDTO;
+import guru.springframework.reactivemongo.services.ChangeFeedService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+import reactor.util.retry.Retry;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Evicts cache entries written by other instances by following the shared beer and customer
+ * change feeds. A failed feed is reconnected with backoff, resuming after the last event
+ * seen, and the cache is cleared on each reconnect since events in the gap may be lost.
+ * Change streams need a replica set; on a standalone server the reconnects keep failing
+ * and the caches rely on invalidation from the services' own write paths.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CacheInvalidationListener implements ApplicationListener<ApplicationReadyEvent>, DisposableBean {
+
+    private final ChangeFeedService changeFeedService;
+    private final EntityCacheProperties properties;
+    private final EntityCache<Beer> beerCache;
+    private final EntityCache<Customer> customerCache;
+
+    private final Disposable.Composite subscriptions = Disposables.composite();
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        if (!properties.changeStreamInvalidation()) {
+            return;
+        }
+        subscriptions.add(invalidateFrom("beer", changeFeedService::beerChanges, beerCache));
+        subscriptions.add(invalidateFrom("customer", changeFeedService::customerChanges, customerCache));
+    }
+
+    private Disposable invalidateFrom(String feedName, Function<String, Flux<? extends ChangeEventDTO<?>>> feed,
+                                      EntityCache<?> cache) {
+        AtomicReference<String> lastResumeToken = new AtomicReference<>();
+        AtomicBoolean subscribedBefore = new AtomicBoolean();
+
+        return Flux.defer(() -> {
+                    if (subscribedBefore.getAndSet(true)) {
+                        // writes between the failure and the resumed stream may not be replayed
+                        cache.invalidateAll();
+                        log.info("Reconnecting the {} change stream, cleared the {} cache", feedName, feedName);
+                    }
+                    return feed.apply(lastResumeToken.get());
+                })
+                .doOnNext(change -> {
+                    if (change.getResumeToken() != null) {
+                        lastResumeToken.set(change.getResumeToken());
+                    }
+                })
+                .mapNotNull(ChangeEventDTO::getId)
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, properties.changeStreamMinBackoff())
+                        .maxBackoff(properties.changeStreamMaxBackoff())
+                        .transientErrors(true)
+                        .doBeforeRetry(signal -> {
+                            if (signal.totalRetriesInARow() == 0) {
+                                log.warn("Change stream on {} failed, retrying and relying on write path cache "
+                                        + "invalidation meanwhile: {}", feedName, signal.failure().getMessage());
+                            } else {
+                                // the token may have fallen off the oplog, so start over from live changes
+                                lastResumeToken.set(null);
+                            }
+                        }))
+                .subscribe(cache::invalidate);
+    }
+
+    @Override
+    public void destroy() {
+        subscriptions.dispose();
+    }
+}
@@ -0,0 +1,70 @@
+package guru.springframework.reactivemongo.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import guru.springframework.reactivemongo.config.EntityCacheProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Bounded, TTL evicting read-through cache of entities by id. Concurrent misses for the
+ * same id share one load, and empty loads are not cached. Bulk lookups load only the ids
+ * neither cached nor already in flight, in one call, and join the loads in flight. Hit, miss, load and eviction
+ * metrics are published under {@code cache.*} tagged with the cache name.
+ */
+public class EntityCache<V> {
+
+    private final AsyncCache<String, V> cache;
+
+    public EntityCache(String name, EntityCacheProperties properties, MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.maximumSize())
+                .expireAfterWrite(properties.ttl())
+                .recordStats()
+                .buildAsync();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, name);
+    }
+
+    public Mono<V> get(String id, Function<String, Mono<V>> loader) {
+        return Mono.fromFuture(() -> cache.get(id, (key, executor) -> loader.apply(key).toFuture()), true);
+    }
+
+    /**
+     * @param loader loads the given misses at once; ids missing from its result are not cached
+     * @return the entities found, keyed by id
+     */
+    public Mono<Map<String, V>> getAll(Collection<String> ids, Function<Set<String>, Mono<Map<String, V>>> loader) {
+        return Mono.fromFuture(() -> cache.getAll(ids, (keys, executor) ->
+                loader.apply(Set.copyOf(keys)).defaultIfEmpty(Map.of()).toFuture()), true);
+    }
+
+    /**
+     * @return the cached entity without loading it on a miss
+     */
+    public Mono<V> getIfPresent(String id) {
+        return Mono.defer(() -> {
+            CompletableFuture<V> cached = cache.getIfPresent(id);
+            return cached == null ? Mono.empty() : Mono.fromFuture(cached, true);
+        });
+    }
+
+    public void invalidate(String id) {
+        cache.synchronous().invalidate(id);
+    }
+
+    public void invalidateAll(Collection<String> ids) {
+        cache.synchronous().invalidateAll(ids);
+    }
+
+    public void invalidateAll() {
+        cache.synchronous().invalidateAll();
+    }
+}
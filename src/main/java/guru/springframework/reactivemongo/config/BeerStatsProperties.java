@@ -0,0 +1,19 @@
+package guru.springframework.reactivemongo.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Settings for the cached beer catalog statistics.
+ *
+ * @param refreshAfter age after which the next request triggers a background re-aggregation
+ *                     while still being answered from the cached result
+ * @param expireAfter  age after which a result that has not been refreshed is dropped and
+ *                     the next request waits for a fresh aggregation
+ */
+@ConfigurationProperties("app.beer-stats")
+public record BeerStatsProperties(@DefaultValue("30s") Duration refreshAfter,
+                                  @DefaultValue("10m") Duration expireAfter) {
+}
@@ -0,0 +1,95 @@
+package guru.springframework.reactivemongo.config;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import guru.springframework.reactivemongo.web.fn.DocumentMediaTypes;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.web.codec.CodecCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.http.codec.cbor.Jackson2CborEncoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.codec.json.Jackson2SmileDecoder;
+import org.springframework.http.codec.json.Jackson2SmileEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * CBOR and Smile codecs for service-to-service callers, configured like the JSON codec
+ * (same modules, date format and inclusion rules) so the three carry the same documents.
+ * Which one a response uses is negotiated per request; JSON stays the default. CBOR request
+ * bodies are single documents: Jackson has no non-blocking CBOR parser, so a CBOR array
+ * could only be decoded whole, and the streaming bulk route does not accept them.
+ * <p>
+ * Responses with an explicit content type, which the document routes always set, are
+ * written by {@link ProjectionEncoder}s so that projected responses leave out null
+ * properties in every format; full documents keep them.
+ */
+@Configuration
+public class BinaryCodecsConfig {
+
+    @Bean
+    public CodecCustomizer binaryCodecsCustomizer(ObjectMapper jsonMapper,
+                                                  ObjectProvider<Jackson2ObjectMapperBuilder> builders) {
+        ObjectMapper cborMapper = builders.getObject().factory(new CBORFactory()).build();
+        ObjectMapper smileMapper = builders.getObject().factory(new SmileFactory()).build();
+
+        return configurer -> {
+            configurer.customCodecs().register(new ProjectionEncoder(
+                    new Jackson2JsonEncoder(jsonMapper), new Jackson2JsonEncoder(projectionMapper(jsonMapper))));
+            configurer.customCodecs().register(new ProjectionEncoder(
+                    new CollectingCborEncoder(cborMapper), new CollectingCborEncoder(projectionMapper(cborMapper))));
+            configurer.customCodecs().register(new Jackson2CborDecoder(cborMapper, MediaType.APPLICATION_CBOR));
+            // the codec constructors are varargs and fall back to the JSON media types when none are given
+            configurer.customCodecs().register(new ProjectionEncoder(
+                    new Jackson2SmileEncoder(smileMapper, DocumentMediaTypes.APPLICATION_SMILE),
+                    new Jackson2SmileEncoder(projectionMapper(smileMapper), DocumentMediaTypes.APPLICATION_SMILE)));
+            configurer.defaultCodecs().jackson2SmileEncoder(
+                    new Jackson2SmileEncoder(smileMapper, DocumentMediaTypes.APPLICATION_SMILE));
+            configurer.defaultCodecs().jackson2SmileDecoder(
+                    new Jackson2SmileDecoder(smileMapper, DocumentMediaTypes.APPLICATION_SMILE));
+        };
+    }
+
+    private static ObjectMapper projectionMapper(ObjectMapper mapper) {
+        return mapper.copy().setDefaultPropertyInclusion(JsonInclude.Include.NON_NULL);
+    }
+
+    /**
+     * Spring's CBOR encoder only writes single values; list bodies are collected and
+     * written as one CBOR array, as the JSON encoder does for non streaming media types,
+     * while a {@link Mono} body is still written as the bare value.
+     */
+    static class CollectingCborEncoder extends Jackson2CborEncoder {
+
+        CollectingCborEncoder(ObjectMapper mapper) {
+            super(mapper, MediaType.APPLICATION_CBOR);
+        }
+
+        @Override
+        public Flux<DataBuffer> encode(Publisher<?> inputStream, DataBufferFactory bufferFactory,
+                                       ResolvableType elementType, MimeType mimeType, Map<String, Object> hints) {
+            if (inputStream instanceof Mono<?> mono) {
+                return mono.map(value -> encodeValue(value, bufferFactory, elementType, mimeType, hints)).flux();
+            }
+            ResolvableType listType = ResolvableType.forClassWithGenerics(List.class, elementType);
+            return Flux.from(inputStream)
+                    .collectList()
+                    .map(values -> encodeValue(values, bufferFactory, listType, mimeType, hints))
+                    .flux();
+        }
+    }
+}
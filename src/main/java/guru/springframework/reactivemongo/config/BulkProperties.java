@@ -0,0 +1,15 @@
+package guru.springframework.reactivemongo.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Settings for bulk beer loads.
+ *
+ * @param chunkSize   documents sent to Mongo in one unordered bulk write
+ * @param concurrency bulk writes allowed in flight at the same time
+ */
+@ConfigurationProperties("app.bulk")
+public record BulkProperties(@DefaultValue("1000") int chunkSize,
+                             @DefaultValue("2") int concurrency) {
+}
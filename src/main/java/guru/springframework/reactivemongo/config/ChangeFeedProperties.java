@@ -0,0 +1,19 @@
+package guru.springframework.reactivemongo.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Settings for the change feed endpoints.
+ *
+ * @param subscriberBufferSize events buffered for one slow subscriber before its stream is
+ *                             terminated; the client then reconnects with its last resume
+ *                             token instead of slowing down every other subscriber
+ * @param heartbeatInterval    interval of the keep-alive comments sent on idle SSE streams
+ */
+@ConfigurationProperties("app.change-feed")
+public record ChangeFeedProperties(@DefaultValue("256") int subscriberBufferSize,
+                                   @DefaultValue("15s") Duration heartbeatInterval) {
+}
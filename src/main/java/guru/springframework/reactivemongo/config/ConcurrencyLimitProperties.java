@@ -0,0 +1,35 @@
+package guru.springframework.reactivemongo.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Settings for the adaptive per-route limits on requests in flight.
+ *
+ * @param enabled      apply the limits; when off every request is admitted
+ * @param retryAfter   {@code Retry-After} sent with the 503 of a rejected request
+ * @param backoffRatio factor applied to a route's limit after a slow or failed request
+ * @param read         budget of each GET and HEAD route
+ * @param write        budget of each other route
+ */
+@ConfigurationProperties("app.concurrency-limit")
+public record ConcurrencyLimitProperties(@DefaultValue("true") boolean enabled,
+                                         @DefaultValue("1s") Duration retryAfter,
+                                         @DefaultValue("0.9") double backoffRatio,
+                                         @DefaultValue Budget read,
+                                         @DefaultValue Budget write) {
+
+    /**
+     * @param initialLimit     requests allowed in flight before any latency is observed
+     * @param minLimit         floor the limit never backs off below
+     * @param maxLimit         ceiling the limit never grows above
+     * @param latencyThreshold requests slower than this shrink the limit, faster ones grow it
+     */
+    public record Budget(@DefaultValue("100") int initialLimit,
+                         @DefaultValue("10") int minLimit,
+                         @DefaultValue("1000") int maxLimit,
+                         @DefaultValue("250ms") Duration latencyThreshold) {
+    }
+}
@@ -0,0 +1,22 @@
+package guru.springframework.reactivemongo.config;
+
+import guru.springframework.reactivemongo.cache.EntityCache;
+import guru.springframework.reactivemongo.domain.Beer;
+import guru.springframework.reactivemongo.domain.Customer;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class EntityCacheConfig {
+
+    @Bean
+    public EntityCache<Beer> beerCache(EntityCacheProperties properties, MeterRegistry meterRegistry) {
+        return new EntityCache<>("beerById", properties, meterRegistry);
+    }
+
+    @Bean
+    public EntityCache<Customer> customerCache(EntityCacheProperties properties, MeterRegistry meterRegistry) {
+        return new EntityCache<>("customerById", properties, meterRegistry);
+    }
+}
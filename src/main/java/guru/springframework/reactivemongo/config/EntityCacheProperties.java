@@ -0,0 +1,24 @@
+package guru.springframework.reactivemongo.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Settings for the by-id read-through caches in front of the beer and customer collections.
+ *
+ * @param maximumSize              entries kept per cache before size based eviction
+ * @param ttl                      time after a load before an entry expires
+ * @param changeStreamInvalidation evict entries from Mongo change streams as well as from
+ *                                 this instance's own write paths
+ * @param changeStreamMinBackoff   first delay before reconnecting a failed change stream
+ * @param changeStreamMaxBackoff   longest delay between reconnect attempts
+ */
+@ConfigurationProperties("app.entity-cache")
+public record EntityCacheProperties(@DefaultValue("10000") long maximumSize,
+                                    @DefaultValue("10m") Duration ttl,
+                                    @DefaultValue("true") boolean changeStreamInvalidation,
+                                    @DefaultValue("1s") Duration changeStreamMinBackoff,
+                                    @DefaultValue("1m") Duration changeStreamMaxBackoff) {
+}
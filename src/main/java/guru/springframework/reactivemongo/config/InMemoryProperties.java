@@ -0,0 +1,17 @@
+package guru.springframework.reactivemongo.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * The in-memory repositories used under the {@code inmemory} profile.
+ *
+ * @param latency delay added to every repository call, standing in for the database round trip
+ * @param jitter  upper bound of a uniformly distributed delay added on top of {@code latency}
+ */
+@ConfigurationProperties("app.in-memory")
+public record InMemoryProperties(@DefaultValue("0ms") Duration latency,
+                                 @DefaultValue("0ms") Duration jitter) {
+}
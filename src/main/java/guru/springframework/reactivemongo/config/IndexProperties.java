@@ -0,0 +1,25 @@
+package guru.springframework.reactivemongo.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Startup index management.
+ *
+ * @param createOnStartup create the indexes declared on the domain classes when the app starts
+ * @param planCheck       what to do when a derived query's winning plan is a collection scan
+ * @param timeout         how long startup waits for the checks when {@code planCheck} is {@code fail}
+ */
+@ConfigurationProperties("app.indexes")
+public record IndexProperties(@DefaultValue("true") boolean createOnStartup,
+                              @DefaultValue("warn") PlanCheck planCheck,
+                              @DefaultValue("30s") Duration timeout) {
+
+    public enum PlanCheck {
+        OFF,
+        WARN,
+        FAIL
+    }
+}
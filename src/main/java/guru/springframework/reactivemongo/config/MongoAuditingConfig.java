@@ -0,0 +1,15 @@
+package guru.springframework.reactivemongo.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.config.EnableReactiveMongoAuditing;
+
+/**
+ * Fills {@code createdDate}/{@code lastModifiedDate} on repository saves, which the list
+ * ETags rely on as the collection's last-modified watermark.
+ */
+@Configuration
+@Profile("!inmemory")
+@EnableReactiveMongoAuditing
+public class MongoAuditingConfig {
+}
@@ -0,0 +1,26 @@
+package guru.springframework.reactivemongo.config;
+
+import guru.springframework.reactivemongo.repositories.convert.BeerReadingConverter;
+import guru.springframework.reactivemongo.repositories.convert.CustomerReadingConverter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+
+import java.util.List;
+
+/**
+ * Only reading converters are registered: a writing converter would make the entity a simple
+ * type, leaving the repositories, query mapping and index creation without its mapping
+ * metadata. {@code @Version}, auditing and the {@code Decimal128} price stay with the mapping.
+ */
+@Configuration
+public class MongoConversionsConfig {
+
+    @Bean
+    public MongoCustomConversions mongoCustomConversions(MongoConversionsProperties properties) {
+        if (!properties.handWrittenReaders()) {
+            return new MongoCustomConversions(List.of());
+        }
+        return new MongoCustomConversions(List.of(new BeerReadingConverter(), new CustomerReadingConverter()));
+    }
+}
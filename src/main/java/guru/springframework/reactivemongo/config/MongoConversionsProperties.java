@@ -0,0 +1,14 @@
+package guru.springframework.reactivemongo.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * How beer and customer documents are read.
+ *
+ * @param handWrittenReaders read with the hand-written converters instead of the reflective
+ *                           entity mapping; writes always go through the mapping
+ */
+@ConfigurationProperties("app.mongo-conversions")
+public record MongoConversionsProperties(@DefaultValue("false") boolean handWrittenReaders) {
+}
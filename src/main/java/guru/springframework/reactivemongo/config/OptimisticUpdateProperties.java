@@ -0,0 +1,18 @@
+package guru.springframework.reactivemongo.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Settings for the retrying read-modify-write used by internal callers.
+ *
+ * @param maxAttempts conditional writes tried before a version conflict is given up on
+ * @param backoff     initial delay before retrying after a conflict, doubled (with jitter)
+ *                    on every further attempt
+ */
+@ConfigurationProperties("app.optimistic-update")
+public record OptimisticUpdateProperties(@DefaultValue("5") int maxAttempts,
+                                         @DefaultValue("10ms") Duration backoff) {
+}
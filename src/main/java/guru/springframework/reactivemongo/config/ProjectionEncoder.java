@@ -0,0 +1,80 @@
+package guru.springframework.reactivemongo.config;
+
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.Encoder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.HttpMessageEncoder;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes bodies marked with {@link #PROJECTION_HINT} with the projection encoder, which
+ * leaves out null properties, so a {@code fields=} response only carries the requested
+ * fields. Every other body is written by the document encoder, nulls included.
+ * <p>
+ * Registered as a custom codec, which is consulted before the default ones, so it only
+ * takes bodies whose media type was set: CBOR or Smile are never the default for a body
+ * without a content type, and such bodies keep the default JSON encoder.
+ */
+public class ProjectionEncoder implements HttpMessageEncoder<Object> {
+    public static final String PROJECTION_HINT = ProjectionEncoder.class.getName() + ".projection";
+
+    private final HttpMessageEncoder<Object> documentEncoder;
+    private final Encoder<Object> projectionEncoder;
+
+    public ProjectionEncoder(HttpMessageEncoder<Object> documentEncoder, Encoder<Object> projectionEncoder) {
+        this.documentEncoder = documentEncoder;
+        this.projectionEncoder = projectionEncoder;
+    }
+
+    @Override
+    public boolean canEncode(ResolvableType elementType, MimeType mimeType) {
+        return mimeType != null && documentEncoder.canEncode(elementType, mimeType);
+    }
+
+    @Override
+    public Flux<DataBuffer> encode(Publisher<?> inputStream, DataBufferFactory bufferFactory,
+                                   ResolvableType elementType, MimeType mimeType, Map<String, Object> hints) {
+        return encoder(hints).encode(inputStream, bufferFactory, elementType, mimeType, hints);
+    }
+
+    @Override
+    public DataBuffer encodeValue(Object value, DataBufferFactory bufferFactory,
+                                  ResolvableType valueType, MimeType mimeType, Map<String, Object> hints) {
+        return encoder(hints).encodeValue(value, bufferFactory, valueType, mimeType, hints);
+    }
+
+    @Override
+    public List<MimeType> getEncodableMimeTypes() {
+        return documentEncoder.getEncodableMimeTypes();
+    }
+
+    @Override
+    public List<MimeType> getEncodableMimeTypes(ResolvableType elementType) {
+        return documentEncoder.getEncodableMimeTypes(elementType);
+    }
+
+    @Override
+    public List<MediaType> getStreamingMediaTypes() {
+        return documentEncoder.getStreamingMediaTypes();
+    }
+
+    @Override
+    public Map<String, Object> getEncodeHints(ResolvableType actualType, ResolvableType elementType,
+                                              MediaType mediaType, ServerHttpRequest request,
+                                              ServerHttpResponse response) {
+        return documentEncoder.getEncodeHints(actualType, elementType, mediaType, request, response);
+    }
+
+    private Encoder<Object> encoder(Map<String, Object> hints) {
+        return hints != null && Boolean.TRUE.equals(hints.get(PROJECTION_HINT)) ? projectionEncoder : documentEncoder;
+    }
+}
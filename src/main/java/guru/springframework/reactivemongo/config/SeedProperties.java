@@ -0,0 +1,25 @@
+package guru.springframework.reactivemongo.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Synthetic data generation under the {@code seed} profile.
+ *
+ * @param beers            beers the collection is topped up to
+ * @param customers        customers the collection is topped up to
+ * @param batchSize        documents sent to Mongo in one insert
+ * @param concurrency      inserts allowed in flight at the same time
+ * @param randomSeed       seed the generated data is derived from; the same seed yields the same data
+ * @param progressInterval how often throughput is logged while seeding
+ */
+@ConfigurationProperties("app.seed")
+public record SeedProperties(@DefaultValue("100000") int beers,
+                             @DefaultValue("10000") int customers,
+                             @DefaultValue("1000") int batchSize,
+                             @DefaultValue("4") int concurrency,
+                             @DefaultValue("42") long randomSeed,
+                             @DefaultValue("5s") Duration progressInterval) {
+}
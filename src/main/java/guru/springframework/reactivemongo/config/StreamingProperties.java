@@ -0,0 +1,14 @@
+package guru.springframework.reactivemongo.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Settings for the NDJSON / SSE list streams.
+ *
+ * @param batchSize documents fetched per Mongo cursor batch; also the demand
+ *                  requested from the cursor at a time
+ */
+@ConfigurationProperties("app.streaming")
+public record StreamingProperties(@DefaultValue("256") int batchSize) {
+}
@@ -4,27 +4,49 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.index.TextIndexed;
 import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.FieldType;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 @Document
+@CompoundIndexes({
+        @CompoundIndex(name = "beerName_id", def = "{'beerName': 1, '_id': 1}"),
+        @CompoundIndex(name = "beerStyle_id", def = "{'beerStyle': 1, '_id': 1}"),
+        @CompoundIndex(name = "beerStyle_lastModifiedDate", def = "{'beerStyle': 1, 'lastModifiedDate': -1}")
+})
 public class Beer {
 
     @Id
     private String id;
+    @TextIndexed(weight = 3)
     private String beerName;
+    @TextIndexed
     private String beerStyle;
     private String upc;
     private Integer quantityOnHand;
+    @Field(targetType = FieldType.DECIMAL128)
     private BigDecimal price;
+    @CreatedDate
     private LocalDateTime createdDate;
+    @Indexed
+    @LastModifiedDate
     private LocalDateTime lastModifiedDate;
+    @Version
+    private Long version;
 }
@@ -8,24 +8,36 @@ import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDateTime;
 
-@Builder
+@Builder(toBuilder = true)
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
 @Document
+@CompoundIndexes({
+        @CompoundIndex(name = "customerName_ci", def = "{'customerName': 1, '_id': 1}",
+                collation = "{'locale': 'en', 'strength': 1}")
+})
 public class Customer {
     @Id
     private String id;
 
     @Size(max = 255)
+    @Indexed
     private String customerName;
 
     @CreatedDate
     private LocalDateTime createdDate;
+    @Indexed
     @LastModifiedDate
     private LocalDateTime lastModifiedDate;
+    @Version
+    private Long version;
 }
@@ -3,9 +3,11 @@ package guru.springframework.reactivemongo.mappers;
 import guru.springframework.reactivemongo.domain.Beer;
 import guru.springframework.reactivemongo.model.BeerDTO;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 
 @Mapper
 public interface BeerMapper {
     BeerDTO toDTO(Beer beer);
+    @Mapping(target = "version", ignore = true)
     Beer toEntity(BeerDTO beerDTO);
 }
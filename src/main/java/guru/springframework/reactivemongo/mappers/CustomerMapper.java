@@ -3,9 +3,11 @@ package guru.springframework.reactivemongo.mappers;
 import guru.springframework.reactivemongo.domain.Customer;
 import guru.springframework.reactivemongo.model.CustomerDTO;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 
 @Mapper
 public interface CustomerMapper {
     CustomerDTO toDTO(Customer customer);
+    @Mapping(target = "version", ignore = true)
     Customer toEntity(CustomerDTO customerDTO);
 }
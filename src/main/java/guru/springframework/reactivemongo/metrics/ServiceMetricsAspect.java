@@ -0,0 +1,70 @@
+package guru.springframework.reactivemongo.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.Locale;
+
+/**
+ * Times the public methods of the beer and customer services as {@value #METRIC_NAME},
+ * tagged with the service class, method and outcome. For reactive results the timer runs
+ * from subscription to completion, error or cancellation rather than around assembly,
+ * so it includes the repository call and the mapping.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class ServiceMetricsAspect {
+    static final String METRIC_NAME = "service.method";
+
+    private final MeterRegistry meterRegistry;
+
+    @Around("execution(public * *(..)) && (target(guru.springframework.reactivemongo.services.BeerService) "
+            + "|| target(guru.springframework.reactivemongo.services.CustomerService))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        String serviceName = joinPoint.getTarget().getClass().getSimpleName();
+        String methodName = joinPoint.getSignature().getName();
+
+        Object result = joinPoint.proceed();
+
+        if (result instanceof Mono<?> mono) {
+            return Mono.defer(() -> {
+                Timer.Sample sample = Timer.start(meterRegistry);
+                return mono.doFinally(signal -> sample.stop(timer(serviceName, methodName, signal)));
+            });
+        }
+        if (result instanceof Flux<?> flux) {
+            return Flux.defer(() -> {
+                Timer.Sample sample = Timer.start(meterRegistry);
+                return flux.doFinally(signal -> sample.stop(timer(serviceName, methodName, signal)));
+            });
+        }
+        return result;
+    }
+
+    private Timer timer(String serviceName, String methodName, SignalType signal) {
+        return Timer.builder(METRIC_NAME)
+                .description("Service method latency from subscription to termination")
+                .tag("class", serviceName)
+                .tag("method", methodName)
+                .tag("outcome", outcome(signal))
+                .register(meterRegistry);
+    }
+
+    private static String outcome(SignalType signal) {
+        return switch (signal) {
+            case ON_COMPLETE -> "success";
+            case ON_ERROR -> "error";
+            case CANCEL -> "cancelled";
+            default -> signal.name().toLowerCase(Locale.ROOT);
+        };
+    }
+}
@@ -0,0 +1,24 @@
+package guru.springframework.reactivemongo.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Builder
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BeerStatsDTO {
+    private String beerStyle;
+    private long count;
+    private BigDecimal averagePrice;
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+    private long totalQuantityOnHand;
+    private BigDecimal inventoryValue;
+}
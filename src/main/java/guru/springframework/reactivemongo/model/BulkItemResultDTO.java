@@ -0,0 +1,24 @@
+package guru.springframework.reactivemongo.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Builder
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkItemResultDTO {
+    private long index;
+    private String id;
+    private Status status;
+    private String error;
+
+    public enum Status {
+        CREATED,
+        UPSERTED,
+        INVALID,
+        FAILED
+    }
+}
@@ -0,0 +1,20 @@
+package guru.springframework.reactivemongo.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Builder
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ChangeEventDTO<T> {
+    private String operation;
+    private String id;
+    private T document;
+    private String resumeToken;
+    private Instant timestamp;
+}
@@ -20,4 +20,5 @@ public class CustomerDTO {
     private String customerName;
     private LocalDateTime createdDate;
     private LocalDateTime lastModifiedDate;
+    private Long version;
 }
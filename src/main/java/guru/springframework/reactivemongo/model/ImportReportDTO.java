@@ -0,0 +1,30 @@
+package guru.springframework.reactivemongo.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Outcome of an NDJSON import. {@code rejections} lists the first rejected lines only;
+ * {@code rejected} counts all of them.
+ */
+@Builder
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ImportReportDTO {
+    private long accepted;
+    private long rejected;
+    private List<Rejection> rejections;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Rejection {
+        private long line;
+        private String error;
+    }
+}
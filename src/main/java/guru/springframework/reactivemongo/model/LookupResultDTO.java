@@ -0,0 +1,26 @@
+package guru.springframework.reactivemongo.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One entry of a multi-get response, in request order; {@code document} is absent when
+ * {@code found} is false.
+ */
+@Builder
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class LookupResultDTO<T> {
+    private String id;
+    private boolean found;
+    private T document;
+
+    public static <T> LookupResultDTO<T> of(String id, T document) {
+        return new LookupResultDTO<>(id, document != null, document);
+    }
+}
@@ -0,0 +1,16 @@
+package guru.springframework.reactivemongo.model;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Builder
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class StockAdjustmentDTO {
+    @NotNull
+    private Integer delta;
+}
@@ -0,0 +1,16 @@
+package guru.springframework.reactivemongo.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Builder
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class StockLevelDTO {
+    private String id;
+    private Integer quantityOnHand;
+    private Long version;
+}
@@ -1,11 +1,22 @@
 package guru.springframework.reactivemongo.repositories;
 
 import guru.springframework.reactivemongo.domain.Beer;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
-public interface BeerRepository extends ReactiveMongoRepository<Beer, String> {
+import java.util.Collection;
+
+public interface BeerRepository extends ReactiveMongoRepository<Beer, String>, BeerRepositoryCustom {
     Mono<Beer> findFirstByBeerName(String beerName);
     Flux<Beer> findByBeerStyle(String beerStyle);
+
+    Flux<Beer> findAllByOrderByIdAsc(Limit limit);
+    Flux<Beer> findByIdGreaterThanOrderByIdAsc(String id, Limit limit);
+    Flux<Beer> findByBeerStyleOrderByIdAsc(String beerStyle, Limit limit);
+    Flux<Beer> findByBeerStyleAndIdGreaterThanOrderByIdAsc(String beerStyle, String id, Limit limit);
+
+    Mono<Long> removeById(String id);
+    Mono<Long> removeByIdIn(Collection<String> ids);
 }
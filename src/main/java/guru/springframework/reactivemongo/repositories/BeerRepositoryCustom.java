@@ -0,0 +1,101 @@
+package guru.springframework.reactivemongo.repositories;
+
+import guru.springframework.reactivemongo.domain.Beer;
+import guru.springframework.reactivemongo.model.BeerStatsDTO;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public interface BeerRepositoryCustom {
+    Flux<Beer> streamAll(String beerStyle, int batchSize);
+
+    /**
+     * Streams all beers in natural order with a cursor of {@code batchSize}; a non null
+     * {@code modifiedSince} keeps only those last modified at or after it, as a range scan on
+     * the {@code lastModifiedDate} index.
+     */
+    Flux<Beer> streamModifiedSince(LocalDateTime modifiedSince, int batchSize);
+
+    /**
+     * Finds beers with a projection on the given fields; the id is always included. A
+     * positive {@code limit} returns a keyset page ordered by id, starting after {@code afterId}.
+     */
+    Flux<Beer> findProjected(String beerStyle, String afterId, int limit, Collection<String> fields);
+
+    Mono<Beer> findByIdProjected(String id, Collection<String> fields);
+
+    /**
+     * Full text search over beer name and style, most relevant first. An empty
+     * {@code fields} reads whole documents.
+     */
+    Flux<Beer> searchText(String text, int limit, Collection<String> fields);
+
+    /**
+     * Finds beers whose name starts with {@code prefix} (case sensitive), in name order, as
+     * a range scan on the {@code beerName_id} index. Projected on the name alone the
+     * query is covered by that index.
+     */
+    Flux<Beer> findByBeerNamePrefix(String prefix, int limit, Collection<String> fields);
+
+    /**
+     * Reads only the version of a beer, projecting away the rest of the document. Documents
+     * written before versioning report version 0.
+     */
+    Mono<Long> findVersionById(String id);
+
+    /**
+     * @return the latest {@code lastModifiedDate} of the beers matching the filter, or empty
+     * if none has one
+     */
+    Mono<LocalDateTime> findLastModifiedDate(String beerStyle);
+
+    /**
+     * Counts the beers matching the filter; without a filter the count comes from the
+     * collection metadata instead of a scan.
+     */
+    Mono<Long> countMatching(String beerStyle);
+
+    /**
+     * Applies a {@code $set} of the given fields and increments the version in a single
+     * findAndModify.
+     *
+     * @return the updated beer, or empty if no beer has that id
+     */
+    Mono<Beer> updateFields(String id, Map<String, Object> fields);
+
+    /**
+     * Like {@link #updateFields(String, Map)}, but only applied while the stored version is
+     * one of {@code expectedVersions} (0 also matches beers written before versioning).
+     *
+     * @return the updated beer, or empty if no beer has that id and one of those versions
+     */
+    Mono<Beer> updateFields(String id, Map<String, Object> fields, Collection<Long> expectedVersions);
+
+    /**
+     * Aggregates count, price range, stock and inventory value server side, over the whole
+     * catalog or per beer style (ordered by style).
+     */
+    Flux<BeerStatsDTO> aggregateStats(boolean groupByBeerStyle);
+
+    /**
+     * Adds {@code delta} to the quantity on hand in one conditional {@code $inc}; a negative
+     * delta only applies while the quantity on hand is at least {@code -delta}. Only the id,
+     * quantity and version of the result are read back.
+     *
+     * @return the adjusted beer, or empty if no beer has that id or the stock is insufficient
+     */
+    Mono<Beer> adjustStock(String id, int delta);
+
+    /**
+     * Writes the beers in one unordered bulk write: beers without an id are inserted
+     * with version 0 (the generated id is set on the entity), the others replace the
+     * stored beer by id, or are inserted if missing, and get its version incremented.
+     *
+     * @return write errors keyed by the position of the failed beer in {@code beers}
+     */
+    Mono<Map<Integer, String>> bulkSave(List<Beer> beers);
+}
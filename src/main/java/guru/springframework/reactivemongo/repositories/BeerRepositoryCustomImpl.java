@@ -0,0 +1,295 @@
+package guru.springframework.reactivemongo.repositories;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import guru.springframework.reactivemongo.domain.Beer;
+import guru.springframework.reactivemongo.model.BeerStatsDTO;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveBulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoOperations;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.ArithmeticOperators;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.aggregation.ConvertOperators;
+import org.springframework.data.mongodb.core.aggregation.GroupOperation;
+import org.springframework.data.mongodb.core.aggregation.ProjectionOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.data.mongodb.core.query.TextQuery;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.util.StringUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.project;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+@RequiredArgsConstructor
+public class BeerRepositoryCustomImpl implements BeerRepositoryCustom {
+
+    private static final String VERSION = "version";
+
+    private final ReactiveMongoOperations mongoOperations;
+
+    @Override
+    public Flux<Beer> streamAll(String beerStyle, int batchSize) {
+        Query query = new Query().cursorBatchSize(batchSize);
+        if (StringUtils.hasText(beerStyle)) {
+            query.addCriteria(where("beerStyle").is(beerStyle));
+        }
+        return mongoOperations.find(query, Beer.class);
+    }
+
+    @Override
+    public Flux<Beer> streamModifiedSince(LocalDateTime modifiedSince, int batchSize) {
+        Query query = new Query().cursorBatchSize(batchSize);
+        if (modifiedSince != null) {
+            query.addCriteria(where("lastModifiedDate").gte(modifiedSince));
+        }
+        return mongoOperations.find(query, Beer.class);
+    }
+
+    @Override
+    public Flux<Beer> findProjected(String beerStyle, String afterId, int limit, Collection<String> fields) {
+        Query query = new Query();
+        if (StringUtils.hasText(beerStyle)) {
+            query.addCriteria(where("beerStyle").is(beerStyle));
+        }
+        if (afterId != null) {
+            query.addCriteria(where("id").gt(afterId));
+        }
+        if (limit > 0) {
+            query.with(Sort.by("id")).limit(limit);
+        }
+        query.fields().include(fields.toArray(String[]::new));
+
+        return mongoOperations.find(query, Beer.class);
+    }
+
+    @Override
+    public Mono<Beer> findByIdProjected(String id, Collection<String> fields) {
+        Query query = query(where("id").is(id));
+        query.fields().include(fields.toArray(String[]::new));
+
+        return mongoOperations.findOne(query, Beer.class);
+    }
+
+    @Override
+    public Flux<Beer> searchText(String text, int limit, Collection<String> fields) {
+        Query query = TextQuery.queryText(TextCriteria.forDefaultLanguage().matching(text))
+                .sortByScore()
+                .limit(limit);
+        if (!fields.isEmpty()) {
+            query.fields().include(fields.toArray(String[]::new));
+        }
+
+        return mongoOperations.find(query, Beer.class);
+    }
+
+    @Override
+    public Flux<Beer> findByBeerNamePrefix(String prefix, int limit, Collection<String> fields) {
+        Criteria beerName = where("beerName").gte(prefix);
+        String upperBound = prefixUpperBound(prefix);
+        if (upperBound != null) {
+            beerName.lt(upperBound);
+        }
+        Query query = query(beerName)
+                .with(Sort.by("beerName", "id"))
+                .limit(limit);
+        if (!fields.isEmpty()) {
+            query.fields().include(fields.toArray(String[]::new));
+        }
+
+        return mongoOperations.find(query, Beer.class);
+    }
+
+    /**
+     * The first string after every string starting with {@code prefix}, in the code point
+     * order Mongo compares strings in without a collation: the prefix with its last code
+     * point incremented. Appending {@link Character#MAX_VALUE} instead would miss names
+     * continuing with a supplementary character. {@code null} when there is no such string.
+     */
+    static String prefixUpperBound(String prefix) {
+        int end = prefix.length();
+        while (end > 0) {
+            int last = prefix.codePointBefore(end);
+            end -= Character.charCount(last);
+            if (last < Character.MAX_CODE_POINT) {
+                int next = last + 1 == Character.MIN_SURROGATE ? Character.MAX_SURROGATE + 1 : last + 1;
+                return prefix.substring(0, end) + Character.toString(next);
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public Mono<Long> findVersionById(String id) {
+        Query query = query(where("id").is(id));
+        query.fields().include(VERSION).exclude("id");
+
+        return mongoOperations.findOne(query, Beer.class)
+                .map(beer -> beer.getVersion() == null ? 0L : beer.getVersion());
+    }
+
+    @Override
+    public Mono<LocalDateTime> findLastModifiedDate(String beerStyle) {
+        Query query = new Query().with(Sort.by(Sort.Direction.DESC, "lastModifiedDate")).limit(1);
+        if (StringUtils.hasText(beerStyle)) {
+            query.addCriteria(where("beerStyle").is(beerStyle));
+        }
+        query.fields().include("lastModifiedDate").exclude("id");
+
+        return mongoOperations.findOne(query, Beer.class).mapNotNull(Beer::getLastModifiedDate);
+    }
+
+    @Override
+    public Mono<Long> countMatching(String beerStyle) {
+        if (!StringUtils.hasText(beerStyle)) {
+            return mongoOperations.estimatedCount(Beer.class);
+        }
+        return mongoOperations.count(query(where("beerStyle").is(beerStyle)), Beer.class);
+    }
+
+    @Override
+    public Mono<Beer> updateFields(String id, Map<String, Object> fields) {
+        return updateFields(query(where("id").is(id)), fields);
+    }
+
+    @Override
+    public Mono<Beer> updateFields(String id, Map<String, Object> fields, Collection<Long> expectedVersions) {
+        List<Long> versions = new ArrayList<>(expectedVersions);
+        if (versions.contains(0L)) {
+            versions.add(null);
+        }
+        return updateFields(query(where("id").is(id).and(VERSION).in(versions)), fields);
+    }
+
+    private Mono<Beer> updateFields(Query query, Map<String, Object> fields) {
+        Update update = new Update();
+        fields.forEach(update::set);
+        update.inc(VERSION, 1);
+
+        return mongoOperations.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true), Beer.class);
+    }
+
+    @Override
+    public Flux<BeerStatsDTO> aggregateStats(boolean groupByBeerStyle) {
+        ProjectionOperation values = project("beerStyle")
+                // prices written before they were stored as Decimal128 are strings; one that is not
+                // a number is left out of the price figures instead of failing the aggregation
+                .and(ConvertOperators.valueOf("price").convertTo("decimal").onErrorReturn(null).onNullReturn(null))
+                .as("price")
+                .and(ConditionalOperators.ifNull("quantityOnHand").then(0)).as("quantityOnHand");
+
+        GroupOperation group = (groupByBeerStyle ? Aggregation.group("beerStyle") : Aggregation.group())
+                .count().as("count")
+                .avg("price").as("averagePrice")
+                .min("price").as("minPrice")
+                .max("price").as("maxPrice")
+                .sum("quantityOnHand").as("totalQuantityOnHand")
+                .sum(ArithmeticOperators.valueOf("price").multiplyBy("quantityOnHand")).as("inventoryValue");
+
+        ProjectionOperation result = project("count", "averagePrice", "minPrice", "maxPrice",
+                "totalQuantityOnHand", "inventoryValue");
+        result = groupByBeerStyle ? result.and("beerStyle").previousOperation() : result.andExclude("_id");
+
+        List<AggregationOperation> stages = new ArrayList<>(List.of(values, group, result));
+        if (groupByBeerStyle) {
+            stages.add(Aggregation.sort(Sort.by("beerStyle")));
+        }
+
+        return mongoOperations.aggregate(Aggregation.newAggregation(Beer.class, stages), BeerStatsDTO.class);
+    }
+
+    @Override
+    public Mono<Beer> adjustStock(String id, int delta) {
+        Query query = query(where("id").is(id));
+        if (delta < 0) {
+            query.addCriteria(where("quantityOnHand").gte(-delta));
+        }
+        query.fields().include("quantityOnHand", VERSION);
+
+        Update update = new Update()
+                .inc("quantityOnHand", delta)
+                .inc(VERSION, 1)
+                .set("lastModifiedDate", LocalDateTime.now());
+
+        return mongoOperations.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true), Beer.class);
+    }
+
+    @Override
+    public Mono<Map<Integer, String>> bulkSave(List<Beer> beers) {
+        ReactiveBulkOperations bulkOperations = mongoOperations.bulkOps(BulkMode.UNORDERED, Beer.class);
+
+        LocalDateTime now = LocalDateTime.now();
+        for (Beer beer : beers) {
+            if (beer.getId() == null) {
+                beer.setId(ObjectId.get().toHexString());
+                beer.setCreatedDate(now);
+                beer.setLastModifiedDate(now);
+                beer.setVersion(0L);
+                bulkOperations.insert(beer);
+            } else {
+                bulkOperations.upsert(query(where("id").is(beer.getId())), replaceKeepingVersion(beer));
+            }
+        }
+
+        return bulkOperations.execute()
+                .map(result -> Collections.<Integer, String>emptyMap())
+                .onErrorResume(throwable -> findBulkWriteException(throwable) != null,
+                        throwable -> Mono.just(errorsByIndex(findBulkWriteException(throwable))));
+    }
+
+    /**
+     * Replaces the whole document like a replaceOne upsert, but as a pipeline update so the
+     * stored version can be incremented and the creation date kept.
+     */
+    private AggregationUpdate replaceKeepingVersion(Beer beer) {
+        Document replacement = new Document();
+        mongoOperations.getConverter().write(beer, replacement);
+        replacement.remove("createdDate");
+        replacement.remove("lastModifiedDate");
+        replacement.remove(VERSION);
+
+        Document serverFields = new Document()
+                .append(VERSION, new Document("$add", List.of(new Document("$ifNull", List.of("$" + VERSION, -1)), 1)))
+                .append("createdDate", new Document("$ifNull", List.of("$createdDate", "$$NOW")))
+                .append("lastModifiedDate", "$$NOW");
+
+        AggregationOperation replaceWith = context -> new Document("$replaceWith",
+                new Document("$mergeObjects", List.of(new Document("$literal", replacement), serverFields)));
+        return AggregationUpdate.from(List.of(replaceWith));
+    }
+
+    private static Map<Integer, String> errorsByIndex(MongoBulkWriteException exception) {
+        return exception.getWriteErrors().stream()
+                .collect(Collectors.toMap(BulkWriteError::getIndex, BulkWriteError::getMessage));
+    }
+
+    private static MongoBulkWriteException findBulkWriteException(Throwable throwable) {
+        while (throwable != null) {
+            if (throwable instanceof MongoBulkWriteException bulkWriteException) {
+                return bulkWriteException;
+            }
+            throwable = throwable.getCause();
+        }
+        return null;
+    }
+}
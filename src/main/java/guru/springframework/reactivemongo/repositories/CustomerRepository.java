@@ -1,9 +1,19 @@
 package guru.springframework.reactivemongo.repositories;
 
 import guru.springframework.reactivemongo.domain.Customer;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
-public interface CustomerRepository extends ReactiveMongoRepository<Customer, String> {
+import java.util.Collection;
+
+public interface CustomerRepository extends ReactiveMongoRepository<Customer, String>, CustomerRepositoryCustom {
     Flux<Customer> findByCustomerName(String customerName);
+
+    Flux<Customer> findAllByOrderByIdAsc(Limit limit);
+    Flux<Customer> findByIdGreaterThanOrderByIdAsc(String id, Limit limit);
+
+    Mono<Long> removeById(String id);
+    Mono<Long> removeByIdIn(Collection<String> ids);
 }
@@ -0,0 +1,87 @@
+package guru.springframework.reactivemongo.repositories;
+
+import guru.springframework.reactivemongo.domain.Customer;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Map;
+
+public interface CustomerRepositoryCustom {
+    Flux<Customer> streamAll(String customerName, int batchSize);
+
+    /**
+     * Streams all customers in natural order with a cursor of {@code batchSize}; a non null
+     * {@code modifiedSince} keeps only those last modified at or after it, as a range scan on
+     * the {@code lastModifiedDate} index.
+     */
+    Flux<Customer> streamModifiedSince(LocalDateTime modifiedSince, int batchSize);
+
+    /**
+     * Finds customers with a projection on the given fields; the id is always included. A
+     * positive {@code limit} returns a keyset page ordered by id, starting after {@code afterId}.
+     */
+    Flux<Customer> findProjected(String customerName, String afterId, int limit, Collection<String> fields);
+
+    Mono<Customer> findByIdProjected(String id, Collection<String> fields);
+
+    /**
+     * Finds customers by name ignoring case and diacritics, using the collation of the
+     * {@code customerName_ci} index. An empty {@code fields} reads whole documents.
+     */
+    Flux<Customer> findByCustomerNameIgnoreCase(String customerName, Collection<String> fields);
+
+    /**
+     * Finds customers whose name starts with {@code prefix}, ignoring case and diacritics,
+     * in name order. Runs as a collated range scan on the {@code customerName_ci} index
+     * rather than a regex.
+     */
+    Flux<Customer> findByCustomerNamePrefix(String prefix, Collection<String> fields);
+
+    /**
+     * Keyset page of the customers whose name equals, or with {@code prefix} starts with,
+     * {@code customerName} ignoring case and diacritics, ordered by id and starting after
+     * {@code afterId}. An empty {@code fields} reads whole documents.
+     */
+    Flux<Customer> findPageByCustomerNameInsensitive(String customerName, boolean prefix, String afterId,
+                                                     int limit, Collection<String> fields);
+
+    /**
+     * Counts the customers matching the insensitive name filter of
+     * {@link #findPageByCustomerNameInsensitive}.
+     */
+    Mono<Long> countByCustomerNameInsensitive(String customerName, boolean prefix);
+
+    /**
+     * @return the latest {@code lastModifiedDate} of the customers matching the insensitive
+     * name filter of {@link #findPageByCustomerNameInsensitive}, or empty if none has one
+     */
+    Mono<LocalDateTime> findLastModifiedDateInsensitive(String customerName, boolean prefix);
+
+    /**
+     * Reads only the version of a customer, projecting away the rest of the document. Documents
+     * written before versioning report version 0.
+     */
+    Mono<Long> findVersionById(String id);
+
+    /**
+     * @return the latest {@code lastModifiedDate} of the customers matching the filter, or empty
+     * if none has one
+     */
+    Mono<LocalDateTime> findLastModifiedDate(String customerName);
+
+    /**
+     * Counts the customers matching the filter; without a filter the count comes from the
+     * collection metadata instead of a scan.
+     */
+    Mono<Long> countMatching(String customerName);
+
+    /**
+     * Applies a {@code $set} of the given fields and increments the version in a single
+     * findAndModify.
+     *
+     * @return the updated customer, or empty if no customer has that id
+     */
+    Mono<Customer> updateFields(String id, Map<String, Object> fields);
+}
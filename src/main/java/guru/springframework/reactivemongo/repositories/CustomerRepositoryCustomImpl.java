@@ -0,0 +1,170 @@
+package guru.springframework.reactivemongo.repositories;
+
+import guru.springframework.reactivemongo.domain.Customer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoOperations;
+import org.springframework.data.mongodb.core.query.Collation;
+import org.springframework.data.mongodb.core.query.Collation.ComparisonLevel;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.util.StringUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Map;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+@RequiredArgsConstructor
+public class CustomerRepositoryCustomImpl implements CustomerRepositoryCustom {
+
+    private static final String VERSION = "version";
+
+    /**
+     * Must match the collation of the {@code customerName_ci} index, otherwise queries
+     * cannot use it.
+     */
+    public static final Collation CUSTOMER_NAME_COLLATION = Collation.of("en").strength(ComparisonLevel.primary());
+
+    private final ReactiveMongoOperations mongoOperations;
+
+    @Override
+    public Flux<Customer> streamAll(String customerName, int batchSize) {
+        Query query = new Query().cursorBatchSize(batchSize);
+        if (StringUtils.hasText(customerName)) {
+            query.addCriteria(where("customerName").is(customerName));
+        }
+        return mongoOperations.find(query, Customer.class);
+    }
+
+    @Override
+    public Flux<Customer> streamModifiedSince(LocalDateTime modifiedSince, int batchSize) {
+        Query query = new Query().cursorBatchSize(batchSize);
+        if (modifiedSince != null) {
+            query.addCriteria(where("lastModifiedDate").gte(modifiedSince));
+        }
+        return mongoOperations.find(query, Customer.class);
+    }
+
+    @Override
+    public Flux<Customer> findProjected(String customerName, String afterId, int limit, Collection<String> fields) {
+        Query query = new Query();
+        if (StringUtils.hasText(customerName)) {
+            query.addCriteria(where("customerName").is(customerName));
+        }
+        if (afterId != null) {
+            query.addCriteria(where("id").gt(afterId));
+        }
+        if (limit > 0) {
+            query.with(Sort.by("id")).limit(limit);
+        }
+        query.fields().include(fields.toArray(String[]::new));
+
+        return mongoOperations.find(query, Customer.class);
+    }
+
+    @Override
+    public Mono<Customer> findByIdProjected(String id, Collection<String> fields) {
+        Query query = query(where("id").is(id));
+        query.fields().include(fields.toArray(String[]::new));
+
+        return mongoOperations.findOne(query, Customer.class);
+    }
+
+    @Override
+    public Flux<Customer> findByCustomerNameIgnoreCase(String customerName, Collection<String> fields) {
+        return findCollated(insensitiveName(customerName, false), fields);
+    }
+
+    @Override
+    public Flux<Customer> findByCustomerNamePrefix(String prefix, Collection<String> fields) {
+        return findCollated(insensitiveName(prefix, true).with(Sort.by("customerName", "id")), fields);
+    }
+
+    @Override
+    public Flux<Customer> findPageByCustomerNameInsensitive(String customerName, boolean prefix, String afterId,
+                                                            int limit, Collection<String> fields) {
+        Query query = insensitiveName(customerName, prefix);
+        if (afterId != null) {
+            query.addCriteria(where("id").gt(afterId));
+        }
+        return findCollated(query.with(Sort.by("id")).limit(limit), fields);
+    }
+
+    @Override
+    public Mono<Long> countByCustomerNameInsensitive(String customerName, boolean prefix) {
+        return mongoOperations.count(insensitiveName(customerName, prefix), Customer.class);
+    }
+
+    @Override
+    public Mono<LocalDateTime> findLastModifiedDateInsensitive(String customerName, boolean prefix) {
+        Query query = insensitiveName(customerName, prefix)
+                .with(Sort.by(Sort.Direction.DESC, "lastModifiedDate"))
+                .limit(1);
+        query.fields().include("lastModifiedDate").exclude("id");
+
+        return mongoOperations.findOne(query, Customer.class).mapNotNull(Customer::getLastModifiedDate);
+    }
+
+    /**
+     * Equality or prefix range on the name under the {@code customerName_ci} collation.
+     */
+    private static Query insensitiveName(String customerName, boolean prefix) {
+        Criteria criteria = prefix
+                // U+FFFF sorts after every character under ICU collation
+                ? where("customerName").gte(customerName).lt(customerName + Character.MAX_VALUE)
+                : where("customerName").is(customerName);
+        return query(criteria).collation(CUSTOMER_NAME_COLLATION);
+    }
+
+    private Flux<Customer> findCollated(Query query, Collection<String> fields) {
+        if (!fields.isEmpty()) {
+            query.fields().include(fields.toArray(String[]::new));
+        }
+        return mongoOperations.find(query, Customer.class);
+    }
+
+    @Override
+    public Mono<Long> findVersionById(String id) {
+        Query query = query(where("id").is(id));
+        query.fields().include(VERSION).exclude("id");
+
+        return mongoOperations.findOne(query, Customer.class)
+                .map(customer -> customer.getVersion() == null ? 0L : customer.getVersion());
+    }
+
+    @Override
+    public Mono<LocalDateTime> findLastModifiedDate(String customerName) {
+        Query query = new Query().with(Sort.by(Sort.Direction.DESC, "lastModifiedDate")).limit(1);
+        if (StringUtils.hasText(customerName)) {
+            query.addCriteria(where("customerName").is(customerName));
+        }
+        query.fields().include("lastModifiedDate").exclude("id");
+
+        return mongoOperations.findOne(query, Customer.class).mapNotNull(Customer::getLastModifiedDate);
+    }
+
+    @Override
+    public Mono<Long> countMatching(String customerName) {
+        if (!StringUtils.hasText(customerName)) {
+            return mongoOperations.estimatedCount(Customer.class);
+        }
+        return mongoOperations.count(query(where("customerName").is(customerName)), Customer.class);
+    }
+
+    @Override
+    public Mono<Customer> updateFields(String id, Map<String, Object> fields) {
+        Update update = new Update();
+        fields.forEach(update::set);
+        update.inc(VERSION, 1);
+
+        return mongoOperations.findAndModify(query(where("id").is(id)), update,
+                FindAndModifyOptions.options().returnNew(true), Customer.class);
+    }
+}
@@ -0,0 +1,29 @@
+package guru.springframework.reactivemongo.repositories.convert;
+
+import guru.springframework.reactivemongo.domain.Beer;
+import org.bson.Document;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.data.convert.ReadingConverter;
+
+/**
+ * Reads a beer document field by field instead of through the reflective entity mapping.
+ * Projected documents leave the missing fields {@code null}, as the mapping does.
+ */
+@ReadingConverter
+public class BeerReadingConverter implements Converter<Document, Beer> {
+
+    @Override
+    public Beer convert(Document source) {
+        return Beer.builder()
+                .id(DocumentValues.id(source.get("_id")))
+                .beerName(DocumentValues.string(source.get("beerName")))
+                .beerStyle(DocumentValues.string(source.get("beerStyle")))
+                .upc(DocumentValues.string(source.get("upc")))
+                .quantityOnHand(DocumentValues.integer(source.get("quantityOnHand")))
+                .price(DocumentValues.decimal(source.get("price")))
+                .createdDate(DocumentValues.localDateTime(source.get("createdDate")))
+                .lastModifiedDate(DocumentValues.localDateTime(source.get("lastModifiedDate")))
+                .version(DocumentValues.longValue(source.get("version")))
+                .build();
+    }
+}
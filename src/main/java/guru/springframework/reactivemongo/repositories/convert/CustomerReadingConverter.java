@@ -0,0 +1,24 @@
+package guru.springframework.reactivemongo.repositories.convert;
+
+import guru.springframework.reactivemongo.domain.Customer;
+import org.bson.Document;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.data.convert.ReadingConverter;
+
+/**
+ * Reads a customer document field by field instead of through the reflective entity mapping.
+ */
+@ReadingConverter
+public class CustomerReadingConverter implements Converter<Document, Customer> {
+
+    @Override
+    public Customer convert(Document source) {
+        return Customer.builder()
+                .id(DocumentValues.id(source.get("_id")))
+                .customerName(DocumentValues.string(source.get("customerName")))
+                .createdDate(DocumentValues.localDateTime(source.get("createdDate")))
+                .lastModifiedDate(DocumentValues.localDateTime(source.get("lastModifiedDate")))
+                .version(DocumentValues.longValue(source.get("version")))
+                .build();
+    }
+}
@@ -0,0 +1,87 @@
+package guru.springframework.reactivemongo.repositories.convert;
+
+import org.bson.types.Decimal128;
+import org.bson.types.ObjectId;
+import org.springframework.util.NumberUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+
+/**
+ * Field conversions shared by the hand-written reading converters, each doing what
+ * {@code MappingMongoConverter} does for the same stored value.
+ */
+final class DocumentValues {
+
+    private DocumentValues() {
+    }
+
+    static String id(Object value) {
+        if (value == null) {
+            return null;
+        }
+        return value instanceof ObjectId objectId ? objectId.toHexString() : value.toString();
+    }
+
+    /**
+     * Numbers, booleans and other scalars stored in a string field are read as their text.
+     */
+    static String string(Object value) {
+        return value == null ? null : value.toString();
+    }
+
+    static Integer integer(Object value) {
+        return number(value, Integer.class);
+    }
+
+    static Long longValue(Object value) {
+        return number(value, Long.class);
+    }
+
+    /**
+     * Other number types are narrowed with an overflow check and strings are parsed, as
+     * Spring's number converters do; anything else fails as it would in the mapping.
+     */
+    private static <T extends Number> T number(Object value, Class<T> targetType) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof Number number) {
+            return NumberUtils.convertNumberToTargetClass(number, targetType);
+        }
+        return NumberUtils.parseNumber(value.toString(), targetType);
+    }
+
+    /**
+     * Prices are stored as {@link Decimal128}, which converts back without loss; strings and
+     * doubles written before the field had a target type are read through their decimal text.
+     */
+    static BigDecimal decimal(Object value) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof Decimal128 decimal128) {
+            return decimal128.bigDecimalValue();
+        }
+        return NumberUtils.parseNumber(value.toString(), BigDecimal.class);
+    }
+
+    /**
+     * Dates are stored as UTC instants and read in the system zone, like Spring Data's
+     * {@code LocalDateTime} conversion.
+     */
+    static LocalDateTime localDateTime(Object value) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof LocalDateTime localDateTime) {
+            return localDateTime;
+        }
+        if (value instanceof Date date) {
+            return LocalDateTime.ofInstant(date.toInstant(), ZoneId.systemDefault());
+        }
+        return LocalDateTime.parse(value.toString());
+    }
+}
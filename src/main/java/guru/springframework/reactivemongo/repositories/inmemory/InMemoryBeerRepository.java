@@ -0,0 +1,309 @@
+package guru.springframework.reactivemongo.repositories.inmemory;
+
+import guru.springframework.reactivemongo.config.InMemoryProperties;
+import guru.springframework.reactivemongo.domain.Beer;
+import guru.springframework.reactivemongo.model.BeerStatsDTO;
+import guru.springframework.reactivemongo.repositories.BeerRepository;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Repository;
+import org.springframework.util.StringUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * {@link BeerRepository} for the {@code inmemory} profile. Text search matches whole words,
+ * case insensitively, weighted like the text index; it does not stem or drop stop words.
+ */
+@Repository
+@Profile("inmemory")
+public class InMemoryBeerRepository extends InMemoryRepository<Beer> implements BeerRepository {
+
+    private static final int BEER_NAME_WEIGHT = 3;
+
+    public InMemoryBeerRepository(InMemoryProperties properties) {
+        super(properties);
+    }
+
+    @Override
+    public Mono<Beer> findFirstByBeerName(String beerName) {
+        return mono(() -> scan(null, hasBeerName(beerName), 1).stream().findFirst().orElse(null));
+    }
+
+    @Override
+    public Flux<Beer> findByBeerStyle(String beerStyle) {
+        return flux(() -> scan(null, hasBeerStyle(beerStyle), 0));
+    }
+
+    @Override
+    public Flux<Beer> findAllByOrderByIdAsc(Limit limit) {
+        return flux(() -> scan(null, beer -> true, max(limit)));
+    }
+
+    @Override
+    public Flux<Beer> findByIdGreaterThanOrderByIdAsc(String id, Limit limit) {
+        return flux(() -> scan(id, beer -> true, max(limit)));
+    }
+
+    @Override
+    public Flux<Beer> findByBeerStyleOrderByIdAsc(String beerStyle, Limit limit) {
+        return flux(() -> scan(null, hasBeerStyle(beerStyle), max(limit)));
+    }
+
+    @Override
+    public Flux<Beer> findByBeerStyleAndIdGreaterThanOrderByIdAsc(String beerStyle, String id, Limit limit) {
+        return flux(() -> scan(id, hasBeerStyle(beerStyle), max(limit)));
+    }
+
+    @Override
+    public Mono<Long> removeById(String id) {
+        return mono(() -> remove(List.of(id)));
+    }
+
+    @Override
+    public Mono<Long> removeByIdIn(Collection<String> ids) {
+        return mono(() -> remove(ids));
+    }
+
+    @Override
+    public Flux<Beer> streamAll(String beerStyle, int batchSize) {
+        return flux(() -> scan(null, matchesStyle(beerStyle), 0));
+    }
+
+    @Override
+    public Flux<Beer> streamModifiedSince(LocalDateTime modifiedSince, int batchSize) {
+        return flux(() -> scan(null, beer -> modifiedSince == null || (beer.getLastModifiedDate() != null
+                && !beer.getLastModifiedDate().isBefore(modifiedSince)), 0));
+    }
+
+    @Override
+    public Flux<Beer> findProjected(String beerStyle, String afterId, int limit, Collection<String> fields) {
+        return flux(() -> scan(afterId, matchesStyle(beerStyle), limit)).map(beer -> project(beer, fields));
+    }
+
+    @Override
+    public Mono<Beer> findByIdProjected(String id, Collection<String> fields) {
+        return findById(id).map(beer -> project(beer, fields));
+    }
+
+    @Override
+    public Flux<Beer> searchText(String text, int limit, Collection<String> fields) {
+        Set<String> terms = words(text).collect(Collectors.toSet());
+        return flux(() -> stream()
+                .map(beer -> Map.entry(beer, score(beer, terms)))
+                .filter(scored -> scored.getValue() > 0)
+                .sorted(Map.Entry.<Beer, Integer>comparingByValue().reversed())
+                .limit(limit)
+                .map(scored -> project(copy(scored.getKey()), fields))
+                .toList());
+    }
+
+    private static int score(Beer beer, Set<String> terms) {
+        return BEER_NAME_WEIGHT * (int) words(beer.getBeerName()).filter(terms::contains).count()
+                + (int) words(beer.getBeerStyle()).filter(terms::contains).count();
+    }
+
+    private static Stream<String> words(String text) {
+        if (text == null) {
+            return Stream.empty();
+        }
+        return Stream.of(text.toLowerCase(Locale.ROOT).split("\\W+")).filter(word -> !word.isEmpty());
+    }
+
+    @Override
+    public Flux<Beer> findByBeerNamePrefix(String prefix, int limit, Collection<String> fields) {
+        return flux(() -> select(beer -> beer.getBeerName() != null && beer.getBeerName().startsWith(prefix),
+                Comparator.comparing(Beer::getBeerName).thenComparing(Beer::getId), limit))
+                .map(beer -> project(beer, fields));
+    }
+
+    @Override
+    public Mono<Long> findVersionById(String id) {
+        return findById(id).map(this::versionOf);
+    }
+
+    @Override
+    public Mono<LocalDateTime> findLastModifiedDate(String beerStyle) {
+        return mono(() -> stream()
+                .filter(matchesStyle(beerStyle))
+                .map(Beer::getLastModifiedDate)
+                .filter(Objects::nonNull)
+                .max(Comparator.naturalOrder())
+                .orElse(null));
+    }
+
+    @Override
+    public Mono<Long> countMatching(String beerStyle) {
+        return mono(() -> stream().filter(matchesStyle(beerStyle)).count());
+    }
+
+    @Override
+    public Mono<Beer> updateFields(String id, Map<String, Object> fields) {
+        return mono(() -> updateFields(id, beer -> true, fields));
+    }
+
+    @Override
+    public Mono<Beer> updateFields(String id, Map<String, Object> fields, Collection<Long> expectedVersions) {
+        return mono(() -> updateFields(id, beer -> expectedVersions.contains(versionOf(beer)), fields));
+    }
+
+    @Override
+    public Flux<BeerStatsDTO> aggregateStats(boolean groupByBeerStyle) {
+        return flux(() -> {
+            if (!groupByBeerStyle) {
+                List<Beer> beers = stream().toList();
+                return beers.isEmpty() ? List.of() : List.of(stats(null, beers));
+            }
+            Map<String, List<Beer>> byStyle = stream()
+                    .collect(Collectors.groupingBy(beer -> Objects.requireNonNullElse(beer.getBeerStyle(), ""),
+                            TreeMap::new, Collectors.toList()));
+            return byStyle.entrySet().stream()
+                    .map(group -> stats(group.getKey().isEmpty() ? null : group.getKey(), group.getValue()))
+                    .toList();
+        });
+    }
+
+    /**
+     * Same semantics as the aggregation: missing prices are left out of the price figures,
+     * missing quantities count as 0.
+     */
+    private static BeerStatsDTO stats(String beerStyle, List<Beer> beers) {
+        List<BigDecimal> prices = beers.stream().map(Beer::getPrice).filter(Objects::nonNull).toList();
+        BigDecimal inventoryValue = beers.stream()
+                .filter(beer -> beer.getPrice() != null)
+                .map(beer -> beer.getPrice().multiply(BigDecimal.valueOf(quantityOnHand(beer))))
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+
+        return BeerStatsDTO.builder()
+                .beerStyle(beerStyle)
+                .count(beers.size())
+                .averagePrice(prices.isEmpty() ? null : prices.stream().reduce(BigDecimal.ZERO, BigDecimal::add)
+                        .divide(BigDecimal.valueOf(prices.size()), MathContext.DECIMAL128))
+                .minPrice(prices.stream().min(Comparator.naturalOrder()).orElse(null))
+                .maxPrice(prices.stream().max(Comparator.naturalOrder()).orElse(null))
+                .totalQuantityOnHand(beers.stream().mapToLong(InMemoryBeerRepository::quantityOnHand).sum())
+                .inventoryValue(inventoryValue)
+                .build();
+    }
+
+    private static int quantityOnHand(Beer beer) {
+        return beer.getQuantityOnHand() == null ? 0 : beer.getQuantityOnHand();
+    }
+
+    @Override
+    public Mono<Beer> adjustStock(String id, int delta) {
+        Predicate<Beer> sufficientStock = delta < 0
+                ? beer -> beer.getQuantityOnHand() != null && beer.getQuantityOnHand() >= -delta
+                : beer -> true;
+
+        return mono(() -> update(id, sufficientStock, beer -> {
+            beer.setQuantityOnHand(quantityOnHand(beer) + delta);
+            beer.setLastModifiedDate(LocalDateTime.now());
+            return beer;
+        })).map(beer -> Beer.builder()
+                .id(beer.getId())
+                .quantityOnHand(beer.getQuantityOnHand())
+                .version(beer.getVersion())
+                .build());
+    }
+
+    @Override
+    public Mono<Map<Integer, String>> bulkSave(List<Beer> beers) {
+        return mono(() -> {
+            // unordered like the Mongo bulk write: a failed beer is reported and the rest are still saved
+            Map<Integer, String> errorsByIndex = new HashMap<>();
+            for (int i = 0; i < beers.size(); i++) {
+                Beer beer = beers.get(i);
+                try {
+                    if (beer.getId() == null) {
+                        beer.setVersion(null);
+                        write(beer, true);
+                    } else {
+                        upsert(beer);
+                    }
+                } catch (DataAccessException exception) {
+                    errorsByIndex.put(i, exception.getMessage());
+                }
+            }
+            return errorsByIndex;
+        });
+    }
+
+    private static int max(Limit limit) {
+        return limit.isLimited() ? limit.max() : 0;
+    }
+
+    private static Predicate<Beer> hasBeerName(String beerName) {
+        return beer -> Objects.equals(beer.getBeerName(), beerName);
+    }
+
+    private static Predicate<Beer> hasBeerStyle(String beerStyle) {
+        return beer -> Objects.equals(beer.getBeerStyle(), beerStyle);
+    }
+
+    private static Predicate<Beer> matchesStyle(String beerStyle) {
+        return StringUtils.hasText(beerStyle) ? hasBeerStyle(beerStyle) : beer -> true;
+    }
+
+    @Override
+    protected Beer newInstance() {
+        return new Beer();
+    }
+
+    @Override
+    protected Beer copy(Beer beer) {
+        return beer.toBuilder().build();
+    }
+
+    @Override
+    protected String getId(Beer beer) {
+        return beer.getId();
+    }
+
+    @Override
+    protected void setId(Beer beer, String id) {
+        beer.setId(id);
+    }
+
+    @Override
+    protected Long getVersion(Beer beer) {
+        return beer.getVersion();
+    }
+
+    @Override
+    protected void setVersion(Beer beer, Long version) {
+        beer.setVersion(version);
+    }
+
+    @Override
+    protected LocalDateTime getCreatedDate(Beer beer) {
+        return beer.getCreatedDate();
+    }
+
+    @Override
+    protected void setCreatedDate(Beer beer, LocalDateTime createdDate) {
+        beer.setCreatedDate(createdDate);
+    }
+
+    @Override
+    protected void setLastModifiedDate(Beer beer, LocalDateTime lastModifiedDate) {
+        beer.setLastModifiedDate(lastModifiedDate);
+    }
+}
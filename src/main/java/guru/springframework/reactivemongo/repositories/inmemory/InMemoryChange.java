@@ -0,0 +1,13 @@
+package guru.springframework.reactivemongo.repositories.inmemory;
+
+import java.time.Instant;
+
+/**
+ * A write applied to an in-memory repository, shaped like a change stream event.
+ *
+ * @param operation {@code insert}, {@code replace}, {@code update} or {@code delete}
+ * @param document  the entity after the write, {@code null} for deletes
+ * @param sequence  position of the write in the repository's history
+ */
+record InMemoryChange<T>(String operation, String id, T document, long sequence, Instant timestamp) {
+}
@@ -0,0 +1,66 @@
+package guru.springframework.reactivemongo.repositories.inmemory;
+
+import guru.springframework.reactivemongo.config.ChangeFeedProperties;
+import guru.springframework.reactivemongo.mappers.BeerMapper;
+import guru.springframework.reactivemongo.mappers.CustomerMapper;
+import guru.springframework.reactivemongo.model.BeerDTO;
+import guru.springframework.reactivemongo.model.ChangeEventDTO;
+import guru.springframework.reactivemongo.model.CustomerDTO;
+import guru.springframework.reactivemongo.services.ChangeFeedService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+
+import java.util.function.Function;
+
+/**
+ * {@link ChangeFeedService} over the writes of the in-memory repositories. Resume tokens
+ * are write sequence numbers; no history is kept, so resuming continues with live changes.
+ */
+@Service
+@Profile("inmemory")
+@RequiredArgsConstructor
+public class InMemoryChangeFeedService implements ChangeFeedService {
+
+    private final InMemoryBeerRepository beerRepository;
+    private final InMemoryCustomerRepository customerRepository;
+    private final BeerMapper beerMapper;
+    private final CustomerMapper customerMapper;
+    private final ChangeFeedProperties changeFeedProperties;
+
+    @Override
+    public Flux<ChangeEventDTO<BeerDTO>> beerChanges(String resumeToken) {
+        return changes(beerRepository.changes(), resumeToken, beerMapper::toDTO);
+    }
+
+    @Override
+    public Flux<ChangeEventDTO<CustomerDTO>> customerChanges(String resumeToken) {
+        return changes(customerRepository.changes(), resumeToken, customerMapper::toDTO);
+    }
+
+    private <E, D> Flux<ChangeEventDTO<D>> changes(Flux<InMemoryChange<E>> changes, String resumeToken,
+                                                   Function<E, D> mapper) {
+        long resumeAfter = resumeToken == null ? 0 : sequence(resumeToken);
+
+        return changes
+                .filter(change -> change.sequence() > resumeAfter)
+                .map(change -> ChangeEventDTO.<D>builder()
+                        .operation(change.operation())
+                        .id(change.id())
+                        .document(change.document() == null ? null : mapper.apply(change.document()))
+                        .resumeToken(String.valueOf(change.sequence()))
+                        .timestamp(change.timestamp())
+                        .build())
+                .onBackpressureBuffer(changeFeedProperties.subscriberBufferSize());
+    }
+
+    private static long sequence(String resumeToken) {
+        try {
+            return Long.parseLong(resumeToken);
+        } catch (NumberFormatException e) {
+            // e.g. a Mongo resume token from before a restart
+            return 0;
+        }
+    }
+}
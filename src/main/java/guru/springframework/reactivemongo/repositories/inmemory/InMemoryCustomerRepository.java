@@ -0,0 +1,214 @@
+package guru.springframework.reactivemongo.repositories.inmemory;
+
+import guru.springframework.reactivemongo.config.InMemoryProperties;
+import guru.springframework.reactivemongo.domain.Customer;
+import guru.springframework.reactivemongo.repositories.CustomerRepository;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Repository;
+import org.springframework.util.StringUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.text.Collator;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Predicate;
+
+/**
+ * {@link CustomerRepository} for the {@code inmemory} profile. The case and diacritic
+ * insensitive lookups compare with a primary strength {@link Collator}, like the
+ * {@code customerName_ci} index.
+ */
+@Repository
+@Profile("inmemory")
+public class InMemoryCustomerRepository extends InMemoryRepository<Customer> implements CustomerRepository {
+
+    private final Collator customerNameCollator = Collator.getInstance(Locale.ENGLISH);
+
+    public InMemoryCustomerRepository(InMemoryProperties properties) {
+        super(properties);
+        customerNameCollator.setStrength(Collator.PRIMARY);
+    }
+
+    @Override
+    public Flux<Customer> findByCustomerName(String customerName) {
+        return flux(() -> scan(null, hasCustomerName(customerName), 0));
+    }
+
+    @Override
+    public Flux<Customer> findAllByOrderByIdAsc(Limit limit) {
+        return flux(() -> scan(null, customer -> true, max(limit)));
+    }
+
+    @Override
+    public Flux<Customer> findByIdGreaterThanOrderByIdAsc(String id, Limit limit) {
+        return flux(() -> scan(id, customer -> true, max(limit)));
+    }
+
+    @Override
+    public Mono<Long> removeById(String id) {
+        return mono(() -> remove(List.of(id)));
+    }
+
+    @Override
+    public Mono<Long> removeByIdIn(Collection<String> ids) {
+        return mono(() -> remove(ids));
+    }
+
+    @Override
+    public Flux<Customer> streamAll(String customerName, int batchSize) {
+        return flux(() -> scan(null, matchesName(customerName), 0));
+    }
+
+    @Override
+    public Flux<Customer> streamModifiedSince(LocalDateTime modifiedSince, int batchSize) {
+        return flux(() -> scan(null, customer -> modifiedSince == null || (customer.getLastModifiedDate() != null
+                && !customer.getLastModifiedDate().isBefore(modifiedSince)), 0));
+    }
+
+    @Override
+    public Flux<Customer> findProjected(String customerName, String afterId, int limit, Collection<String> fields) {
+        return flux(() -> scan(afterId, matchesName(customerName), limit)).map(customer -> project(customer, fields));
+    }
+
+    @Override
+    public Mono<Customer> findByIdProjected(String id, Collection<String> fields) {
+        return findById(id).map(customer -> project(customer, fields));
+    }
+
+    @Override
+    public Flux<Customer> findByCustomerNameIgnoreCase(String customerName, Collection<String> fields) {
+        return flux(() -> scan(null, matchesInsensitive(customerName, false), 0))
+                .map(customer -> project(customer, fields));
+    }
+
+    @Override
+    public Flux<Customer> findByCustomerNamePrefix(String prefix, Collection<String> fields) {
+        Comparator<Customer> byName = Comparator.comparing(Customer::getCustomerName, customerNameCollator);
+        return flux(() -> select(customer -> startsWith(customer.getCustomerName(), prefix),
+                byName.thenComparing(Customer::getId), 0))
+                .map(customer -> project(customer, fields));
+    }
+
+    @Override
+    public Flux<Customer> findPageByCustomerNameInsensitive(String customerName, boolean prefix, String afterId,
+                                                            int limit, Collection<String> fields) {
+        return flux(() -> scan(afterId, matchesInsensitive(customerName, prefix), limit))
+                .map(customer -> project(customer, fields));
+    }
+
+    @Override
+    public Mono<Long> countByCustomerNameInsensitive(String customerName, boolean prefix) {
+        return mono(() -> stream().filter(matchesInsensitive(customerName, prefix)).count());
+    }
+
+    @Override
+    public Mono<LocalDateTime> findLastModifiedDateInsensitive(String customerName, boolean prefix) {
+        return mono(() -> stream()
+                .filter(matchesInsensitive(customerName, prefix))
+                .map(Customer::getLastModifiedDate)
+                .filter(Objects::nonNull)
+                .max(Comparator.naturalOrder())
+                .orElse(null));
+    }
+
+    private Predicate<Customer> matchesInsensitive(String customerName, boolean prefix) {
+        return customer -> prefix
+                ? startsWith(customer.getCustomerName(), customerName)
+                : customer.getCustomerName() != null
+                        && customerNameCollator.equals(customer.getCustomerName(), customerName);
+    }
+
+    private boolean startsWith(String customerName, String prefix) {
+        return customerName != null && customerNameCollator.equals(
+                customerName.substring(0, Math.min(prefix.length(), customerName.length())), prefix);
+    }
+
+    @Override
+    public Mono<Long> findVersionById(String id) {
+        return findById(id).map(this::versionOf);
+    }
+
+    @Override
+    public Mono<LocalDateTime> findLastModifiedDate(String customerName) {
+        return mono(() -> stream()
+                .filter(matchesName(customerName))
+                .map(Customer::getLastModifiedDate)
+                .filter(Objects::nonNull)
+                .max(Comparator.naturalOrder())
+                .orElse(null));
+    }
+
+    @Override
+    public Mono<Long> countMatching(String customerName) {
+        return mono(() -> stream().filter(matchesName(customerName)).count());
+    }
+
+    @Override
+    public Mono<Customer> updateFields(String id, Map<String, Object> fields) {
+        return mono(() -> updateFields(id, customer -> true, fields));
+    }
+
+    private static int max(Limit limit) {
+        return limit.isLimited() ? limit.max() : 0;
+    }
+
+    private static Predicate<Customer> hasCustomerName(String customerName) {
+        return customer -> Objects.equals(customer.getCustomerName(), customerName);
+    }
+
+    private static Predicate<Customer> matchesName(String customerName) {
+        return StringUtils.hasText(customerName) ? hasCustomerName(customerName) : customer -> true;
+    }
+
+    @Override
+    protected Customer newInstance() {
+        return new Customer();
+    }
+
+    @Override
+    protected Customer copy(Customer customer) {
+        return customer.toBuilder().build();
+    }
+
+    @Override
+    protected String getId(Customer customer) {
+        return customer.getId();
+    }
+
+    @Override
+    protected void setId(Customer customer, String id) {
+        customer.setId(id);
+    }
+
+    @Override
+    protected Long getVersion(Customer customer) {
+        return customer.getVersion();
+    }
+
+    @Override
+    protected void setVersion(Customer customer, Long version) {
+        customer.setVersion(version);
+    }
+
+    @Override
+    protected LocalDateTime getCreatedDate(Customer customer) {
+        return customer.getCreatedDate();
+    }
+
+    @Override
+    protected void setCreatedDate(Customer customer, LocalDateTime createdDate) {
+        customer.setCreatedDate(createdDate);
+    }
+
+    @Override
+    protected void setLastModifiedDate(Customer customer, LocalDateTime lastModifiedDate) {
+        customer.setLastModifiedDate(lastModifiedDate);
+    }
+}
@@ -0,0 +1,461 @@
+package guru.springframework.reactivemongo.repositories.inmemory;
+
+import guru.springframework.reactivemongo.config.InMemoryProperties;
+import org.bson.types.ObjectId;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.MutablePropertyValues;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.data.repository.query.FluentQuery;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+
+/**
+ * Map backed stand-in for a reactive Mongo repository. Entities are copied on the way in
+ * and out, generated ids are {@link ObjectId} hex strings so id order matches Mongo's, and
+ * saves follow the template's rules for {@code @Version} and auditing. Every call is
+ * delayed by the configured latency and jitter before it touches the map.
+ * <p>
+ * Query by example is not implemented: nothing in the application calls it, and the
+ * {@link Example} methods fail with {@link UnsupportedOperationException}.
+ */
+abstract class InMemoryRepository<T> implements ReactiveMongoRepository<T, String> {
+
+    private final ConcurrentSkipListMap<String, T> entities = new ConcurrentSkipListMap<>();
+    private final Sinks.Many<InMemoryChange<T>> changes = Sinks.many().multicast().directBestEffort();
+    private final AtomicLong changeSequence = new AtomicLong();
+    private final InMemoryProperties properties;
+
+    InMemoryRepository(InMemoryProperties properties) {
+        this.properties = properties;
+    }
+
+    protected abstract T newInstance();
+
+    protected abstract T copy(T entity);
+
+    protected abstract String getId(T entity);
+
+    protected abstract void setId(T entity, String id);
+
+    protected abstract Long getVersion(T entity);
+
+    protected abstract void setVersion(T entity, Long version);
+
+    protected abstract LocalDateTime getCreatedDate(T entity);
+
+    protected abstract void setCreatedDate(T entity, LocalDateTime createdDate);
+
+    protected abstract void setLastModifiedDate(T entity, LocalDateTime lastModifiedDate);
+
+    /**
+     * Inserts, replacements, updates and deletes, in the order they were applied.
+     */
+    Flux<InMemoryChange<T>> changes() {
+        return changes.asFlux();
+    }
+
+    // ---- building blocks for the query methods
+
+    /**
+     * Runs {@code operation} after the injected delay; a {@code null} result completes empty.
+     */
+    protected <R> Mono<R> mono(Supplier<R> operation) {
+        return Mono.defer(() -> delay().then(Mono.fromSupplier(operation)));
+    }
+
+    protected <R> Flux<R> flux(Supplier<? extends Collection<R>> operation) {
+        return Mono.defer(this::delay).thenMany(Flux.defer(() -> Flux.fromIterable(operation.get())));
+    }
+
+    private Mono<Void> delay() {
+        Duration delay = properties.latency();
+        long jitterNanos = properties.jitter().toNanos();
+        if (jitterNanos > 0) {
+            delay = delay.plusNanos(ThreadLocalRandom.current().nextLong(jitterNanos));
+        }
+        return delay.isZero() ? Mono.empty() : Mono.delay(delay).then();
+    }
+
+    protected T get(String id) {
+        T entity = entities.get(id);
+        return entity == null ? null : copy(entity);
+    }
+
+    /**
+     * Copies of the entities matching {@code filter} in id order, starting after
+     * {@code afterId} when it is set; a positive {@code limit} caps the result.
+     */
+    protected List<T> scan(String afterId, Predicate<T> filter, int limit) {
+        Collection<T> candidates = afterId == null ? entities.values() : entities.tailMap(afterId, false).values();
+        Stream<T> matches = candidates.stream().filter(filter);
+        if (limit > 0) {
+            matches = matches.limit(limit);
+        }
+        return matches.map(this::copy).toList();
+    }
+
+    /**
+     * Copies of the entities matching {@code filter} in the given order; a positive
+     * {@code limit} caps the result.
+     */
+    protected List<T> select(Predicate<T> filter, Comparator<T> order, int limit) {
+        Stream<T> matches = entities.values().stream().filter(filter).sorted(order);
+        if (limit > 0) {
+            matches = matches.limit(limit);
+        }
+        return matches.map(this::copy).toList();
+    }
+
+    protected Stream<T> stream() {
+        return entities.values().stream();
+    }
+
+    /**
+     * Copy of {@code entity} holding only the id and the given fields; an empty
+     * {@code fields} keeps everything.
+     */
+    protected T project(T entity, Collection<String> fields) {
+        if (fields.isEmpty()) {
+            return entity;
+        }
+        T projection = newInstance();
+        setId(projection, getId(entity));
+        BeanWrapper source = PropertyAccessorFactory.forBeanPropertyAccess(entity);
+        BeanWrapper target = PropertyAccessorFactory.forBeanPropertyAccess(projection);
+        fields.forEach(field -> target.setPropertyValue(field, source.getPropertyValue(field)));
+        return projection;
+    }
+
+    /**
+     * Applies {@code modification} to the entity with that id if it matches
+     * {@code condition} and increments its version, atomically.
+     *
+     * @return a copy of the updated entity, or {@code null} if none matched
+     */
+    protected T update(String id, Predicate<T> condition, UnaryOperator<T> modification) {
+        return update(id, condition, modification, "update");
+    }
+
+    private T update(String id, Predicate<T> condition, UnaryOperator<T> modification, String operation) {
+        List<T> updated = new ArrayList<>(1);
+        entities.computeIfPresent(id, (key, stored) -> {
+            if (!condition.test(stored)) {
+                return stored;
+            }
+            T entity = modification.apply(copy(stored));
+            setVersion(entity, versionOf(stored) + 1);
+            updated.add(entity);
+            return entity;
+        });
+        if (updated.isEmpty()) {
+            return null;
+        }
+        publish(operation, updated.get(0));
+        return copy(updated.get(0));
+    }
+
+    protected T updateFields(String id, Predicate<T> condition, Map<String, Object> fields) {
+        return update(id, condition, entity -> {
+            PropertyAccessorFactory.forBeanPropertyAccess(entity).setPropertyValues(new MutablePropertyValues(fields));
+            return entity;
+        });
+    }
+
+    /**
+     * Replaces the entity with that id, or inserts it, keeping the stored creation date and
+     * incrementing the stored version like the bulk upsert does.
+     */
+    protected void upsert(T entity) {
+        LocalDateTime now = LocalDateTime.now();
+        T stored = entities.compute(getId(entity), (key, existing) -> {
+            T replacement = copy(entity);
+            setVersion(replacement, existing == null ? 0L : versionOf(existing) + 1);
+            LocalDateTime createdDate = existing == null ? null : getCreatedDate(existing);
+            setCreatedDate(replacement, createdDate == null ? now : createdDate);
+            setLastModifiedDate(replacement, now);
+            return replacement;
+        });
+        publish("replace", stored);
+    }
+
+    protected long versionOf(T entity) {
+        Long version = getVersion(entity);
+        return version == null ? 0L : version;
+    }
+
+    protected long remove(Collection<String> ids) {
+        long removed = 0;
+        for (String id : ids) {
+            if (id != null && entities.remove(id) != null) {
+                removed++;
+                changes.emitNext(new InMemoryChange<>("delete", id, null, changeSequence.incrementAndGet(),
+                        Instant.now()), Sinks.EmitFailureHandler.busyLooping(Duration.ofSeconds(1)));
+            }
+        }
+        return removed;
+    }
+
+    private void publish(String operation, T entity) {
+        changes.emitNext(new InMemoryChange<>(operation, getId(entity), copy(entity), changeSequence.incrementAndGet(),
+                Instant.now()), Sinks.EmitFailureHandler.busyLooping(Duration.ofSeconds(1)));
+    }
+
+    // ---- writes
+
+    /**
+     * Inserts the entity, or with {@code insert} unset and a version present, replaces the
+     * stored entity if it still has that version.
+     */
+    protected void write(T entity, boolean insert) {
+        LocalDateTime now = LocalDateTime.now();
+        Long expectedVersion = getVersion(entity);
+
+        if (insert || expectedVersion == null) {
+            if (getId(entity) == null) {
+                setId(entity, ObjectId.get().toHexString());
+            }
+            if (expectedVersion == null) {
+                setVersion(entity, 0L);
+            }
+            setCreatedDate(entity, now);
+            setLastModifiedDate(entity, now);
+            if (entities.putIfAbsent(getId(entity), copy(entity)) != null) {
+                throw new DuplicateKeyException("Duplicate key: " + getId(entity));
+            }
+            publish("insert", entity);
+            return;
+        }
+
+        setVersion(entity, expectedVersion + 1);
+        setLastModifiedDate(entity, now);
+        T replaced = update(getId(entity), stored -> Objects.equals(getVersion(stored), expectedVersion),
+                stored -> copy(entity), "replace");
+        if (replaced == null) {
+            setVersion(entity, expectedVersion);
+            throw new OptimisticLockingFailureException("Cannot save entity " + getId(entity) + " with version "
+                    + expectedVersion + "; it has been modified meanwhile");
+        }
+    }
+
+    @Override
+    public <S extends T> Mono<S> save(S entity) {
+        return mono(() -> {
+            write(entity, false);
+            return entity;
+        });
+    }
+
+    @Override
+    public <S extends T> Flux<S> saveAll(Iterable<S> entities) {
+        return Flux.fromIterable(entities).concatMap(this::save);
+    }
+
+    @Override
+    public <S extends T> Flux<S> saveAll(Publisher<S> entityStream) {
+        return Flux.from(entityStream).concatMap(this::save);
+    }
+
+    @Override
+    public <S extends T> Mono<S> insert(S entity) {
+        return mono(() -> {
+            write(entity, true);
+            return entity;
+        });
+    }
+
+    @Override
+    public <S extends T> Flux<S> insert(Iterable<S> entities) {
+        return flux(() -> {
+            List<S> inserted = new ArrayList<>();
+            entities.forEach(entity -> {
+                write(entity, true);
+                inserted.add(entity);
+            });
+            return inserted;
+        });
+    }
+
+    @Override
+    public <S extends T> Flux<S> insert(Publisher<S> entities) {
+        return Flux.from(entities).concatMap(this::insert);
+    }
+
+    // ---- reads
+
+    @Override
+    public Mono<T> findById(String id) {
+        return mono(() -> get(id));
+    }
+
+    @Override
+    public Mono<T> findById(Publisher<String> id) {
+        return Mono.from(id).flatMap(this::findById);
+    }
+
+    @Override
+    public Mono<Boolean> existsById(String id) {
+        return mono(() -> entities.containsKey(id));
+    }
+
+    @Override
+    public Mono<Boolean> existsById(Publisher<String> id) {
+        return Mono.from(id).flatMap(this::existsById);
+    }
+
+    @Override
+    public Flux<T> findAll() {
+        return flux(() -> scan(null, entity -> true, 0));
+    }
+
+    @Override
+    public Flux<T> findAll(Sort sort) {
+        return flux(() -> select(entity -> true, comparator(sort), 0));
+    }
+
+    @Override
+    public Flux<T> findAllById(Iterable<String> ids) {
+        return flux(() -> {
+            List<T> found = new ArrayList<>();
+            ids.forEach(id -> {
+                T entity = get(id);
+                if (entity != null) {
+                    found.add(entity);
+                }
+            });
+            return found;
+        });
+    }
+
+    @Override
+    public Flux<T> findAllById(Publisher<String> idStream) {
+        return Flux.from(idStream).buffer().concatMap(this::findAllById);
+    }
+
+    @Override
+    public Mono<Long> count() {
+        return mono(() -> (long) entities.size());
+    }
+
+    // ---- deletes
+
+    @Override
+    public Mono<Void> deleteById(String id) {
+        return mono(() -> remove(List.of(id))).then();
+    }
+
+    @Override
+    public Mono<Void> deleteById(Publisher<String> id) {
+        return Mono.from(id).flatMap(this::deleteById);
+    }
+
+    @Override
+    public Mono<Void> delete(T entity) {
+        return deleteById(getId(entity));
+    }
+
+    @Override
+    public Mono<Void> deleteAllById(Iterable<? extends String> ids) {
+        return mono(() -> {
+            List<String> idList = new ArrayList<>();
+            ids.forEach(idList::add);
+            return remove(idList);
+        }).then();
+    }
+
+    @Override
+    public Mono<Void> deleteAll(Iterable<? extends T> entities) {
+        return Flux.fromIterable(entities).map(this::getId).collectList().flatMap(this::deleteAllById);
+    }
+
+    @Override
+    public Mono<Void> deleteAll(Publisher<? extends T> entityStream) {
+        return Flux.from(entityStream).map(this::getId).collectList().flatMap(this::deleteAllById);
+    }
+
+    @Override
+    public Mono<Void> deleteAll() {
+        return mono(() -> remove(List.copyOf(entities.keySet()))).then();
+    }
+
+    // ---- query by example is not used by the application
+
+    @Override
+    public <S extends T> Mono<S> findOne(Example<S> example) {
+        return Mono.error(queryByExampleNotSupported());
+    }
+
+    @Override
+    public <S extends T> Flux<S> findAll(Example<S> example) {
+        return Flux.error(queryByExampleNotSupported());
+    }
+
+    @Override
+    public <S extends T> Flux<S> findAll(Example<S> example, Sort sort) {
+        return Flux.error(queryByExampleNotSupported());
+    }
+
+    @Override
+    public <S extends T> Mono<Long> count(Example<S> example) {
+        return Mono.error(queryByExampleNotSupported());
+    }
+
+    @Override
+    public <S extends T> Mono<Boolean> exists(Example<S> example) {
+        return Mono.error(queryByExampleNotSupported());
+    }
+
+    @Override
+    public <S extends T, R, P extends Publisher<R>> P findBy(Example<S> example,
+                                                             Function<FluentQuery.ReactiveFluentQuery<S>, P> queryFunction) {
+        throw queryByExampleNotSupported();
+    }
+
+    private static UnsupportedOperationException queryByExampleNotSupported() {
+        return new UnsupportedOperationException("Query by example is not supported by the in-memory repositories");
+    }
+
+    /**
+     * Orders like Mongo for the property types used here: nulls first, then natural order.
+     */
+    private Comparator<T> comparator(Sort sort) {
+        Comparator<T> comparator = Comparator.comparing(this::getId);
+        List<Sort.Order> orders = sort.toList();
+        for (int i = orders.size() - 1; i >= 0; i--) {
+            Sort.Order order = orders.get(i);
+            Comparator<T> byProperty = Comparator.comparing(entity -> propertyValue(entity, order.getProperty()),
+                    Comparator.nullsFirst(Comparator.naturalOrder()));
+            comparator = (order.isAscending() ? byProperty : byProperty.reversed()).thenComparing(comparator);
+        }
+        return comparator;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Comparable<Object> propertyValue(T entity, String property) {
+        return (Comparable<Object>) PropertyAccessorFactory.forBeanPropertyAccess(entity).getPropertyValue(property);
+    }
+}
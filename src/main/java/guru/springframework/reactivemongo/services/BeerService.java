@@ -2,19 +2,46 @@ package guru.springframework.reactivemongo.services;
 
 import guru.springframework.reactivemongo.domain.Beer;
 import guru.springframework.reactivemongo.model.BeerDTO;
+import guru.springframework.reactivemongo.model.BulkItemResultDTO;
+import guru.springframework.reactivemongo.model.LookupResultDTO;
+import guru.springframework.reactivemongo.model.StockLevelDTO;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
 
 public interface BeerService {
     Mono<BeerDTO> findFirstByBeerName(String beerName);
     Flux<BeerDTO> findByBeerStyle(String beerStyle);
     Flux<BeerDTO> getBeers();
+    Flux<BeerDTO> getBeers(String beerStyle, Set<String> fields);
+    Flux<BeerDTO> getBeersPage(String beerStyle, String afterId, int limit);
+    Flux<BeerDTO> getBeersPage(String beerStyle, String afterId, int limit, Set<String> fields);
+    Flux<BeerDTO> streamBeers(String beerStyle);
+    Flux<BeerDTO> exportBeers(LocalDateTime modifiedSince);
     Mono<BeerDTO> getBeerById(String id);
+    Mono<BeerDTO> getBeerById(String id, Set<String> fields);
+    Flux<LookupResultDTO<BeerDTO>> getBeersByIds(List<String> ids);
+    Flux<BeerDTO> searchBeers(String text, int limit, Set<String> fields);
+    Flux<BeerDTO> suggestBeers(String prefix, int limit, Set<String> fields);
+    Mono<Long> getBeerVersion(String id);
+    Mono<String> getBeersWatermark(String beerStyle);
     Mono<BeerDTO> createBeer(Mono<BeerDTO> beerDTO);
     Mono<BeerDTO> createBeer(BeerDTO beerDTO);
+    Flux<BulkItemResultDTO> bulkSaveBeers(Flux<BeerDTO> beers, Function<BeerDTO, String> validator);
     Mono<BeerDTO> updateBeer(String id, BeerDTO beerDTO);
+    Mono<BeerDTO> updateBeer(String id, BeerDTO beerDTO, Collection<Long> expectedVersions);
     Mono<BeerDTO> patchBeer(String id, BeerDTO beerDTO);
-    Mono<Void> deleteBeerById(String id);
+    Mono<BeerDTO> patchBeer(String id, BeerDTO beerDTO, Collection<Long> expectedVersions);
+    Mono<BeerDTO> modifyBeer(String id, UnaryOperator<BeerDTO> modification);
+    Mono<StockLevelDTO> adjustStock(String id, int delta);
+    Mono<Long> deleteBeerById(String id);
+    Mono<Long> deleteBeersByIds(Collection<String> ids);
 }
@@ -1,20 +1,49 @@
 package guru.springframework.reactivemongo.services;
 
+import guru.springframework.reactivemongo.cache.EntityCache;
+import guru.springframework.reactivemongo.config.BulkProperties;
+import guru.springframework.reactivemongo.config.OptimisticUpdateProperties;
+import guru.springframework.reactivemongo.config.StreamingProperties;
+import guru.springframework.reactivemongo.domain.Beer;
 import guru.springframework.reactivemongo.mappers.BeerMapper;
 import guru.springframework.reactivemongo.model.BeerDTO;
+import guru.springframework.reactivemongo.model.BulkItemResultDTO;
+import guru.springframework.reactivemongo.model.LookupResultDTO;
+import guru.springframework.reactivemongo.model.StockLevelDTO;
 import guru.springframework.reactivemongo.repositories.BeerRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+import reactor.util.retry.Retry;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
 
 @Service
 @RequiredArgsConstructor
 public class BeerServiceImpl implements BeerService {
 
+    private static final Set<String> SUGGESTION_FIELDS = Set.of("beerName");
+
     private final BeerRepository beerRepository;
     private final BeerMapper beerMapper;
+    private final StreamingProperties streamingProperties;
+    private final BulkProperties bulkProperties;
+    private final OptimisticUpdateProperties optimisticUpdateProperties;
+    private final EntityCache<Beer> beerCache;
 
     @Override
     public Mono<BeerDTO> findFirstByBeerName(String beerName) {
@@ -33,15 +62,131 @@ public class BeerServiceImpl implements BeerService {
         return beerRepository.findAll().map(beerMapper::toDTO);
     }
 
+    @Override
+    public Flux<BeerDTO> getBeers(String beerStyle, Set<String> fields) {
+        if (fields.isEmpty()) {
+            return StringUtils.hasText(beerStyle) ? findByBeerStyle(beerStyle) : getBeers();
+        }
+        return beerRepository.findProjected(beerStyle, null, 0, fields).map(beerMapper::toDTO);
+    }
+
+    @Override
+    public Flux<BeerDTO> getBeersPage(String beerStyle, String afterId, int limit, Set<String> fields) {
+        if (fields.isEmpty()) {
+            return getBeersPage(beerStyle, afterId, limit);
+        }
+        return beerRepository.findProjected(beerStyle, afterId, limit, fields).map(beerMapper::toDTO);
+    }
+
+    @Override
+    public Flux<BeerDTO> getBeersPage(String beerStyle, String afterId, int limit) {
+        Limit pageLimit = Limit.of(limit);
+        Flux<Beer> page;
+
+        if (StringUtils.hasText(beerStyle)) {
+            page = afterId == null
+                    ? beerRepository.findByBeerStyleOrderByIdAsc(beerStyle, pageLimit)
+                    : beerRepository.findByBeerStyleAndIdGreaterThanOrderByIdAsc(beerStyle, afterId, pageLimit);
+        } else {
+            page = afterId == null
+                    ? beerRepository.findAllByOrderByIdAsc(pageLimit)
+                    : beerRepository.findByIdGreaterThanOrderByIdAsc(afterId, pageLimit);
+        }
+
+        return page.map(beerMapper::toDTO);
+    }
+
+    @Override
+    public Flux<BeerDTO> streamBeers(String beerStyle) {
+        int batchSize = streamingProperties.batchSize();
+        return beerRepository.streamAll(beerStyle, batchSize)
+                .limitRate(batchSize)
+                .map(beerMapper::toDTO);
+    }
+
+    @Override
+    public Flux<BeerDTO> exportBeers(LocalDateTime modifiedSince) {
+        int batchSize = streamingProperties.batchSize();
+        return beerRepository.streamModifiedSince(modifiedSince, batchSize)
+                .limitRate(batchSize)
+                .map(beerMapper::toDTO);
+    }
+
     @Override
     public Mono<BeerDTO> getBeerById(String id) {
-        return beerRepository.findById(id).map(beerMapper::toDTO);
+        return beerCache.get(id, beerRepository::findById).map(beerMapper::toDTO);
+    }
+
+    /**
+     * Projected reads go straight to Mongo; the cache only holds full documents.
+     */
+    @Override
+    public Mono<BeerDTO> getBeerById(String id, Set<String> fields) {
+        if (fields.isEmpty()) {
+            return getBeerById(id);
+        }
+        return beerRepository.findByIdProjected(id, fields).map(beerMapper::toDTO);
+    }
+
+    /**
+     * One {@code $in} query for the ids not already cached or being loaded.
+     */
+    @Override
+    public Flux<LookupResultDTO<BeerDTO>> getBeersByIds(List<String> ids) {
+        return beerCache.getAll(ids, missing -> beerRepository.findAllById(missing).collectMap(Beer::getId))
+                .flatMapIterable(beers -> ids.stream()
+                        .map(id -> {
+                            Beer beer = beers.get(id);
+                            return LookupResultDTO.of(id, beer == null ? null : beerMapper.toDTO(beer));
+                        })
+                        .toList());
+    }
+
+    @Override
+    public Flux<BeerDTO> searchBeers(String text, int limit, Set<String> fields) {
+        return beerRepository.searchText(text, limit, fields).map(beerMapper::toDTO);
+    }
+
+    /**
+     * Without explicit fields only the name is read, so the lookup is answered from the
+     * index alone.
+     */
+    @Override
+    public Flux<BeerDTO> suggestBeers(String prefix, int limit, Set<String> fields) {
+        return beerRepository.findByBeerNamePrefix(prefix, limit, fields.isEmpty() ? SUGGESTION_FIELDS : fields)
+                .map(beerMapper::toDTO);
+    }
+
+    /**
+     * Taken from the cached beer when there is one, otherwise from a query that
+     * projects only the version.
+     */
+    @Override
+    public Mono<Long> getBeerVersion(String id) {
+        return beerCache.getIfPresent(id)
+                .map(beer -> beer.getVersion() == null ? 0L : beer.getVersion())
+                .switchIfEmpty(Mono.defer(() -> beerRepository.findVersionById(id)));
+    }
+
+    /**
+     * Count and latest modification time of the matching beers; any create, update or
+     * delete of a matching beer changes it. Only unpaged listings use it, as they read the
+     * whole matching range anyway; pages are tagged from their own documents.
+     */
+    @Override
+    public Mono<String> getBeersWatermark(String beerStyle) {
+        return Mono.zip(beerRepository.countMatching(beerStyle),
+                beerRepository.findLastModifiedDate(beerStyle)
+                        .map(lastModified -> lastModified.toInstant(ZoneOffset.UTC).toEpochMilli())
+                        .defaultIfEmpty(0L),
+                (count, lastModified) -> count + "-" + lastModified);
     }
 
     @Override
     public Mono<BeerDTO> createBeer(Mono<BeerDTO> beerDTO) {
         return beerDTO.map(beerMapper::toEntity)
                 .flatMap(beerRepository::save)
+                .doOnNext(savedBeer -> beerCache.invalidate(savedBeer.getId()))
                 .map(beerMapper::toDTO);
     }
 
@@ -51,48 +196,184 @@ public class BeerServiceImpl implements BeerService {
     }
 
     @Override
-    public Mono<BeerDTO> updateBeer(String id, BeerDTO beerDTO) {
-        return getBeerById(id)
-                .map(foundBeer -> {
-                    foundBeer.setBeerName(beerDTO.getBeerName());
-                    foundBeer.setBeerStyle(beerDTO.getBeerStyle());
-                    foundBeer.setPrice(beerDTO.getPrice());
-                    foundBeer.setUpc(beerDTO.getUpc());
-                    foundBeer.setQuantityOnHand(beerDTO.getQuantityOnHand());
-                    return foundBeer;
+    public Flux<BulkItemResultDTO> bulkSaveBeers(Flux<BeerDTO> beers, Function<BeerDTO, String> validator) {
+        return beers.index()
+                .buffer(bulkProperties.chunkSize())
+                .flatMapSequential(chunk -> saveChunk(chunk, validator), bulkProperties.concurrency());
+    }
+
+    private Flux<BulkItemResultDTO> saveChunk(List<Tuple2<Long, BeerDTO>> chunk, Function<BeerDTO, String> validator) {
+        List<BulkItemResultDTO> results = new ArrayList<>(chunk.size());
+        List<BulkItemResultDTO> pending = new ArrayList<>(chunk.size());
+        List<Beer> beersToSave = new ArrayList<>(chunk.size());
+
+        for (Tuple2<Long, BeerDTO> item : chunk) {
+            BulkItemResultDTO result = BulkItemResultDTO.builder().index(item.getT1()).build();
+            results.add(result);
+
+            String validationErrors = validator.apply(item.getT2());
+            if (validationErrors != null) {
+                result.setStatus(BulkItemResultDTO.Status.INVALID);
+                result.setError(validationErrors);
+                continue;
+            }
+
+            Beer beer = beerMapper.toEntity(item.getT2());
+            result.setStatus(beer.getId() == null ? BulkItemResultDTO.Status.CREATED : BulkItemResultDTO.Status.UPSERTED);
+            pending.add(result);
+            beersToSave.add(beer);
+        }
+
+        if (beersToSave.isEmpty()) {
+            return Flux.fromIterable(results);
+        }
+
+        return beerRepository.bulkSave(beersToSave)
+                .map(errorsByIndex -> {
+                    beerCache.invalidateAll(beersToSave.stream().map(Beer::getId).toList());
+                    for (int i = 0; i < pending.size(); i++) {
+                        BulkItemResultDTO result = pending.get(i);
+                        result.setId(beersToSave.get(i).getId());
+                        if (errorsByIndex.containsKey(i)) {
+                            result.setStatus(BulkItemResultDTO.Status.FAILED);
+                            result.setError(errorsByIndex.get(i));
+                        }
+                    }
+                    return results;
                 })
-                .map(beerMapper::toEntity)
-                .flatMap(beerRepository::save)
-                .map(beerMapper::toDTO);
+                .onErrorResume(throwable -> {
+                    pending.forEach(result -> {
+                        result.setStatus(BulkItemResultDTO.Status.FAILED);
+                        result.setError(throwable.getMessage());
+                    });
+                    return Mono.just(results);
+                })
+                .flatMapIterable(Function.identity());
+    }
+
+    @Override
+    public Mono<BeerDTO> updateBeer(String id, BeerDTO beerDTO) {
+        return updateBeer(id, beerDTO, null);
+    }
+
+    @Override
+    public Mono<BeerDTO> updateBeer(String id, BeerDTO beerDTO, Collection<Long> expectedVersions) {
+        return updateFields(id, updatableFields(beerDTO), expectedVersions);
+    }
+
+    /**
+     * Read-modify-write for internal callers: the modification is applied to the current
+     * beer and written only if the version is unchanged. After a concurrent write the beer is
+     * re-read and the modification re-applied, up to the configured number of attempts.
+     */
+    @Override
+    public Mono<BeerDTO> modifyBeer(String id, UnaryOperator<BeerDTO> modification) {
+        return Mono.defer(() -> beerRepository.findById(id)
+                        .flatMap(beer -> updateFields(id, updatableFields(modification.apply(beerMapper.toDTO(beer))),
+                                List.of(beer.getVersion() == null ? 0L : beer.getVersion()))))
+                .retryWhen(Retry.backoff(optimisticUpdateProperties.maxAttempts() - 1, optimisticUpdateProperties.backoff())
+                        .filter(OptimisticLockingFailureException.class::isInstance)
+                        .onRetryExhaustedThrow((retrySpec, retrySignal) -> retrySignal.failure()));
+    }
+
+    /**
+     * A single atomic write, so concurrent reservations of the same beer never read,
+     * retry or overwrite each other.
+     *
+     * @throws InsufficientStockException (as error signal) if the beer has less than
+     *                                    {@code -delta} on hand
+     */
+    @Override
+    public Mono<StockLevelDTO> adjustStock(String id, int delta) {
+        return beerRepository.adjustStock(id, delta)
+                .switchIfEmpty(Mono.defer(() -> delta >= 0 ? Mono.empty() : beerRepository.existsById(id)
+                        .flatMap(exists -> exists ? Mono.error(new InsufficientStockException(id, delta)) : Mono.empty())))
+                .doOnTerminate(() -> beerCache.invalidate(id))
+                .map(beer -> StockLevelDTO.builder()
+                        .id(beer.getId())
+                        .quantityOnHand(beer.getQuantityOnHand())
+                        .version(beer.getVersion())
+                        .build());
+    }
+
+    private static Map<String, Object> updatableFields(BeerDTO beerDTO) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("beerName", beerDTO.getBeerName());
+        fields.put("beerStyle", beerDTO.getBeerStyle());
+        fields.put("price", beerDTO.getPrice());
+        fields.put("upc", beerDTO.getUpc());
+        fields.put("quantityOnHand", beerDTO.getQuantityOnHand());
+        return fields;
     }
 
     @Override
     public Mono<BeerDTO> patchBeer(String beerId, BeerDTO beerDTO) {
-        return beerRepository.findById(beerId)
-                .map(foundBeer -> {
-                    if (StringUtils.hasText(beerDTO.getBeerName())) {
-                        foundBeer.setBeerName(beerDTO.getBeerName());
-                    }
-                    if (StringUtils.hasText(beerDTO.getBeerStyle())) {
-                        foundBeer.setBeerStyle(beerDTO.getBeerStyle());
-                    }
-                    if (beerDTO.getPrice() != null && beerDTO.getPrice().doubleValue() > 0) {
-                        foundBeer.setPrice(beerDTO.getPrice());
-                    }
-                    if (StringUtils.hasText(beerDTO.getUpc())) {
-                        foundBeer.setUpc(beerDTO.getUpc());
-                    }
-                    if (beerDTO.getQuantityOnHand() != null && beerDTO.getQuantityOnHand() > 0) {
-                        foundBeer.setQuantityOnHand(beerDTO.getQuantityOnHand());
-                    }
-                    return foundBeer;
-                })
-                .flatMap(beerRepository::save)
+        return patchBeer(beerId, beerDTO, null);
+    }
+
+    @Override
+    public Mono<BeerDTO> patchBeer(String beerId, BeerDTO beerDTO, Collection<Long> expectedVersions) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        if (StringUtils.hasText(beerDTO.getBeerName())) {
+            fields.put("beerName", beerDTO.getBeerName());
+        }
+        if (StringUtils.hasText(beerDTO.getBeerStyle())) {
+            fields.put("beerStyle", beerDTO.getBeerStyle());
+        }
+        if (beerDTO.getPrice() != null && beerDTO.getPrice().doubleValue() > 0) {
+            fields.put("price", beerDTO.getPrice());
+        }
+        if (StringUtils.hasText(beerDTO.getUpc())) {
+            fields.put("upc", beerDTO.getUpc());
+        }
+        if (beerDTO.getQuantityOnHand() != null && beerDTO.getQuantityOnHand() >= 0) {
+            fields.put("quantityOnHand", beerDTO.getQuantityOnHand());
+        }
+
+        if (fields.isEmpty()) {
+            return expectedVersions == null
+                    ? getBeerById(beerId)
+                    : getBeerById(beerId).flatMap(current -> expectedVersions.contains(
+                            current.getVersion() == null ? 0L : current.getVersion())
+                            ? Mono.just(current)
+                            : Mono.error(versionConflict(beerId)));
+        }
+        return updateFields(beerId, fields, expectedVersions);
+    }
+
+    /**
+     * @param expectedVersions versions the update is conditional on, or {@code null} for an
+     *                         unconditional update. A conditional update of an existing beer
+     *                         whose version does not match fails with
+     *                         {@link OptimisticLockingFailureException}.
+     */
+    private Mono<BeerDTO> updateFields(String id, Map<String, Object> fields, Collection<Long> expectedVersions) {
+        fields.put("lastModifiedDate", LocalDateTime.now());
+
+        Mono<Beer> updated = expectedVersions == null
+                ? beerRepository.updateFields(id, fields)
+                : beerRepository.updateFields(id, fields, expectedVersions)
+                        .switchIfEmpty(Mono.defer(() -> beerRepository.existsById(id)
+                                .flatMap(exists -> exists ? Mono.error(versionConflict(id)) : Mono.empty())));
+
+        return updated
+                .doOnTerminate(() -> beerCache.invalidate(id))
                 .map(beerMapper::toDTO);
     }
 
+    private static OptimisticLockingFailureException versionConflict(String id) {
+        return new OptimisticLockingFailureException("Beer " + id + " was modified by another writer");
+    }
+
+    @Override
+    public Mono<Long> deleteBeerById(String id) {
+        return beerRepository.removeById(id)
+                .doOnTerminate(() -> beerCache.invalidate(id));
+    }
+
     @Override
-    public Mono<Void> deleteBeerById(String id) {
-        return beerRepository.deleteById(id);
+    public Mono<Long> deleteBeersByIds(Collection<String> ids) {
+        return beerRepository.removeByIdIn(ids)
+                .doOnTerminate(() -> beerCache.invalidateAll(ids));
     }
 }
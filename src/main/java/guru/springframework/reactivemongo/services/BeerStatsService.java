@@ -0,0 +1,12 @@
+package guru.springframework.reactivemongo.services;
+
+import guru.springframework.reactivemongo.model.BeerStatsDTO;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+public interface BeerStatsService {
+    Mono<BeerStatsDTO> getCatalogStats();
+
+    Mono<List<BeerStatsDTO>> getStatsByBeerStyle();
+}
@@ -0,0 +1,47 @@
+package guru.springframework.reactivemongo.services;
+
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import guru.springframework.reactivemongo.config.BeerStatsProperties;
+import guru.springframework.reactivemongo.model.BeerStatsDTO;
+import guru.springframework.reactivemongo.repositories.BeerRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Catalog statistics from a server side aggregation, cached per grouping. A result older
+ * than the refresh interval is still served while one background aggregation replaces it,
+ * so frequently polling dashboards cause at most one aggregation per interval.
+ */
+@Service
+public class BeerStatsServiceImpl implements BeerStatsService {
+
+    private final AsyncLoadingCache<Boolean, List<BeerStatsDTO>> statsByGrouping;
+
+    public BeerStatsServiceImpl(BeerRepository beerRepository, BeerStatsProperties properties,
+                                MeterRegistry meterRegistry) {
+        this.statsByGrouping = Caffeine.newBuilder()
+                .refreshAfterWrite(properties.refreshAfter())
+                .expireAfterWrite(properties.expireAfter())
+                .recordStats()
+                .buildAsync((groupByBeerStyle, executor) ->
+                        beerRepository.aggregateStats(groupByBeerStyle).collectList().toFuture());
+
+        CaffeineCacheMetrics.monitor(meterRegistry, statsByGrouping, "beerStats");
+    }
+
+    @Override
+    public Mono<BeerStatsDTO> getCatalogStats() {
+        return Mono.fromFuture(() -> statsByGrouping.get(false), true)
+                .map(stats -> stats.isEmpty() ? BeerStatsDTO.builder().build() : stats.get(0));
+    }
+
+    @Override
+    public Mono<List<BeerStatsDTO>> getStatsByBeerStyle() {
+        return Mono.fromFuture(() -> statsByGrouping.get(true), true);
+    }
+}
@@ -0,0 +1,12 @@
+package guru.springframework.reactivemongo.services;
+
+import guru.springframework.reactivemongo.model.BeerDTO;
+import guru.springframework.reactivemongo.model.ChangeEventDTO;
+import guru.springframework.reactivemongo.model.CustomerDTO;
+import reactor.core.publisher.Flux;
+
+public interface ChangeFeedService {
+    Flux<ChangeEventDTO<BeerDTO>> beerChanges(String resumeToken);
+
+    Flux<ChangeEventDTO<CustomerDTO>> customerChanges(String resumeToken);
+}
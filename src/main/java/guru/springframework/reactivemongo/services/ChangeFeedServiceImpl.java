@@ -0,0 +1,126 @@
+package guru.springframework.reactivemongo.services;
+
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+import guru.springframework.reactivemongo.config.ChangeFeedProperties;
+import guru.springframework.reactivemongo.domain.Beer;
+import guru.springframework.reactivemongo.domain.Customer;
+import guru.springframework.reactivemongo.mappers.BeerMapper;
+import guru.springframework.reactivemongo.mappers.CustomerMapper;
+import guru.springframework.reactivemongo.model.BeerDTO;
+import guru.springframework.reactivemongo.model.ChangeEventDTO;
+import guru.springframework.reactivemongo.model.CustomerDTO;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.ChangeStreamEvent;
+import org.springframework.data.mongodb.core.ChangeStreamOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoOperations;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+
+/**
+ * Change feed over the beer and customer collections. Subscribers without a resume token
+ * share one server side change stream per collection; a subscriber resuming from a token
+ * gets its own stream starting after that token so it sees no gaps.
+ */
+@Service
+@Profile("!inmemory")
+public class ChangeFeedServiceImpl implements ChangeFeedService {
+
+    private static final String RESUME_TOKEN_DATA = "_data";
+
+    private final ReactiveMongoOperations mongoOperations;
+    private final BeerMapper beerMapper;
+    private final CustomerMapper customerMapper;
+    private final ChangeFeedProperties changeFeedProperties;
+
+    private final Flux<ChangeEventDTO<BeerDTO>> sharedBeerChanges;
+    private final Flux<ChangeEventDTO<CustomerDTO>> sharedCustomerChanges;
+
+    public ChangeFeedServiceImpl(ReactiveMongoOperations mongoOperations, BeerMapper beerMapper,
+                                 CustomerMapper customerMapper, ChangeFeedProperties changeFeedProperties) {
+        this.mongoOperations = mongoOperations;
+        this.beerMapper = beerMapper;
+        this.customerMapper = customerMapper;
+        this.changeFeedProperties = changeFeedProperties;
+
+        this.sharedBeerChanges = watch(Beer.class, null, beerMapper::toDTO).share();
+        this.sharedCustomerChanges = watch(Customer.class, null, customerMapper::toDTO).share();
+    }
+
+    @Override
+    public Flux<ChangeEventDTO<BeerDTO>> beerChanges(String resumeToken) {
+        Flux<ChangeEventDTO<BeerDTO>> changes = resumeToken == null
+                ? sharedBeerChanges
+                : watch(Beer.class, resumeToken, beerMapper::toDTO);
+
+        return changes.onBackpressureBuffer(changeFeedProperties.subscriberBufferSize());
+    }
+
+    @Override
+    public Flux<ChangeEventDTO<CustomerDTO>> customerChanges(String resumeToken) {
+        Flux<ChangeEventDTO<CustomerDTO>> changes = resumeToken == null
+                ? sharedCustomerChanges
+                : watch(Customer.class, resumeToken, customerMapper::toDTO);
+
+        return changes.onBackpressureBuffer(changeFeedProperties.subscriberBufferSize());
+    }
+
+    private <E, D> Flux<ChangeEventDTO<D>> watch(Class<E> entityType, String resumeToken, Function<E, D> mapper) {
+        ChangeStreamOptions.ChangeStreamOptionsBuilder options = ChangeStreamOptions.builder()
+                .fullDocumentLookup(FullDocument.UPDATE_LOOKUP)
+                .filter(new Document("$match", new Document("operationType",
+                        new Document("$in", List.of("insert", "update", "replace", "delete")))));
+        if (resumeToken != null) {
+            options.resumeAfter(new BsonDocument(RESUME_TOKEN_DATA, new BsonString(resumeToken)));
+        }
+
+        return Flux.defer(() -> mongoOperations.changeStream(mongoOperations.getCollectionName(entityType),
+                        options.build(), entityType))
+                .map(event -> toChangeEvent(event, mapper));
+    }
+
+    private static <E, D> ChangeEventDTO<D> toChangeEvent(ChangeStreamEvent<E> event, Function<E, D> mapper) {
+        E body = event.getBody();
+
+        return ChangeEventDTO.<D>builder()
+                .operation(event.getOperationType() == null ? null
+                        : event.getOperationType().getValue().toLowerCase(Locale.ROOT))
+                .id(documentId(event.getRaw()))
+                .document(body == null ? null : mapper.apply(body))
+                .resumeToken(resumeToken(event.getResumeToken()))
+                .timestamp(event.getTimestamp())
+                .build();
+    }
+
+    private static String resumeToken(BsonValue resumeToken) {
+        if (resumeToken == null || !resumeToken.isDocument()) {
+            return null;
+        }
+        BsonValue data = resumeToken.asDocument().get(RESUME_TOKEN_DATA);
+        return data != null && data.isString() ? data.asString().getValue() : null;
+    }
+
+    static String documentId(ChangeStreamDocument<?> changeStreamDocument) {
+        if (changeStreamDocument == null) {
+            return null;
+        }
+        BsonDocument documentKey = changeStreamDocument.getDocumentKey();
+        if (documentKey == null || !documentKey.containsKey("_id")) {
+            return null;
+        }
+
+        BsonValue id = documentKey.get("_id");
+        if (id.isObjectId()) {
+            return id.asObjectId().getValue().toHexString();
+        }
+        return id.isString() ? id.asString().getValue() : null;
+    }
+}
@@ -2,16 +2,54 @@ package guru.springframework.reactivemongo.services;
 
 import guru.springframework.reactivemongo.domain.Customer;
 import guru.springframework.reactivemongo.model.CustomerDTO;
+import guru.springframework.reactivemongo.model.LookupResultDTO;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
 public interface CustomerService {
+    /**
+     * How a customer name filter is matched; the insensitive modes ignore case and
+     * diacritics.
+     */
+    enum NameMatch {
+        EXACT, IGNORE_CASE, PREFIX
+    }
+
     Flux<CustomerDTO> findAll();
 
+    Flux<CustomerDTO> findAll(String customerName, Set<String> fields);
+
+    Flux<CustomerDTO> findAll(String customerName, NameMatch match, Set<String> fields);
+
+    Flux<CustomerDTO> findPage(String afterId, int limit);
+
+    Flux<CustomerDTO> findPage(String customerName, NameMatch match, String afterId, int limit, Set<String> fields);
+
+    Flux<CustomerDTO> stream(String customerName);
+
+    Flux<CustomerDTO> exportCustomers(LocalDateTime modifiedSince);
+
     Flux<CustomerDTO> findAllByCustomerName(String customerName);
 
+    Flux<CustomerDTO> findAllByCustomerName(String customerName, NameMatch match);
+
     Mono<CustomerDTO> findById(String id);
 
+    Mono<CustomerDTO> findById(String id, Set<String> fields);
+
+    Flux<LookupResultDTO<CustomerDTO>> findAllByIds(List<String> ids);
+
+    Mono<Long> findVersion(String id);
+
+    Mono<String> watermark(String customerName);
+
+    Mono<String> watermark(String customerName, NameMatch match);
+
     Mono<CustomerDTO> save(CustomerDTO customerDTO);
 
     Mono<CustomerDTO> save(Mono<CustomerDTO> customerDTO);
@@ -20,5 +58,7 @@ public interface CustomerService {
 
     Mono<CustomerDTO> patchById(String id, CustomerDTO customerDTO);
 
-    Mono<Void> deleteById(String id);
+    Mono<Long> deleteById(String id);
+
+    Mono<Long> deleteByIds(Collection<String> ids);
 }
@@ -1,38 +1,191 @@
 package guru.springframework.reactivemongo.services;
 
+import guru.springframework.reactivemongo.cache.EntityCache;
+import guru.springframework.reactivemongo.config.StreamingProperties;
+import guru.springframework.reactivemongo.domain.Customer;
 import guru.springframework.reactivemongo.mappers.CustomerMapper;
 import guru.springframework.reactivemongo.model.CustomerDTO;
+import guru.springframework.reactivemongo.model.LookupResultDTO;
 import guru.springframework.reactivemongo.repositories.CustomerRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 @Service
 @RequiredArgsConstructor
 public class CustomerServiceImpl implements CustomerService {
     private final CustomerRepository customerRepository;
     private final CustomerMapper customerMapper;
+    private final StreamingProperties streamingProperties;
+    private final EntityCache<Customer> customerCache;
 
     @Override
     public Flux<CustomerDTO> findAll() {
         return customerRepository.findAll().map(customerMapper::toDTO);
     }
 
+    @Override
+    public Flux<CustomerDTO> findAll(String customerName, Set<String> fields) {
+        return findAll(customerName, NameMatch.EXACT, fields);
+    }
+
+    @Override
+    public Flux<CustomerDTO> findAll(String customerName, NameMatch match, Set<String> fields) {
+        if (match != NameMatch.EXACT && StringUtils.hasText(customerName)) {
+            return findByName(customerName, match, fields);
+        }
+        if (fields.isEmpty()) {
+            return StringUtils.hasText(customerName) ? findAllByCustomerName(customerName) : findAll();
+        }
+        return customerRepository.findProjected(customerName, null, 0, fields).map(customerMapper::toDTO);
+    }
+
+    /**
+     * Keyset page ordered by id of the customers matching the name filter.
+     */
+    @Override
+    public Flux<CustomerDTO> findPage(String customerName, NameMatch match, String afterId, int limit,
+                                      Set<String> fields) {
+        if (match != NameMatch.EXACT && StringUtils.hasText(customerName)) {
+            return customerRepository.findPageByCustomerNameInsensitive(customerName, match == NameMatch.PREFIX,
+                    afterId, limit, fields).map(customerMapper::toDTO);
+        }
+        if (fields.isEmpty() && !StringUtils.hasText(customerName)) {
+            return findPage(afterId, limit);
+        }
+        return customerRepository.findProjected(customerName, afterId, limit, fields).map(customerMapper::toDTO);
+    }
+
+    @Override
+    public Flux<CustomerDTO> findPage(String afterId, int limit) {
+        Flux<Customer> page = afterId == null
+                ? customerRepository.findAllByOrderByIdAsc(Limit.of(limit))
+                : customerRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(limit));
+
+        return page.map(customerMapper::toDTO);
+    }
+
+    @Override
+    public Flux<CustomerDTO> stream(String customerName) {
+        int batchSize = streamingProperties.batchSize();
+        return customerRepository.streamAll(customerName, batchSize)
+                .limitRate(batchSize)
+                .map(customerMapper::toDTO);
+    }
+
+    @Override
+    public Flux<CustomerDTO> exportCustomers(LocalDateTime modifiedSince) {
+        int batchSize = streamingProperties.batchSize();
+        return customerRepository.streamModifiedSince(modifiedSince, batchSize)
+                .limitRate(batchSize)
+                .map(customerMapper::toDTO);
+    }
+
     @Override
     public Flux<CustomerDTO> findAllByCustomerName(String customerName) {
         return customerRepository.findByCustomerName(customerName).map(customerMapper::toDTO);
     }
 
+    @Override
+    public Flux<CustomerDTO> findAllByCustomerName(String customerName, NameMatch match) {
+        return match == NameMatch.EXACT
+                ? findAllByCustomerName(customerName)
+                : findByName(customerName, match, Set.of());
+    }
+
+    private Flux<CustomerDTO> findByName(String customerName, NameMatch match, Set<String> fields) {
+        Flux<Customer> customers = match == NameMatch.PREFIX
+                ? customerRepository.findByCustomerNamePrefix(customerName, fields)
+                : customerRepository.findByCustomerNameIgnoreCase(customerName, fields);
+        return customers.map(customerMapper::toDTO);
+    }
+
     @Override
     public Mono<CustomerDTO> findById(String id) {
-        return customerRepository.findById(id).map(customerMapper::toDTO);
+        return customerCache.get(id, customerRepository::findById).map(customerMapper::toDTO);
+    }
+
+    /**
+     * Projected reads go straight to Mongo; the cache only holds full documents.
+     */
+    @Override
+    public Mono<CustomerDTO> findById(String id, Set<String> fields) {
+        if (fields.isEmpty()) {
+            return findById(id);
+        }
+        return customerRepository.findByIdProjected(id, fields).map(customerMapper::toDTO);
+    }
+
+    /**
+     * One {@code $in} query for the ids not already cached or being loaded.
+     */
+    @Override
+    public Flux<LookupResultDTO<CustomerDTO>> findAllByIds(List<String> ids) {
+        return customerCache.getAll(ids, missing -> customerRepository.findAllById(missing).collectMap(Customer::getId))
+                .flatMapIterable(customers -> ids.stream()
+                        .map(id -> {
+                            Customer customer = customers.get(id);
+                            return LookupResultDTO.of(id, customer == null ? null : customerMapper.toDTO(customer));
+                        })
+                        .toList());
+    }
+
+    /**
+     * Taken from the cached customer when there is one, otherwise from a query that
+     * projects only the version.
+     */
+    @Override
+    public Mono<Long> findVersion(String id) {
+        return customerCache.getIfPresent(id)
+                .map(customer -> customer.getVersion() == null ? 0L : customer.getVersion())
+                .switchIfEmpty(Mono.defer(() -> customerRepository.findVersionById(id)));
+    }
+
+    /**
+     * Count and latest modification time of the matching customers; any create, update or
+     * delete of a matching customer changes it. Only unpaged listings use it, as they read
+     * the whole matching range anyway; pages are tagged from their own documents.
+     */
+    @Override
+    public Mono<String> watermark(String customerName) {
+        return watermark(customerRepository.countMatching(customerName),
+                customerRepository.findLastModifiedDate(customerName));
+    }
+
+    @Override
+    public Mono<String> watermark(String customerName, NameMatch match) {
+        if (match == NameMatch.EXACT || !StringUtils.hasText(customerName)) {
+            return watermark(customerName);
+        }
+        boolean prefix = match == NameMatch.PREFIX;
+        return watermark(customerRepository.countByCustomerNameInsensitive(customerName, prefix),
+                customerRepository.findLastModifiedDateInsensitive(customerName, prefix));
+    }
+
+    private static Mono<String> watermark(Mono<Long> count, Mono<LocalDateTime> lastModifiedDate) {
+        return Mono.zip(count,
+                lastModifiedDate
+                        .map(lastModified -> lastModified.toInstant(ZoneOffset.UTC).toEpochMilli())
+                        .defaultIfEmpty(0L),
+                (matching, lastModified) -> matching + "-" + lastModified);
     }
 
     @Override
     public Mono<CustomerDTO> save(CustomerDTO customerDTO) {
-        return customerRepository.save(customerMapper.toEntity(customerDTO)).map(customerMapper::toDTO);
+        return customerRepository.save(customerMapper.toEntity(customerDTO))
+                .doOnNext(savedCustomer -> customerCache.invalidate(savedCustomer.getId()))
+                .map(customerMapper::toDTO);
     }
 
     @Override
@@ -42,30 +195,41 @@ public class CustomerServiceImpl implements CustomerService {
 
     @Override
     public Mono<CustomerDTO> updateById(String id, CustomerDTO customerDTO) {
-        return customerRepository.findById(id)
-                .map(customer -> {
-                    customer.setCustomerName(customerDTO.getCustomerName());
-                    return customer;
-                })
-                .flatMap(customerRepository::save)
-                .map(customerMapper::toDTO);
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("customerName", customerDTO.getCustomerName());
+
+        return updateFields(id, fields);
     }
 
     @Override
     public Mono<CustomerDTO> patchById(String id, CustomerDTO customerDTO) {
-        return customerRepository.findById(id)
-                .map(customer -> {
-                    if (StringUtils.hasText(customerDTO.getCustomerName())) {
-                        customer.setCustomerName(customerDTO.getCustomerName());
-                    }
-                    return customer;
-                })
-                .flatMap(customerRepository::save)
+        Map<String, Object> fields = new LinkedHashMap<>();
+        if (StringUtils.hasText(customerDTO.getCustomerName())) {
+            fields.put("customerName", customerDTO.getCustomerName());
+        }
+
+        if (fields.isEmpty()) {
+            return findById(id);
+        }
+        return updateFields(id, fields);
+    }
+
+    private Mono<CustomerDTO> updateFields(String id, Map<String, Object> fields) {
+        fields.put("lastModifiedDate", LocalDateTime.now());
+        return customerRepository.updateFields(id, fields)
+                .doOnTerminate(() -> customerCache.invalidate(id))
                 .map(customerMapper::toDTO);
     }
 
     @Override
-    public Mono<Void> deleteById(String id) {
-        return customerRepository.deleteById(id);
+    public Mono<Long> deleteById(String id) {
+        return customerRepository.removeById(id)
+                .doOnTerminate(() -> customerCache.invalidate(id));
+    }
+
+    @Override
+    public Mono<Long> deleteByIds(Collection<String> ids) {
+        return customerRepository.removeByIdIn(ids)
+                .doOnTerminate(() -> customerCache.invalidateAll(ids));
     }
 }
@@ -0,0 +1,11 @@
+package guru.springframework.reactivemongo.services;
+
+/**
+ * A stock adjustment would have taken a beer's quantity on hand below zero.
+ */
+public class InsufficientStockException extends RuntimeException {
+
+    public InsufficientStockException(String beerId, int delta) {
+        super("Insufficient stock of beer " + beerId + " for adjustment " + delta);
+    }
+}
@@ -1,11 +1,25 @@
 package guru.springframework.reactivemongo.web.fn;
 
+import guru.springframework.reactivemongo.config.BeerStatsProperties;
+import guru.springframework.reactivemongo.config.ChangeFeedProperties;
 import guru.springframework.reactivemongo.model.BeerDTO;
+import guru.springframework.reactivemongo.model.BulkItemResultDTO;
+import guru.springframework.reactivemongo.model.ChangeEventDTO;
+import guru.springframework.reactivemongo.model.LookupResultDTO;
+import guru.springframework.reactivemongo.model.StockAdjustmentDTO;
 import guru.springframework.reactivemongo.services.BeerService;
+import guru.springframework.reactivemongo.services.BeerStatsService;
+import guru.springframework.reactivemongo.services.ChangeFeedService;
+import guru.springframework.reactivemongo.services.InsufficientStockException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
 import org.springframework.validation.BeanPropertyBindingResult;
 import org.springframework.validation.Errors;
 import org.springframework.validation.Validator;
@@ -18,41 +32,190 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Component
 @RequiredArgsConstructor
 public class BeerHandler {
+    static final int DEFAULT_SEARCH_LIMIT = 10;
+    static final int MAX_SEARCH_LIMIT = 100;
+    static final int MAX_SEARCH_LENGTH = 100;
+
     private final BeerService beerService;
+    private final BeerStatsService beerStatsService;
+    private final BeerStatsProperties beerStatsProperties;
+    private final ChangeFeedService changeFeedService;
+    private final ChangeFeedProperties changeFeedProperties;
     private final Validator validator;
+    private final ExportEncoder exportEncoder;
+    private final ImportDecoder importDecoder;
 
     private void validateBeer(BeerDTO beerDTO) {
+        String validationErrors = validationErrors(beerDTO);
+        if (validationErrors != null) {
+            throw new ServerWebInputException(validationErrors);
+        }
+    }
+
+    private String validationErrors(BeerDTO beerDTO) {
         Errors errors = new BeanPropertyBindingResult(beerDTO, "beerDTO");
         validator.validate(beerDTO, errors);
-        if (errors.hasErrors()) {
-            throw new ServerWebInputException(errors.getAllErrors().toString());
-        }
+        return errors.hasErrors() ? errors.getAllErrors().toString() : null;
     }
 
     public Mono<ServerResponse> listBeers(ServerRequest request) {
-        Flux<BeerDTO> flux;
+        String beerStyle = request.queryParam("beerStyle").orElse(null);
+        Set<String> fields = FieldsParameter.from(request, BeerDTO.class);
+        if (PageCursor.isPageRequest(request)) {
+            return listBeersPage(request, beerStyle, fields);
+        }
+
+        return beerService.getBeersWatermark(beerStyle)
+                .map(watermark -> ETags.weak(watermark, request))
+                .flatMap(eTag -> request.checkNotModified(eTag)
+                        .switchIfEmpty(Mono.defer(() -> ServerResponse.ok()
+                                .contentType(DocumentMediaTypes.select(request))
+                                .varyBy(HttpHeaders.ACCEPT)
+                                .eTag(eTag)
+                                .hints(FieldsParameter.hints(fields))
+                                .body(beerService.getBeers(beerStyle, fields), BeerDTO.class))));
+    }
+
+    private Mono<ServerResponse> listBeersPage(ServerRequest request, String beerStyle, Set<String> fields) {
+        int limit = PageCursor.limit(request);
+
+        return beerService.getBeersPage(beerStyle, PageCursor.afterId(request), limit + 1, fields)
+                .collectList()
+                .flatMap(beers -> {
+                    String eTag = ETags.weak(beers, request);
+                    return request.checkNotModified(eTag)
+                            .switchIfEmpty(Mono.defer(() -> {
+                                String nextCursor = PageCursor.nextCursor(beers, limit, BeerDTO::getId);
+                                ServerResponse.BodyBuilder response = ServerResponse.ok()
+                                        .contentType(DocumentMediaTypes.select(request))
+                                        .varyBy(HttpHeaders.ACCEPT)
+                                        .eTag(eTag)
+                                        .hints(FieldsParameter.hints(fields));
+                                if (nextCursor != null) {
+                                    response.header(PageCursor.NEXT_CURSOR_HEADER, nextCursor);
+                                }
+                                return response.bodyValue(beers.subList(0, Math.min(limit, beers.size())));
+                            }));
+                });
+    }
+
+    /**
+     * Multi-get by {@code ids}: one entry per id in request order, with {@code found=false}
+     * for beers that do not exist.
+     */
+    public Mono<ServerResponse> getBeersByIds(ServerRequest request) {
+        return lookupResponse(request, IdsParameter.from(request));
+    }
+
+    /**
+     * {@link #getBeersByIds} for id lists sent as a JSON array body.
+     */
+    public Mono<ServerResponse> lookupBeers(ServerRequest request) {
+        return IdsParameter.fromBody(request).flatMap(ids -> lookupResponse(request, ids));
+    }
+
+    private Mono<ServerResponse> lookupResponse(ServerRequest request, List<String> ids) {
+        return ServerResponse.ok()
+                .contentType(DocumentMediaTypes.select(request))
+                .body(beerService.getBeersByIds(ids), new ParameterizedTypeReference<LookupResultDTO<BeerDTO>>() {
+                });
+    }
+
+    public Mono<ServerResponse> streamBeers(ServerRequest request) {
+        return ServerResponse.ok()
+                .contentType(StreamingMediaTypes.select(request))
+                .body(beerService.streamBeers(request.queryParam("beerStyle").orElse(null)), BeerDTO.class);
+    }
+
+    /**
+     * Whole catalog export for bulk consumers, see {@link ExportEncoder}; {@code modifiedSince}
+     * limits it to beers modified since then.
+     */
+    public Mono<ServerResponse> exportBeers(ServerRequest request) {
+        return exportEncoder.respond(request, "beers", BeerDTO.class, beerService::exportBeers);
+    }
 
-        if (request.queryParam("beerStyle").isPresent()) {
-            flux = beerService.findByBeerStyle(request.queryParam("beerStyle").get());
-        } else {
-            flux = beerService.getBeers();
+    public Mono<ServerResponse> streamBeerChanges(ServerRequest request) {
+        Flux<ChangeEventDTO<BeerDTO>> changes = changeFeedService.beerChanges(ChangeFeeds.resumeToken(request));
+        return ChangeFeeds.respond(request, changes, changeFeedProperties.heartbeatInterval());
+    }
+
+    /**
+     * Relevance ranked full text search over name and style ({@code mode=text}, the
+     * default), or name prefix lookup for type-ahead ({@code mode=prefix}).
+     */
+    public Mono<ServerResponse> searchBeers(ServerRequest request) {
+        String q = request.queryParam("q")
+                .filter(StringUtils::hasText)
+                .orElseThrow(() -> new ServerWebInputException("q is required"));
+        if (q.length() > MAX_SEARCH_LENGTH) {
+            throw new ServerWebInputException("q must be at most " + MAX_SEARCH_LENGTH + " characters");
         }
+        String mode = request.queryParam("mode").orElse("text");
+        int limit = PageCursor.limit(request, DEFAULT_SEARCH_LIMIT, MAX_SEARCH_LIMIT);
+        Set<String> fields = FieldsParameter.from(request, BeerDTO.class);
+
+        Flux<BeerDTO> results = switch (mode) {
+            case "text" -> beerService.searchBeers(q, limit, fields);
+            case "prefix" -> beerService.suggestBeers(q, limit, fields);
+            default -> throw new ServerWebInputException("mode must be text or prefix");
+        };
 
         return ServerResponse.ok()
-                .contentType(MediaType.APPLICATION_JSON)
-                .body(flux, BeerDTO.class);
+                .contentType(DocumentMediaTypes.select(request))
+                .hints(FieldsParameter.hints(fields))
+                .body(results, BeerDTO.class);
     }
 
+    /**
+     * Catalog totals, or one entry per beer style with {@code groupBy=beerStyle}. Results
+     * come from a periodically refreshed cache, which clients may also cache for as long.
+     */
+    public Mono<ServerResponse> getBeerStats(ServerRequest request) {
+        String groupBy = request.queryParam("groupBy").orElse(null);
+        if (groupBy != null && !groupBy.equals("beerStyle")) {
+            throw new ServerWebInputException("groupBy must be beerStyle");
+        }
+
+        ServerResponse.BodyBuilder response = ServerResponse.ok()
+                .contentType(DocumentMediaTypes.select(request))
+                .varyBy(HttpHeaders.ACCEPT)
+                .cacheControl(CacheControl.maxAge(beerStatsProperties.refreshAfter()));
+
+        return groupBy == null
+                ? beerStatsService.getCatalogStats().flatMap(response::bodyValue)
+                : beerStatsService.getStatsByBeerStyle().flatMap(response::bodyValue);
+    }
+
+    /**
+     * A matching {@code If-None-Match} is answered with 304 from the beer's version alone;
+     * the document is only read and serialized when it has to be sent.
+     */
     public Mono<ServerResponse> getBeerById(ServerRequest request) {
-        return beerService.getBeerById(request.pathVariable("beerId"))
+        String beerId = request.pathVariable("beerId");
+        Set<String> fields = FieldsParameter.from(request, BeerDTO.class);
+        MediaType mediaType = DocumentMediaTypes.select(request);
+
+        Mono<ServerResponse> notModified = ETags.hasIfNoneMatch(request)
+                ? beerService.getBeerVersion(beerId)
+                        .flatMap(version -> request.checkNotModified(ETags.strong(version, fields, mediaType)))
+                : Mono.empty();
+
+        return notModified.switchIfEmpty(Mono.defer(() -> beerService.getBeerById(beerId, fields)
                 .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND)))
                 .flatMap(beerDTO -> ServerResponse.ok()
-                        .contentType(MediaType.APPLICATION_JSON)
-                        .body(Mono.just(beerDTO), BeerDTO.class));
+                        .contentType(mediaType)
+                        .varyBy(HttpHeaders.ACCEPT)
+                        .eTag(ETags.strong(beerDTO.getVersion(), fields, mediaType))
+                        .hints(FieldsParameter.hints(fields))
+                        .body(Mono.just(beerDTO), BeerDTO.class))));
     }
 
     public Mono<ServerResponse> createBeer(ServerRequest request) {
@@ -62,27 +225,98 @@ public class BeerHandler {
                 ).build());
     }
 
+    public Mono<ServerResponse> bulkSaveBeers(ServerRequest request) {
+        MediaType responseType = request.headers().accept().contains(MediaType.APPLICATION_NDJSON)
+                ? MediaType.APPLICATION_NDJSON
+                : DocumentMediaTypes.select(request);
+
+        return ServerResponse.ok()
+                .contentType(responseType)
+                .body(beerService.bulkSaveBeers(request.bodyToFlux(BeerDTO.class), this::validationErrors),
+                        BulkItemResultDTO.class);
+    }
+
+    /**
+     * Catalog upload as NDJSON, see {@link ImportDecoder}. Lines are saved like
+     * {@link #bulkSaveBeers} items and the response reports accepted and rejected counts, with
+     * the line number and reason of each rejection.
+     */
+    public Mono<ServerResponse> importBeers(ServerRequest request) {
+        return importDecoder.importLines(request, BeerDTO.class,
+                        beers -> beerService.bulkSaveBeers(beers, this::validationErrors))
+                .flatMap(report -> ServerResponse.ok()
+                        .contentType(DocumentMediaTypes.select(request))
+                        .bodyValue(report));
+    }
+
+    /**
+     * With {@code If-Match} the update only applies to the listed versions; a beer changed
+     * since is answered with 412. The new ETag is returned either way.
+     */
     public Mono<ServerResponse> updateBeer(ServerRequest request) {
+        List<Long> expectedVersions = ETags.ifMatchVersions(request);
+
         return request.bodyToMono(BeerDTO.class)
                 .doOnNext(this::validateBeer)
-                .flatMap(beerDTO -> beerService.updateBeer(request.pathVariable("beerId"), beerDTO))
+                .flatMap(beerDTO -> beerService.updateBeer(request.pathVariable("beerId"), beerDTO, expectedVersions))
+                .onErrorMap(OptimisticLockingFailureException.class, BeerHandler::preconditionFailed)
                 .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND)))
-                .flatMap(beerDTO -> ServerResponse.noContent().build());
+                .flatMap(beerDTO -> ServerResponse.noContent()
+                        .eTag(ETags.strong(beerDTO.getVersion(), Set.of(), DocumentMediaTypes.select(request)))
+                        .build());
 
     }
 
     public Mono<ServerResponse> patchBeer(ServerRequest request) {
+        List<Long> expectedVersions = ETags.ifMatchVersions(request);
+
         return request.bodyToMono(BeerDTO.class)
                 .doOnNext(this::validateBeer)
-                .flatMap(beerDTO -> beerService.patchBeer(request.pathVariable("beerId"), beerDTO))
+                .flatMap(beerDTO -> beerService.patchBeer(request.pathVariable("beerId"), beerDTO, expectedVersions))
+                .onErrorMap(OptimisticLockingFailureException.class, BeerHandler::preconditionFailed)
+                .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND)))
+                .flatMap(beerDTO -> ServerResponse.noContent()
+                        .eTag(ETags.strong(beerDTO.getVersion(), Set.of(), DocumentMediaTypes.select(request)))
+                        .build());
+    }
+
+    public Mono<ServerResponse> adjustStock(ServerRequest request) {
+        return request.bodyToMono(StockAdjustmentDTO.class)
+                .switchIfEmpty(Mono.error(new ServerWebInputException("Request body is missing")))
+                .doOnNext(this::validateStockAdjustment)
+                .flatMap(adjustment -> beerService.adjustStock(request.pathVariable("beerId"), adjustment.getDelta()))
+                .onErrorMap(InsufficientStockException.class,
+                        exception -> new ResponseStatusException(HttpStatus.CONFLICT, exception.getMessage(), exception))
                 .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND)))
-                .flatMap(beerDTO -> ServerResponse.noContent().build());
+                .flatMap(stockLevel -> ServerResponse.ok()
+                        .contentType(DocumentMediaTypes.select(request))
+                        .eTag(ETags.strong(stockLevel.getVersion(), Set.of(), DocumentMediaTypes.select(request)))
+                        .bodyValue(stockLevel));
+    }
+
+    private void validateStockAdjustment(StockAdjustmentDTO adjustment) {
+        Errors errors = new BeanPropertyBindingResult(adjustment, "stockAdjustmentDTO");
+        validator.validate(adjustment, errors);
+        if (errors.hasErrors()) {
+            throw new ServerWebInputException(errors.getAllErrors().toString());
+        }
+    }
+
+    private static ResponseStatusException preconditionFailed(OptimisticLockingFailureException exception) {
+        return new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, exception.getMessage(), exception);
     }
 
     public Mono<ServerResponse> deleteBeer(ServerRequest request) {
-        return beerService.getBeerById(request.pathVariable("beerId"))
+        return beerService.deleteBeerById(request.pathVariable("beerId"))
+                .filter(deletedCount -> deletedCount > 0)
                 .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND)))
-                .flatMap(beerDTO -> beerService.deleteBeerById(beerDTO.getId()))
                 .then(ServerResponse.noContent().build());
     }
+
+    public Mono<ServerResponse> deleteBeers(ServerRequest request) {
+        return beerService.deleteBeersByIds(IdsParameter.from(request))
+                .flatMap(deletedCount -> ServerResponse.ok()
+                        .contentType(DocumentMediaTypes.select(request))
+                        .bodyValue(Map.of("deletedCount", deletedCount)));
+    }
 }
@@ -4,11 +4,21 @@ import guru.springframework.reactivemongo.repositories.BeerRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.server.HandlerFunction;
 import org.springframework.web.reactive.function.server.RouterFunction;
 import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.UnsupportedMediaTypeStatusException;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
 
 import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON;
+import static org.springframework.http.MediaType.TEXT_EVENT_STREAM;
 import static org.springframework.web.reactive.function.server.RequestPredicates.accept;
+import static org.springframework.web.reactive.function.server.RequestPredicates.contentType;
+import static org.springframework.web.reactive.function.server.RequestPredicates.queryParam;
 import static org.springframework.web.reactive.function.server.RouterFunctions.route;
 
 @Configuration
@@ -16,18 +26,53 @@ import static org.springframework.web.reactive.function.server.RouterFunctions.r
 public class BeerRouterConfig {
     public static final String BEERS_PATH = "/api/v3/beer";
     public static final String BEERS_PATH_ID = BEERS_PATH +  "/{beerId}";
+    public static final String BEERS_BULK_PATH = BEERS_PATH + "/bulk";
+    public static final String BEERS_CHANGES_PATH = BEERS_PATH + "/changes";
+    public static final String BEERS_STOCK_PATH = BEERS_PATH_ID + "/stock";
+    public static final String BEERS_STATS_PATH = BEERS_PATH + "/stats";
+    public static final String BEERS_SEARCH_PATH = BEERS_PATH + "/search";
+    public static final String BEERS_LOOKUP_PATH = BEERS_PATH + "/lookup";
+    public static final String BEERS_EXPORT_PATH = BEERS_PATH + "/export";
+    public static final String BEERS_IMPORT_PATH = BEERS_PATH + "/import";
+
+    // bulk bodies are routed on their own type; the response type is negotiated separately.
+    // CBOR is left out as it cannot be decoded incrementally, see BinaryCodecsConfig
+    static final MediaType[] BULK_BODY_TYPES = {APPLICATION_JSON, APPLICATION_NDJSON,
+            DocumentMediaTypes.APPLICATION_SMILE};
+    static final MediaType[] IMPORT_BODY_TYPES = {APPLICATION_NDJSON};
 
     private final BeerHandler beerHandler;
+    private final ConcurrencyLimitFilter concurrencyLimitFilter;
 
     @Bean
     public RouterFunction<ServerResponse> beerRoutes() {
         return route()
-                .GET(BEERS_PATH, accept(APPLICATION_JSON),beerHandler::listBeers)
-                .POST(BEERS_PATH, accept(APPLICATION_JSON), beerHandler::createBeer)
-                .GET(BEERS_PATH_ID, accept(APPLICATION_JSON),beerHandler::getBeerById)
-                .PUT(BEERS_PATH_ID, accept(APPLICATION_JSON), beerHandler::updateBeer)
-                .PATCH(BEERS_PATH_ID, accept(APPLICATION_JSON), beerHandler::patchBeer)
-                .DELETE(BEERS_PATH_ID, accept(APPLICATION_JSON), beerHandler::deleteBeer)
+                .GET(BEERS_PATH, queryParam(IdsParameter.NAME, ids -> true).and(accept(DocumentMediaTypes.ALL)),
+                        beerHandler::getBeersByIds)
+                .GET(BEERS_PATH, accept(DocumentMediaTypes.ALL),beerHandler::listBeers)
+                .GET(BEERS_PATH, accept(APPLICATION_NDJSON, TEXT_EVENT_STREAM), beerHandler::streamBeers)
+                .POST(BEERS_PATH, accept(DocumentMediaTypes.ALL), beerHandler::createBeer)
+                .POST(BEERS_BULK_PATH, contentType(BULK_BODY_TYPES), beerHandler::bulkSaveBeers)
+                .POST(BEERS_BULK_PATH, unsupportedMediaType(BULK_BODY_TYPES))
+                .GET(BEERS_CHANGES_PATH, accept(TEXT_EVENT_STREAM, APPLICATION_NDJSON), beerHandler::streamBeerChanges)
+                .GET(BEERS_STATS_PATH, accept(DocumentMediaTypes.ALL), beerHandler::getBeerStats)
+                .GET(BEERS_SEARCH_PATH, accept(DocumentMediaTypes.ALL), beerHandler::searchBeers)
+                .GET(BEERS_EXPORT_PATH, beerHandler::exportBeers)
+                .POST(BEERS_IMPORT_PATH, contentType(IMPORT_BODY_TYPES), beerHandler::importBeers)
+                .POST(BEERS_IMPORT_PATH, unsupportedMediaType(IMPORT_BODY_TYPES))
+                .POST(BEERS_LOOKUP_PATH, accept(DocumentMediaTypes.ALL), beerHandler::lookupBeers)
+                .GET(BEERS_PATH_ID, accept(DocumentMediaTypes.ALL),beerHandler::getBeerById)
+                .PUT(BEERS_PATH_ID, accept(DocumentMediaTypes.ALL), beerHandler::updateBeer)
+                .PATCH(BEERS_PATH_ID, accept(DocumentMediaTypes.ALL), beerHandler::patchBeer)
+                .DELETE(BEERS_PATH_ID, accept(DocumentMediaTypes.ALL), beerHandler::deleteBeer)
+                .POST(BEERS_STOCK_PATH, accept(DocumentMediaTypes.ALL), beerHandler::adjustStock)
+                .DELETE(BEERS_PATH, accept(DocumentMediaTypes.ALL), beerHandler::deleteBeers)
+                .filter(concurrencyLimitFilter)
                 .build();
     }
+
+    private static HandlerFunction<ServerResponse> unsupportedMediaType(MediaType... supported) {
+        return request -> Mono.error(new UnsupportedMediaTypeStatusException(
+                request.headers().contentType().orElse(null), List.of(supported)));
+    }
 }
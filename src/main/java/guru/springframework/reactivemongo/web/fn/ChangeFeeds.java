@@ -0,0 +1,66 @@
+package guru.springframework.reactivemongo.web.fn;
+
+import guru.springframework.reactivemongo.model.ChangeEventDTO;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * Writes a change feed as Server-Sent Events or NDJSON. SSE events carry the resume token
+ * as their id, so a reconnecting browser resumes through {@code Last-Event-ID}; other
+ * clients pass the last {@code resumeToken} they saw as the {@code resumeAfter} parameter.
+ */
+final class ChangeFeeds {
+    static final String LAST_EVENT_ID_HEADER = "Last-Event-ID";
+    static final String RESUME_AFTER_PARAM = "resumeAfter";
+
+    private ChangeFeeds() {
+    }
+
+    static String resumeToken(ServerRequest request) {
+        String lastEventId = request.headers().firstHeader(LAST_EVENT_ID_HEADER);
+        return lastEventId != null ? lastEventId : request.queryParam(RESUME_AFTER_PARAM).orElse(null);
+    }
+
+    static <T> Mono<ServerResponse> respond(ServerRequest request, Flux<ChangeEventDTO<T>> changes,
+                                            Duration heartbeatInterval) {
+        MediaType mediaType = StreamingMediaTypes.select(request);
+
+        if (MediaType.TEXT_EVENT_STREAM.equals(mediaType)) {
+            Flux<ServerSentEvent<Object>> events = changes
+                    .map(change -> ServerSentEvent.<Object>builder(change)
+                            .id(change.getResumeToken())
+                            .event(change.getOperation())
+                            .build());
+
+            return ServerResponse.ok()
+                    .contentType(MediaType.TEXT_EVENT_STREAM)
+                    .body(withHeartbeats(events, heartbeatInterval),
+                            new ParameterizedTypeReference<ServerSentEvent<Object>>() {
+                            });
+        }
+
+        return ServerResponse.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(changes, new ParameterizedTypeReference<ChangeEventDTO<T>>() {
+                });
+    }
+
+    /**
+     * Interleaves heartbeat comments with the events until the events complete or fail, so a
+     * finite feed still ends the response.
+     */
+    static Flux<ServerSentEvent<Object>> withHeartbeats(Flux<ServerSentEvent<Object>> events,
+                                                        Duration heartbeatInterval) {
+        Flux<ServerSentEvent<Object>> heartbeats = Flux.interval(heartbeatInterval)
+                .map(tick -> ServerSentEvent.builder().comment("heartbeat").build());
+
+        return events.publish(shared -> Flux.merge(shared, heartbeats.takeUntilOther(shared.ignoreElements())));
+    }
+}
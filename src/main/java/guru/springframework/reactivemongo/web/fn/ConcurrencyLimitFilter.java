@@ -0,0 +1,237 @@
+package guru.springframework.reactivemongo.web.fn;
+
+import guru.springframework.reactivemongo.config.ConcurrencyLimitProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseCookie;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.reactive.function.server.HandlerFilterFunction;
+import org.springframework.web.reactive.function.server.HandlerFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.PathPattern;
+import reactor.core.publisher.Mono;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Caps the requests in flight per route (method and path pattern) so that a slow database
+ * sheds load with a quick 503 and {@code Retry-After} instead of queueing requests until
+ * memory or client timeouts run out. Each route's limit adapts AIMD style: it grows by one
+ * after a request faster than the budget's latency threshold while the route is at least
+ * half busy, and shrinks by the backoff ratio after a slower or failed one.
+ * <p>
+ * A request holds its slot until its response body is written. Streaming routes (change
+ * feeds, NDJSON and SSE lists, export, import and bulk) are long lived by design, bounded
+ * by their own buffers, and are not limited.
+ * <p>
+ * Publishes {@code http.server.concurrency.limit} and {@code .in.flight} gauges and a
+ * {@code .rejected} counter tagged with method, route and budget.
+ */
+@Component
+public class ConcurrencyLimitFilter implements HandlerFilterFunction<ServerResponse, ServerResponse> {
+    static final String METRIC_PREFIX = "http.server.concurrency";
+
+    private static final Set<String> STREAMING_ROUTES = Set.of(
+            BeerRouterConfig.BEERS_BULK_PATH, BeerRouterConfig.BEERS_CHANGES_PATH,
+            BeerRouterConfig.BEERS_EXPORT_PATH, BeerRouterConfig.BEERS_IMPORT_PATH,
+            CustomerRouterConfig.CUSTOMER_CHANGES_PATH, CustomerRouterConfig.CUSTOMER_EXPORT_PATH);
+
+    private final ConcurrencyLimitProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, RouteLimit> limits = new ConcurrentHashMap<>();
+
+    public ConcurrencyLimitFilter(ConcurrencyLimitProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Mono<ServerResponse> filter(ServerRequest request, HandlerFunction<ServerResponse> next) {
+        String route = request.attribute(RouterFunctions.MATCHING_PATTERN_ATTRIBUTE)
+                .map(pattern -> ((PathPattern) pattern).getPatternString())
+                .orElse(null);
+        if (!properties.enabled() || route == null || isStreaming(request, route)) {
+            return next.handle(request);
+        }
+
+        RouteLimit limit = limits.computeIfAbsent(request.method().name() + " " + route,
+                key -> new RouteLimit(request.method(), route));
+        if (!limit.tryAcquire()) {
+            limit.rejected.increment();
+            return ServerResponse.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, properties.retryAfter().toSeconds())))
+                    .build();
+        }
+
+        Permit permit = new Permit(limit, System.nanoTime());
+        return Mono.defer(() -> next.handle(request))
+                .<ServerResponse>map(response -> new PermitReleasingResponse(response, permit))
+                .doOnError(throwable -> permit.release(isServerFailure(throwable)))
+                .doOnCancel(permit::cancel);
+    }
+
+    /**
+     * The lists answer NDJSON and SSE on the same pattern as the document types; those are
+     * the streams.
+     */
+    private static boolean isStreaming(ServerRequest request, String route) {
+        if (STREAMING_ROUTES.contains(route)) {
+            return true;
+        }
+        List<MediaType> accept = request.headers().accept();
+        return request.method() == HttpMethod.GET && !accept.isEmpty()
+                && accept.stream().noneMatch(accepted -> Arrays.stream(DocumentMediaTypes.ALL)
+                .anyMatch(accepted::isCompatibleWith));
+    }
+
+    private static boolean isServerFailure(Throwable throwable) {
+        return !(throwable instanceof ResponseStatusException exception) || exception.getStatusCode().is5xxServerError();
+    }
+
+    int limit(HttpMethod method, String route) {
+        RouteLimit limit = limits.get(method.name() + " " + route);
+        return limit == null ? -1 : limit.limit;
+    }
+
+    /**
+     * In-flight count and adaptive limit of one route.
+     */
+    private final class RouteLimit {
+        private final ConcurrencyLimitProperties.Budget budget;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final Counter rejected;
+        private volatile int limit;
+
+        RouteLimit(HttpMethod method, String route) {
+            boolean read = method == HttpMethod.GET || method == HttpMethod.HEAD;
+            this.budget = read ? properties.read() : properties.write();
+            this.limit = budget.initialLimit();
+
+            Tags tags = Tags.of("method", method.name(), "uri", route, "budget", read ? "read" : "write");
+            Gauge.builder(METRIC_PREFIX + ".limit", this, routeLimit -> routeLimit.limit)
+                    .description("Requests allowed in flight")
+                    .tags(tags)
+                    .register(meterRegistry);
+            Gauge.builder(METRIC_PREFIX + ".in.flight", inFlight, AtomicInteger::get)
+                    .description("Requests in flight")
+                    .tags(tags)
+                    .register(meterRegistry);
+            this.rejected = Counter.builder(METRIC_PREFIX + ".rejected")
+                    .description("Requests rejected with 503 at the limit")
+                    .tags(tags)
+                    .register(meterRegistry);
+        }
+
+        boolean tryAcquire() {
+            while (true) {
+                int current = inFlight.get();
+                if (current >= limit) {
+                    return false;
+                }
+                if (inFlight.compareAndSet(current, current + 1)) {
+                    return true;
+                }
+            }
+        }
+
+        /**
+         * Gives the slot back without taking the latency as a sample, for cancelled requests.
+         */
+        void release() {
+            inFlight.decrementAndGet();
+        }
+
+        void release(long latencyNanos, boolean failed) {
+            int inFlightBefore = inFlight.getAndDecrement();
+            synchronized (this) {
+                if (failed || latencyNanos > budget.latencyThreshold().toNanos()) {
+                    limit = Math.max(budget.minLimit(), (int) (limit * properties.backoffRatio()));
+                } else if (inFlightBefore * 2 >= limit) {
+                    limit = Math.min(budget.maxLimit(), limit + 1);
+                }
+            }
+        }
+    }
+
+    /**
+     * A slot taken by one request, given back exactly once.
+     */
+    private static final class Permit {
+        private final RouteLimit limit;
+        private final long startNanos;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        Permit(RouteLimit limit, long startNanos) {
+            this.limit = limit;
+            this.startNanos = startNanos;
+        }
+
+        void release(boolean failed) {
+            if (released.compareAndSet(false, true)) {
+                limit.release(System.nanoTime() - startNanos, failed);
+            }
+        }
+
+        void cancel() {
+            if (released.compareAndSet(false, true)) {
+                limit.release();
+            }
+        }
+    }
+
+    /**
+     * Keeps the permit until the body is written, which is when the repository work of a
+     * streamed body actually happens.
+     */
+    private record PermitReleasingResponse(ServerResponse delegate, Permit permit) implements ServerResponse {
+
+        @Override
+        public HttpStatusCode statusCode() {
+            return delegate.statusCode();
+        }
+
+        // still abstract in ServerResponse, so it has to be implemented until it is removed
+        @Override
+        @Deprecated
+        @SuppressWarnings("removal")
+        public int rawStatusCode() {
+            return delegate.statusCode().value();
+        }
+
+        @Override
+        public HttpHeaders headers() {
+            return delegate.headers();
+        }
+
+        @Override
+        public MultiValueMap<String, ResponseCookie> cookies() {
+            return delegate.cookies();
+        }
+
+        @Override
+        public Mono<Void> writeTo(ServerWebExchange exchange, Context context) {
+            return delegate.writeTo(exchange, context)
+                    .doOnSuccess(done -> permit.release(delegate.statusCode().is5xxServerError()))
+                    .doOnError(throwable -> permit.release(true))
+                    .doOnCancel(permit::cancel);
+        }
+    }
+}
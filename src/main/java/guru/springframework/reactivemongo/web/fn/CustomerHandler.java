@@ -1,9 +1,15 @@
 package guru.springframework.reactivemongo.web.fn;
 
+import guru.springframework.reactivemongo.config.ChangeFeedProperties;
 import guru.springframework.reactivemongo.domain.Customer;
+import guru.springframework.reactivemongo.model.ChangeEventDTO;
 import guru.springframework.reactivemongo.model.CustomerDTO;
+import guru.springframework.reactivemongo.model.LookupResultDTO;
+import guru.springframework.reactivemongo.services.ChangeFeedService;
 import guru.springframework.reactivemongo.services.CustomerService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
@@ -18,12 +24,19 @@ import org.springframework.web.util.UriComponentsBuilder;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 @Component
 @RequiredArgsConstructor
 public class CustomerHandler {
 
     private final CustomerService customerService;
+    private final ChangeFeedService changeFeedService;
+    private final ChangeFeedProperties changeFeedProperties;
     private final Validator validator;
+    private final ExportEncoder exportEncoder;
 
     public void validate(CustomerDTO customerDTO) {
         Errors errors = new BeanPropertyBindingResult(customerDTO, "customerDTO");
@@ -34,23 +47,126 @@ public class CustomerHandler {
     }
 
 
+    /**
+     * {@code match=ignoreCase} or {@code match=prefix} matches {@code customerName}
+     * regardless of case and diacritics; the default is an exact match. Pages apply the same
+     * filter.
+     */
     public Mono<ServerResponse> listCustomers(ServerRequest request) {
-        Flux<CustomerDTO> flux;
-        if (request.queryParam("customerName").isPresent()) {
-            flux = customerService.findAllByCustomerName(request.queryParam("customerName").get());
-        } else {
-            flux = customerService.findAll();
+        String customerName = request.queryParam("customerName").orElse(null);
+        CustomerService.NameMatch match = nameMatch(request);
+        Set<String> fields = FieldsParameter.from(request, CustomerDTO.class);
+        if (PageCursor.isPageRequest(request)) {
+            return listCustomersPage(request, customerName, match, fields);
         }
-        return ServerResponse.ok().contentType(MediaType.APPLICATION_JSON)
-                .body(flux, Customer.class);
+
+        return customerService.watermark(customerName, match)
+                .map(watermark -> ETags.weak(watermark, request))
+                .flatMap(eTag -> request.checkNotModified(eTag)
+                        .switchIfEmpty(Mono.defer(() -> ServerResponse.ok()
+                                .contentType(DocumentMediaTypes.select(request))
+                                .varyBy(HttpHeaders.ACCEPT)
+                                .eTag(eTag)
+                                .hints(FieldsParameter.hints(fields))
+                                .body(customerService.findAll(customerName, match, fields), Customer.class))));
+    }
+
+    private static CustomerService.NameMatch nameMatch(ServerRequest request) {
+        return switch (request.queryParam("match").orElse("exact")) {
+            case "exact" -> CustomerService.NameMatch.EXACT;
+            case "ignoreCase" -> CustomerService.NameMatch.IGNORE_CASE;
+            case "prefix" -> CustomerService.NameMatch.PREFIX;
+            default -> throw new ServerWebInputException("match must be exact, ignoreCase or prefix");
+        };
+    }
+
+    private Mono<ServerResponse> listCustomersPage(ServerRequest request, String customerName,
+                                                   CustomerService.NameMatch match, Set<String> fields) {
+        int limit = PageCursor.limit(request);
+
+        return customerService.findPage(customerName, match, PageCursor.afterId(request), limit + 1, fields)
+                .collectList()
+                .flatMap(customers -> {
+                    String eTag = ETags.weak(customers, request);
+                    return request.checkNotModified(eTag)
+                            .switchIfEmpty(Mono.defer(() -> {
+                                String nextCursor = PageCursor.nextCursor(customers, limit, CustomerDTO::getId);
+                                ServerResponse.BodyBuilder response = ServerResponse.ok()
+                                        .contentType(DocumentMediaTypes.select(request))
+                                        .varyBy(HttpHeaders.ACCEPT)
+                                        .eTag(eTag)
+                                        .hints(FieldsParameter.hints(fields));
+                                if (nextCursor != null) {
+                                    response.header(PageCursor.NEXT_CURSOR_HEADER, nextCursor);
+                                }
+                                return response.bodyValue(customers.subList(0, Math.min(limit, customers.size())));
+                            }));
+                });
+    }
+
+    /**
+     * Multi-get by {@code ids}: one entry per id in request order, with {@code found=false}
+     * for customers that do not exist.
+     */
+    public Mono<ServerResponse> getCustomersByIds(ServerRequest request) {
+        return lookupResponse(request, IdsParameter.from(request));
     }
 
+    /**
+     * {@link #getCustomersByIds} for id lists sent as a JSON array body.
+     */
+    public Mono<ServerResponse> lookupCustomers(ServerRequest request) {
+        return IdsParameter.fromBody(request).flatMap(ids -> lookupResponse(request, ids));
+    }
+
+    private Mono<ServerResponse> lookupResponse(ServerRequest request, List<String> ids) {
+        return ServerResponse.ok()
+                .contentType(DocumentMediaTypes.select(request))
+                .body(customerService.findAllByIds(ids), new ParameterizedTypeReference<LookupResultDTO<CustomerDTO>>() {
+                });
+    }
+
+    public Mono<ServerResponse> streamCustomers(ServerRequest request) {
+        return ServerResponse.ok()
+                .contentType(StreamingMediaTypes.select(request))
+                .body(customerService.stream(request.queryParam("customerName").orElse(null)), CustomerDTO.class);
+    }
+
+    /**
+     * Export of all customers for bulk consumers, see {@link ExportEncoder}; {@code modifiedSince}
+     * limits it to customers modified since then.
+     */
+    public Mono<ServerResponse> exportCustomers(ServerRequest request) {
+        return exportEncoder.respond(request, "customers", CustomerDTO.class, customerService::exportCustomers);
+    }
+
+    public Mono<ServerResponse> streamCustomerChanges(ServerRequest request) {
+        Flux<ChangeEventDTO<CustomerDTO>> changes = changeFeedService.customerChanges(ChangeFeeds.resumeToken(request));
+        return ChangeFeeds.respond(request, changes, changeFeedProperties.heartbeatInterval());
+    }
+
+    /**
+     * A matching {@code If-None-Match} is answered with 304 from the customer's version alone;
+     * the document is only read and serialized when it has to be sent.
+     */
     public Mono<ServerResponse> getCustomerById(ServerRequest request) {
-        return customerService.findById(request.pathVariable("customerId"))
+        String customerId = request.pathVariable("customerId");
+        Set<String> fields = FieldsParameter.from(request, CustomerDTO.class);
+        MediaType mediaType = DocumentMediaTypes.select(request);
+
+        Mono<ServerResponse> notModified = ETags.hasIfNoneMatch(request)
+                ? customerService.findVersion(customerId)
+                        .flatMap(version -> request.checkNotModified(ETags.strong(version, fields, mediaType)))
+                : Mono.empty();
+
+        return notModified.switchIfEmpty(Mono.defer(() -> customerService.findById(customerId, fields)
                 .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND)))
                 .flatMap(customerDTO -> ServerResponse.ok()
-                        .contentType(MediaType.APPLICATION_JSON)
-                        .body(Mono.just(customerDTO), Customer.class));
+                        .contentType(mediaType)
+                        .varyBy(HttpHeaders.ACCEPT)
+                        .eTag(ETags.strong(customerDTO.getVersion(), fields, mediaType))
+                        .hints(FieldsParameter.hints(fields))
+                        .body(Mono.just(customerDTO), Customer.class))));
     }
 
     public Mono<ServerResponse> createCustomer(ServerRequest request) {
@@ -81,9 +197,16 @@ public class CustomerHandler {
     }
 
     public Mono<ServerResponse> deleteCustomerById(ServerRequest request) {
-        return customerService.findById(request.pathVariable("customerId"))
+        return customerService.deleteById(request.pathVariable("customerId"))
+                .filter(deletedCount -> deletedCount > 0)
                 .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND)))
-                .flatMap(foundCustomer -> customerService.deleteById(foundCustomer.getId()))
                 .then(ServerResponse.noContent().build());
     }
+
+    public Mono<ServerResponse> deleteCustomers(ServerRequest request) {
+        return customerService.deleteByIds(IdsParameter.from(request))
+                .flatMap(deletedCount -> ServerResponse.ok()
+                        .contentType(DocumentMediaTypes.select(request))
+                        .bodyValue(Map.of("deletedCount", deletedCount)));
+    }
 }
@@ -6,8 +6,10 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.web.reactive.function.server.RouterFunction;
 import org.springframework.web.reactive.function.server.ServerResponse;
 
-import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON;
+import static org.springframework.http.MediaType.TEXT_EVENT_STREAM;
 import static org.springframework.web.reactive.function.server.RequestPredicates.accept;
+import static org.springframework.web.reactive.function.server.RequestPredicates.queryParam;
 import static org.springframework.web.reactive.function.server.RouterFunctions.route;
 
 @Configuration
@@ -15,19 +17,31 @@ import static org.springframework.web.reactive.function.server.RouterFunctions.r
 public class CustomerRouterConfig {
     public static final String CUSTOMER_PATH = "/api/v3/customer";
     public static final String CUSTOMER_PATH_ID = CUSTOMER_PATH + "/{customerId}";
+    public static final String CUSTOMER_CHANGES_PATH = CUSTOMER_PATH + "/changes";
+    public static final String CUSTOMER_LOOKUP_PATH = CUSTOMER_PATH + "/lookup";
+    public static final String CUSTOMER_EXPORT_PATH = CUSTOMER_PATH + "/export";
 
     private final CustomerHandler customerHandler;
+    private final ConcurrencyLimitFilter concurrencyLimitFilter;
 
 
     @Bean
     public RouterFunction<ServerResponse> customerRoutes() {
         return route()
-                .GET(CUSTOMER_PATH, accept(APPLICATION_JSON), customerHandler::listCustomers)
-                .POST(CUSTOMER_PATH, accept(APPLICATION_JSON), customerHandler::createCustomer)
-                .GET(CUSTOMER_PATH_ID, accept(APPLICATION_JSON), customerHandler::getCustomerById)
-                .PUT(CUSTOMER_PATH_ID, accept(APPLICATION_JSON), customerHandler::updateCustomerById)
-                .PATCH(CUSTOMER_PATH_ID, accept(APPLICATION_JSON), customerHandler::patchCustomerById)
-                .DELETE(CUSTOMER_PATH_ID, accept(APPLICATION_JSON), customerHandler::deleteCustomerById)
+                .GET(CUSTOMER_PATH, queryParam(IdsParameter.NAME, ids -> true).and(accept(DocumentMediaTypes.ALL)),
+                        customerHandler::getCustomersByIds)
+                .GET(CUSTOMER_PATH, accept(DocumentMediaTypes.ALL), customerHandler::listCustomers)
+                .GET(CUSTOMER_PATH, accept(APPLICATION_NDJSON, TEXT_EVENT_STREAM), customerHandler::streamCustomers)
+                .POST(CUSTOMER_PATH, accept(DocumentMediaTypes.ALL), customerHandler::createCustomer)
+                .GET(CUSTOMER_CHANGES_PATH, accept(TEXT_EVENT_STREAM, APPLICATION_NDJSON), customerHandler::streamCustomerChanges)
+                .GET(CUSTOMER_EXPORT_PATH, customerHandler::exportCustomers)
+                .POST(CUSTOMER_LOOKUP_PATH, accept(DocumentMediaTypes.ALL), customerHandler::lookupCustomers)
+                .GET(CUSTOMER_PATH_ID, accept(DocumentMediaTypes.ALL), customerHandler::getCustomerById)
+                .PUT(CUSTOMER_PATH_ID, accept(DocumentMediaTypes.ALL), customerHandler::updateCustomerById)
+                .PATCH(CUSTOMER_PATH_ID, accept(DocumentMediaTypes.ALL), customerHandler::patchCustomerById)
+                .DELETE(CUSTOMER_PATH_ID, accept(DocumentMediaTypes.ALL), customerHandler::deleteCustomerById)
+                .DELETE(CUSTOMER_PATH, accept(DocumentMediaTypes.ALL), customerHandler::deleteCustomers)
+                .filter(concurrencyLimitFilter)
                 .build();
     }
 }
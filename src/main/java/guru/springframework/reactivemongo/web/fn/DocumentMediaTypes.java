@@ -0,0 +1,29 @@
+package guru.springframework.reactivemongo.web.fn;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.server.ServerRequest;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * The media types the JSON routes also answer in: CBOR and Smile carry the same documents
+ * in binary for service-to-service callers. JSON is used unless the most preferred of these
+ * types in {@code Accept} is a binary one.
+ */
+public final class DocumentMediaTypes {
+    public static final MediaType APPLICATION_SMILE = new MediaType("application", "x-jackson-smile");
+    static final MediaType[] ALL = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_CBOR, APPLICATION_SMILE};
+
+    private DocumentMediaTypes() {
+    }
+
+    static MediaType select(ServerRequest request) {
+        return request.headers().accept().stream()
+                .filter(accepted -> accepted.getQualityValue() > 0)
+                .sorted(Comparator.comparingDouble(MediaType::getQualityValue).reversed())
+                .flatMap(accepted -> Arrays.stream(ALL).filter(accepted::equalsTypeAndSubtype))
+                .findFirst()
+                .orElse(MediaType.APPLICATION_JSON);
+    }
+}
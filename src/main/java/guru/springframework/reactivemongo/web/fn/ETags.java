@@ -0,0 +1,110 @@
+package guru.springframework.reactivemongo.web.fn;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.util.StringUtils;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Entity tags of the read endpoints. A single document gets a strong tag from its version
+ * (plus the requested fields and binary media type, which change the representation); a list
+ * gets a weak tag from the collection watermark and the query parameters, and a page one
+ * from the documents fetched for it, so paging costs no queries beyond the page's own.
+ */
+final class ETags {
+
+    private ETags() {
+    }
+
+    static boolean hasIfNoneMatch(ServerRequest request) {
+        return !request.headers().header(HttpHeaders.IF_NONE_MATCH).isEmpty();
+    }
+
+    static String strong(Long version, Set<String> fields) {
+        long documentVersion = version == null ? 0L : version;
+        if (fields.isEmpty()) {
+            return "\"" + documentVersion + "\"";
+        }
+        return "\"" + documentVersion + "-" + Integer.toHexString(fields.hashCode()) + "\"";
+    }
+
+    /**
+     * Strong tag of the representation in {@code mediaType}: CBOR and Smile bodies are not
+     * byte-identical to the JSON one, so their tags carry the subtype as well.
+     */
+    static String strong(Long version, Set<String> fields, MediaType mediaType) {
+        String tag = strong(version, fields);
+        if (MediaType.APPLICATION_JSON.equalsTypeAndSubtype(mediaType)) {
+            return tag;
+        }
+        return tag.substring(0, tag.length() - 1) + "-" + mediaType.getSubtype() + "\"";
+    }
+
+    static String weak(String watermark, ServerRequest request) {
+        return "W/\"" + watermark + "-" + Integer.toHexString(request.queryParams().hashCode()) + "\"";
+    }
+
+    /**
+     * @param page the documents fetched for a page, including the look-ahead one that decides
+     *             whether there is a next page
+     */
+    static String weak(List<?> page, ServerRequest request) {
+        return weak(page.size() + "-" + Integer.toHexString(page.hashCode()), request);
+    }
+
+    /**
+     * Versions listed in {@code If-Match}, or {@code null} if the header is absent or {@code *}.
+     * Tags that can never match the full document (weak or projected tags) are dropped; if
+     * none is left the precondition has already failed. The tags of the binary representations
+     * name the same version as the JSON one.
+     */
+    static List<Long> ifMatchVersions(ServerRequest request) {
+        List<String> ifMatch = request.headers().header(HttpHeaders.IF_MATCH);
+        if (ifMatch.isEmpty()) {
+            return null;
+        }
+
+        List<String> tags = ifMatch.stream()
+                .flatMap(value -> Arrays.stream(StringUtils.commaDelimitedListToStringArray(value)))
+                .map(String::trim)
+                .toList();
+        if (tags.contains("*")) {
+            return null;
+        }
+
+        List<Long> versions = tags.stream()
+                .map(ETags::version)
+                .filter(Objects::nonNull)
+                .toList();
+        if (versions.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, "If-Match does not name a current version");
+        }
+        return versions;
+    }
+
+    private static Long version(String strongTag) {
+        if (strongTag.length() < 3 || !strongTag.startsWith("\"") || !strongTag.endsWith("\"")) {
+            return null;
+        }
+        String value = strongTag.substring(1, strongTag.length() - 1);
+        for (MediaType mediaType : DocumentMediaTypes.ALL) {
+            String suffix = "-" + mediaType.getSubtype();
+            if (!MediaType.APPLICATION_JSON.equalsTypeAndSubtype(mediaType) && value.endsWith(suffix)) {
+                value = value.substring(0, value.length() - suffix.length());
+                break;
+            }
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
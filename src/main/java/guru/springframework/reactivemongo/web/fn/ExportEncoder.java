@@ -0,0 +1,225 @@
+package guru.springframework.reactivemongo.web.fn;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import guru.springframework.reactivemongo.config.StreamingProperties;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ServerWebInputException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.TemporalAccessor;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.StreamSupport;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes the export endpoints' responses: NDJSON, or CSV with a header row for
+ * {@code format=csv} or {@code Accept: text/csv}, gzip compressed when the client accepts
+ * it. Documents are encoded a cursor batch at a time into one reused buffer, so memory
+ * stays flat however large the export is, and the response is written with backpressure
+ * all the way back to the Mongo cursor.
+ */
+@Component
+public class ExportEncoder {
+    static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+
+    private final ObjectMapper objectMapper;
+    private final CsvMapper csvMapper;
+    private final int batchSize;
+
+    public ExportEncoder(ObjectMapper objectMapper, StreamingProperties streamingProperties) {
+        this.objectMapper = objectMapper;
+        this.csvMapper = CsvMapper.builder()
+                .addModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                // columns in declaration order, like the JSON properties
+                .disable(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY)
+                .build();
+        this.batchSize = streamingProperties.batchSize();
+    }
+
+    enum Format {
+        NDJSON(MediaType.APPLICATION_NDJSON, "ndjson"),
+        CSV(TEXT_CSV, "csv");
+
+        final MediaType mediaType;
+        final String extension;
+
+        Format(MediaType mediaType, String extension) {
+            this.mediaType = mediaType;
+            this.extension = extension;
+        }
+    }
+
+    /**
+     * @param documents the documents modified at or after the request's {@code modifiedSince},
+     *                  or all of them when it is absent
+     */
+    <T> Mono<ServerResponse> respond(ServerRequest request, String name, Class<T> type,
+                                     Function<LocalDateTime, Flux<T>> documents) {
+        Format format = format(request);
+        boolean gzip = acceptsGzip(request);
+        Flux<T> exported = documents.apply(modifiedSince(request));
+
+        ServerResponse.BodyBuilder response = ServerResponse.ok()
+                .contentType(format.mediaType)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .headers(headers -> headers.setContentDisposition(ContentDisposition.attachment()
+                        .filename(name + "." + format.extension)
+                        .build()));
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        DataBufferFactory bufferFactory = request.exchange().getResponse().bufferFactory();
+        return response.body(BodyInserters.fromDataBuffers(encode(exported, type, format, gzip)
+                .map(bufferFactory::wrap)));
+    }
+
+    <T> Flux<byte[]> encode(Flux<T> documents, Class<T> type, Format format, boolean gzip) {
+        ObjectWriter writer = writer(type, format);
+        byte[] header = format == Format.CSV ? csvHeader(type) : new byte[0];
+
+        return Flux.using(() -> new ExportStream(gzip),
+                        stream -> Flux.concat(
+                                Mono.fromCallable(() -> stream.write(header)),
+                                documents.buffer(batchSize).map(batch -> stream.write(writer, batch, format)),
+                                Mono.fromCallable(stream::finish)),
+                        ExportStream::close)
+                .filter(bytes -> bytes.length > 0);
+    }
+
+    private ObjectWriter writer(Class<?> type, Format format) {
+        ObjectWriter writer = format == Format.CSV
+                ? csvMapper.writerFor(type).with(csvMapper.schemaFor(type).withoutHeader())
+                : objectMapper.writerFor(type);
+        return writer.without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    private byte[] csvHeader(Class<?> type) {
+        CsvSchema schema = csvMapper.schemaFor(type);
+        List<String> columns = StreamSupport.stream(schema.spliterator(), false)
+                .map(CsvSchema.Column::getName)
+                .toList();
+        return (String.join(",", columns) + "\n").getBytes(StandardCharsets.UTF_8);
+    }
+
+    static Format format(ServerRequest request) {
+        return request.queryParam("format")
+                .map(format -> switch (format) {
+                    case "ndjson" -> Format.NDJSON;
+                    case "csv" -> Format.CSV;
+                    default -> throw new ServerWebInputException("format must be ndjson or csv");
+                })
+                .orElseGet(() -> request.headers().accept().stream().anyMatch(TEXT_CSV::equalsTypeAndSubtype)
+                        ? Format.CSV : Format.NDJSON);
+    }
+
+    static boolean acceptsGzip(ServerRequest request) {
+        return request.headers().header(HttpHeaders.ACCEPT_ENCODING).stream()
+                .flatMap(value -> Arrays.stream(value.split(",")))
+                .map(coding -> coding.split(";")[0].trim())
+                .anyMatch(coding -> coding.equalsIgnoreCase("gzip"));
+    }
+
+    /**
+     * Accepts an ISO date-time with or without offset, or a date for midnight; without an
+     * offset it is in the server's zone, like the stored {@code lastModifiedDate}.
+     */
+    static LocalDateTime modifiedSince(ServerRequest request) {
+        return request.queryParam("modifiedSince").map(value -> {
+            try {
+                if (value.length() == 10) {
+                    return LocalDate.parse(value).atStartOfDay();
+                }
+                TemporalAccessor parsed = DateTimeFormatter.ISO_DATE_TIME.parseBest(value,
+                        OffsetDateTime::from, LocalDateTime::from);
+                return parsed instanceof OffsetDateTime offsetDateTime
+                        ? offsetDateTime.atZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime()
+                        : (LocalDateTime) parsed;
+            } catch (DateTimeParseException e) {
+                throw new ServerWebInputException("Invalid modifiedSince: " + value);
+            }
+        }).orElse(null);
+    }
+
+    /**
+     * Output of one export: documents are written through the optional gzip stream into a
+     * buffer that is drained after every batch.
+     */
+    private static final class ExportStream {
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        private final OutputStream out;
+
+        ExportStream(boolean gzip) throws IOException {
+            this.out = gzip ? new GZIPOutputStream(buffer) : buffer;
+        }
+
+        byte[] write(byte[] bytes) throws IOException {
+            out.write(bytes);
+            return drain();
+        }
+
+        byte[] write(ObjectWriter writer, List<?> batch, Format format) {
+            try {
+                for (Object document : batch) {
+                    writer.writeValue(out, document);
+                    if (format == Format.NDJSON) {
+                        out.write('\n');
+                    }
+                }
+                return drain();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        byte[] finish() throws IOException {
+            out.close();
+            return drain();
+        }
+
+        private byte[] drain() {
+            byte[] bytes = buffer.toByteArray();
+            buffer.reset();
+            return bytes;
+        }
+
+        /**
+         * Releases the deflater when the export is cancelled; a no-op once finished.
+         */
+        void close() {
+            try {
+                out.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package guru.springframework.reactivemongo.web.fn;
+
+import guru.springframework.reactivemongo.config.ProjectionEncoder;
+import org.springframework.util.StringUtils;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.server.ServerWebInputException;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * The {@code fields} query parameter of the read endpoints, e.g. {@code fields=beerName,quantityOnHand}.
+ * Names are checked against the properties of the response DTO; the id is always returned.
+ * An empty set means the full document was requested. Projected responses leave out the
+ * fields that were not requested instead of writing them as null, see {@link #hints}.
+ */
+final class FieldsParameter {
+    static final String NAME = "fields";
+
+    private static final Map<Class<?>, Set<String>> DTO_FIELDS = new ConcurrentHashMap<>();
+
+    private FieldsParameter() {
+    }
+
+    static Set<String> from(ServerRequest request, Class<?> dtoType) {
+        Set<String> fields = request.queryParams().getOrDefault(NAME, List.of()).stream()
+                .flatMap(value -> Arrays.stream(StringUtils.commaDelimitedListToStringArray(value)))
+                .map(String::trim)
+                .filter(StringUtils::hasText)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+
+        Set<String> allowedFields = DTO_FIELDS.computeIfAbsent(dtoType, FieldsParameter::declaredFields);
+        List<String> unknownFields = fields.stream()
+                .filter(field -> !allowedFields.contains(field))
+                .toList();
+        if (!unknownFields.isEmpty()) {
+            throw new ServerWebInputException("Unknown fields " + unknownFields + ", expected any of " + allowedFields);
+        }
+        return fields;
+    }
+
+    /**
+     * Encoder hints for a response body read with these fields.
+     */
+    static Consumer<Map<String, Object>> hints(Set<String> fields) {
+        return hints -> {
+            if (!fields.isEmpty()) {
+                hints.put(ProjectionEncoder.PROJECTION_HINT, Boolean.TRUE);
+            }
+        };
+    }
+
+    private static Set<String> declaredFields(Class<?> dtoType) {
+        return Arrays.stream(dtoType.getDeclaredFields())
+                .filter(field -> !Modifier.isStatic(field.getModifiers()))
+                .map(Field::getName)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+}
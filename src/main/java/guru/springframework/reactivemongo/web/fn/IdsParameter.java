@@ -0,0 +1,61 @@
+package guru.springframework.reactivemongo.web.fn;
+
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.util.StringUtils;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.server.ServerWebInputException;
+import reactor.core.publisher.Mono;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The {@code ids} query parameter of the multi-document endpoints. Accepts both
+ * {@code ids=a,b,c} and repeated {@code ids=a&ids=b}; duplicates are dropped and the
+ * request order is kept. Lists too long for a URL can be sent as a JSON array body.
+ */
+final class IdsParameter {
+    static final String NAME = "ids";
+    static final int MAX_IDS = 1000;
+
+    private static final ParameterizedTypeReference<List<String>> IDS_TYPE = new ParameterizedTypeReference<>() {
+    };
+
+    private IdsParameter() {
+    }
+
+    static boolean isPresent(ServerRequest request) {
+        return request.queryParams().containsKey(NAME);
+    }
+
+    static List<String> from(ServerRequest request) {
+        return validate(request.queryParams().getOrDefault(NAME, List.of()).stream()
+                .flatMap(value -> Arrays.stream(StringUtils.commaDelimitedListToStringArray(value)))
+                .toList());
+    }
+
+    static Mono<List<String>> fromBody(ServerRequest request) {
+        return request.bodyToMono(IDS_TYPE)
+                .switchIfEmpty(Mono.error(() -> new ServerWebInputException("At least one id is required")))
+                .map(IdsParameter::validate);
+    }
+
+    static List<String> validate(List<String> rawIds) {
+        Set<String> ids = new LinkedHashSet<>();
+        for (String id : rawIds) {
+            if (StringUtils.hasText(id)) {
+                ids.add(id.trim());
+            }
+        }
+
+        if (ids.isEmpty()) {
+            throw new ServerWebInputException("At least one id is required");
+        }
+        if (ids.size() > MAX_IDS) {
+            throw new ServerWebInputException("At most " + MAX_IDS + " ids are allowed per request");
+        }
+        return List.copyOf(ids);
+    }
+}
@@ -0,0 +1,142 @@
+package guru.springframework.reactivemongo.web.fn;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import guru.springframework.reactivemongo.config.BulkProperties;
+import guru.springframework.reactivemongo.model.BulkItemResultDTO;
+import guru.springframework.reactivemongo.model.ImportReportDTO;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Reads the import endpoints' NDJSON bodies, gzip compressed with {@code Content-Encoding:
+ * gzip}, one line at a time and saves them in batches of {@code app.bulk.chunk-size}. The
+ * body is only read as fast as the batches are saved, so a slow database slows the upload
+ * down rather than filling the heap.
+ */
+@Component
+public class ImportDecoder {
+    static final int MAX_REPORTED_REJECTIONS = 1000;
+    static final int BODY_DEMAND = 16;
+
+    private final ObjectMapper objectMapper;
+    private final BulkProperties bulkProperties;
+
+    public ImportDecoder(ObjectMapper objectMapper, BulkProperties bulkProperties) {
+        this.objectMapper = objectMapper;
+        this.bulkProperties = bulkProperties;
+    }
+
+    /**
+     * @param saver saves a batch of parsed documents, reporting each by its position in the batch
+     */
+    <T> Mono<ImportReportDTO> importLines(ServerRequest request, Class<T> type,
+                                         Function<Flux<T>, Flux<BulkItemResultDTO>> saver) {
+        return lines(request)
+                .map(line -> parse(line, type))
+                .buffer(bulkProperties.chunkSize())
+                .flatMapSequential(batch -> save(batch, saver), bulkProperties.concurrency())
+                .reduceWith(() -> new ImportReportDTO(0, 0, new ArrayList<>()), ImportDecoder::record);
+    }
+
+    /**
+     * Non blank lines of the body with their 1-based line numbers, read on a blocking
+     * capable thread with a bounded demand on the request body.
+     */
+    Flux<Line> lines(ServerRequest request) {
+        Flux<DataBuffer> body = request.bodyToFlux(DataBuffer.class);
+        boolean gzip = request.headers().header(HttpHeaders.CONTENT_ENCODING).stream()
+                .anyMatch(coding -> coding.trim().equalsIgnoreCase("gzip"));
+
+        return Flux.using(() -> reader(DataBufferUtils.subscriberInputStream(body, BODY_DEMAND), gzip),
+                        reader -> Flux.fromStream(reader.lines()).index((index, text) -> new Line(index + 1, text)),
+                        ImportDecoder::close)
+                .filter(line -> StringUtils.hasText(line.text()))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private static BufferedReader reader(InputStream body, boolean gzip) throws IOException {
+        InputStream in = gzip ? new GZIPInputStream(body) : body;
+        return new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+    }
+
+    private static void close(BufferedReader reader) {
+        try {
+            reader.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private <T> Parsed<T> parse(Line line, Class<T> type) {
+        try {
+            return new Parsed<>(line.number(), objectMapper.readValue(line.text(), type), null);
+        } catch (JsonProcessingException e) {
+            return new Parsed<>(line.number(), null, "Malformed JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    private <T> Flux<Outcome> save(List<Parsed<T>> batch, Function<Flux<T>, Flux<BulkItemResultDTO>> saver) {
+        List<Outcome> rejected = new ArrayList<>();
+        List<Parsed<T>> parsed = new ArrayList<>(batch.size());
+        for (Parsed<T> item : batch) {
+            if (item.error() != null) {
+                rejected.add(new Outcome(item.line(), false, item.error()));
+            } else {
+                parsed.add(item);
+            }
+        }
+        if (parsed.isEmpty()) {
+            return Flux.fromIterable(rejected);
+        }
+
+        Flux<Outcome> saved = saver.apply(Flux.fromIterable(parsed).map(Parsed::value))
+                .map(result -> new Outcome(parsed.get((int) result.getIndex()).line(),
+                        result.getStatus() == BulkItemResultDTO.Status.CREATED
+                                || result.getStatus() == BulkItemResultDTO.Status.UPSERTED,
+                        result.getError()));
+        return Flux.concat(Flux.fromIterable(rejected), saved)
+                .collectSortedList(Comparator.comparingLong(Outcome::line))
+                .flatMapIterable(Function.identity());
+    }
+
+    private static ImportReportDTO record(ImportReportDTO report, Outcome outcome) {
+        if (outcome.accepted()) {
+            report.setAccepted(report.getAccepted() + 1);
+            return report;
+        }
+        report.setRejected(report.getRejected() + 1);
+        if (report.getRejections().size() < MAX_REPORTED_REJECTIONS) {
+            report.getRejections().add(new ImportReportDTO.Rejection(outcome.line(), outcome.error()));
+        }
+        return report;
+    }
+
+    record Line(long number, String text) {
+    }
+
+    private record Parsed<T>(long line, T value, String error) {
+    }
+
+    private record Outcome(long line, boolean accepted, String error) {
+    }
+}
@@ -0,0 +1,75 @@
+package guru.springframework.reactivemongo.web.fn;
+
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.server.ServerWebInputException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Opaque keyset cursor for the list endpoints. Clients pass {@code limit} and the
+ * {@code after} token from the previous page's {@value #NEXT_CURSOR_HEADER} header;
+ * the token wraps the last {@code _id} served so the next page is an index seek.
+ */
+final class PageCursor {
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    static final int DEFAULT_LIMIT = 50;
+    static final int MAX_LIMIT = 500;
+
+    private PageCursor() {
+    }
+
+    static boolean isPageRequest(ServerRequest request) {
+        return request.queryParam("limit").isPresent() || request.queryParam("after").isPresent();
+    }
+
+    static int limit(ServerRequest request) {
+        return limit(request, DEFAULT_LIMIT, MAX_LIMIT);
+    }
+
+    static int limit(ServerRequest request, int defaultLimit, int maxLimit) {
+        int limit = request.queryParam("limit")
+                .map(value -> {
+                    try {
+                        return Integer.parseInt(value);
+                    } catch (NumberFormatException e) {
+                        throw new ServerWebInputException("Invalid limit: " + value);
+                    }
+                })
+                .orElse(defaultLimit);
+
+        if (limit < 1 || limit > maxLimit) {
+            throw new ServerWebInputException("limit must be between 1 and " + maxLimit);
+        }
+        return limit;
+    }
+
+    static String afterId(ServerRequest request) {
+        return request.queryParam("after").map(PageCursor::decode).orElse(null);
+    }
+
+    static String encode(String id) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(id.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static String decode(String cursor) {
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new ServerWebInputException("Invalid page cursor");
+        }
+    }
+
+    /**
+     * Pages are fetched with one extra element; if it arrives there is a next page and
+     * the cursor points at the last element actually returned.
+     */
+    static <T> String nextCursor(List<T> fetched, int limit, Function<T, String> idExtractor) {
+        if (fetched.size() <= limit) {
+            return null;
+        }
+        return encode(idExtractor.apply(fetched.get(limit - 1)));
+    }
+}
@@ -0,0 +1,22 @@
+package guru.springframework.reactivemongo.web.fn;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.server.ServerRequest;
+
+/**
+ * Picks the media type for the streaming variants of the list endpoints: Server-Sent
+ * Events when the client asks for them explicitly, newline-delimited JSON otherwise.
+ */
+final class StreamingMediaTypes {
+
+    private StreamingMediaTypes() {
+    }
+
+    static MediaType select(ServerRequest request) {
+        return request.headers().accept().stream()
+                .filter(MediaType.TEXT_EVENT_STREAM::equalsTypeAndSubtype)
+                .findFirst()
+                .map(mediaType -> MediaType.TEXT_EVENT_STREAM)
+                .orElse(MediaType.APPLICATION_NDJSON);
+    }
+}
@@ -0,0 +1,52 @@
+package guru.springframework.reactivemongo.bootstrap;
+
+import guru.springframework.reactivemongo.bootstrap.DataSeeder.Batch;
+import guru.springframework.reactivemongo.config.InMemoryProperties;
+import guru.springframework.reactivemongo.config.SeedProperties;
+import guru.springframework.reactivemongo.repositories.inmemory.InMemoryBeerRepository;
+import guru.springframework.reactivemongo.repositories.inmemory.InMemoryCustomerRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DataSeederTest {
+
+    private final InMemoryProperties inMemoryProperties = new InMemoryProperties(Duration.ZERO, Duration.ZERO);
+    private final InMemoryBeerRepository beerRepository = new InMemoryBeerRepository(inMemoryProperties);
+    private final InMemoryCustomerRepository customerRepository = new InMemoryCustomerRepository(inMemoryProperties);
+    private final DataSeeder dataSeeder = new DataSeeder(beerRepository, customerRepository,
+            new SeedProperties(250, 30, 100, 2, 42, Duration.ofMinutes(1)));
+
+    @Test
+    void testBatchesCoverTheGap() {
+        assertThat(Batch.covering(0, 250, 100))
+                .containsExactly(new Batch(0, 100), new Batch(100, 100), new Batch(200, 50));
+        assertThat(Batch.covering(130, 250, 100))
+                .containsExactly(new Batch(130, 100), new Batch(230, 20));
+        assertThat(Batch.covering(0, 200, 100))
+                .containsExactly(new Batch(0, 100), new Batch(100, 100));
+        assertThat(Batch.covering(250, 250, 100)).isEmpty();
+        assertThat(Batch.covering(300, 250, 100)).isEmpty();
+    }
+
+    @Test
+    void testTopsUpToTheTarget() {
+        beerRepository.insert(new SyntheticDataGenerator(42).beers(0, 130)).blockLast();
+
+        dataSeeder.run();
+
+        assertThat(beerRepository.count().block()).isEqualTo(250);
+        assertThat(customerRepository.count().block()).isEqualTo(30);
+    }
+
+    @Test
+    void testRerunInsertsNothing() {
+        dataSeeder.run();
+        dataSeeder.run();
+
+        assertThat(beerRepository.count().block()).isEqualTo(250);
+        assertThat(customerRepository.count().block()).isEqualTo(30);
+    }
+}
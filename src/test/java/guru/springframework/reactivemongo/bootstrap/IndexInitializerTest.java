@@ -0,0 +1,113 @@
+package guru.springframework.reactivemongo.bootstrap;
+
+import guru.springframework.reactivemongo.config.IndexProperties;
+import guru.springframework.reactivemongo.config.IndexProperties.PlanCheck;
+import guru.springframework.reactivemongo.domain.Beer;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.data.mongodb.core.ReactiveMongoOperations;
+import org.springframework.data.mongodb.core.index.CompoundIndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Testcontainers
+@SpringBootTest
+class IndexInitializerTest {
+
+    @Container
+    @ServiceConnection
+    static MongoDBContainer mongoDBContainer = new MongoDBContainer("mongo:latest");
+
+    @Autowired
+    ReactiveMongoOperations mongoOperations;
+
+    @AfterEach
+    void restoreIndexes() {
+        initializer(true, PlanCheck.OFF).ensureIndexes(Beer.class).block();
+    }
+
+    @Test
+    void testEnsureIndexesCreatesDeclaredIndexes() {
+        mongoOperations.indexOps(Beer.class).dropAllIndexes().block();
+
+        initializer(true, PlanCheck.OFF).ensureIndexes(Beer.class).block();
+
+        assertThat(mongoOperations.indexOps(Beer.class).getIndexInfo().map(IndexInfo::getName).collectList().block())
+                .contains("beerName_id", "beerStyle_id", "beerStyle_lastModifiedDate")
+                .doesNotContain("id_version");
+    }
+
+    @Test
+    void testEnsureIndexesDropsObsoleteIndexes() {
+        mongoOperations.indexOps(Beer.class)
+                .ensureIndex(new CompoundIndexDefinition(new Document("_id", 1).append("version", 1)).named("id_version"))
+                .block();
+
+        initializer(true, PlanCheck.OFF).ensureIndexes(Beer.class).block();
+
+        assertThat(mongoOperations.indexOps(Beer.class).getIndexInfo().map(IndexInfo::getName).collectList().block())
+                .doesNotContain("id_version");
+    }
+
+    @Test
+    void testFailAbortsStartupOnCollectionScan() {
+        mongoOperations.indexOps(Beer.class).dropAllIndexes().block();
+
+        assertThatThrownBy(() -> initializer(false, PlanCheck.FAIL).run(new DefaultApplicationArguments()))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("COLLSCAN")
+                .hasMessageContaining("BeerRepository.findByBeerStyle");
+    }
+
+    @Test
+    void testFailPassesWhenEveryQueryIsIndexBacked() {
+        assertThatCode(() -> initializer(true, PlanCheck.FAIL).run(new DefaultApplicationArguments()))
+                .doesNotThrowAnyException();
+    }
+
+    @Test
+    void testWarnOnlyLogsCollectionScans() {
+        mongoOperations.indexOps(Beer.class).dropAllIndexes().block();
+
+        assertThatCode(() -> initializer(false, PlanCheck.WARN).verifyQueryPlans().block())
+                .doesNotThrowAnyException();
+    }
+
+    @Test
+    void testOffSkipsTheExplains() {
+        mongoOperations.indexOps(Beer.class).dropAllIndexes().block();
+
+        assertThatCode(() -> initializer(false, PlanCheck.OFF).verifyQueryPlans().block())
+                .doesNotThrowAnyException();
+    }
+
+    @Test
+    void testCollectionScanDetection() {
+        Document collectionScan = new Document("stage", "COLLSCAN");
+        Document indexScan = new Document("stage", "FETCH")
+                .append("inputStage", new Document("stage", "IXSCAN").append("indexName", "beerStyle_id"));
+
+        assertThat(IndexInitializer.isCollectionScan(collectionScan)).isTrue();
+        assertThat(IndexInitializer.isCollectionScan(new Document("stage", "SORT")
+                .append("inputStage", collectionScan))).isTrue();
+        assertThat(IndexInitializer.isCollectionScan(indexScan)).isFalse();
+    }
+
+    private IndexInitializer initializer(boolean createOnStartup, PlanCheck planCheck) {
+        return new IndexInitializer(mongoOperations,
+                new IndexProperties(createOnStartup, planCheck, Duration.ofSeconds(30)));
+    }
+}
@@ -0,0 +1,47 @@
+package guru.springframework.reactivemongo.bootstrap;
+
+import guru.springframework.reactivemongo.domain.Beer;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SyntheticDataGeneratorTest {
+
+    @Test
+    void testBatchesAreDeterministic() {
+        SyntheticDataGenerator generator = new SyntheticDataGenerator(42);
+
+        List<Beer> whole = generator.beers(0, 200);
+        List<Beer> split = new ArrayList<>(generator.beers(0, 100));
+        split.addAll(new SyntheticDataGenerator(42).beers(100, 100));
+
+        assertThat(split).isEqualTo(whole);
+        assertThat(new SyntheticDataGenerator(7).beers(0, 200)).isNotEqualTo(whole);
+        assertThat(generator.customers(0, 50)).isEqualTo(generator.customers(0, 50));
+    }
+
+    @Test
+    void testBeerDistributions() {
+        List<Beer> beers = new SyntheticDataGenerator(42).beers(0, 10_000);
+
+        Map<String, Long> styleCounts = beers.stream()
+                .collect(Collectors.groupingBy(Beer::getBeerStyle, Collectors.counting()));
+        assertThat(styleCounts.get("IPA")).isGreaterThan(styleCounts.get("Barleywine") * 5);
+
+        assertThat(beers).allSatisfy(beer -> {
+            assertThat(beer.getPrice()).isBetween(new BigDecimal("6.99"), new BigDecimal("34.99"));
+            assertThat(beer.getQuantityOnHand()).isNotNegative();
+            assertThat(beer.getBeerName()).isNotBlank();
+            assertThat(beer.getUpc()).hasSize(12);
+        });
+        assertThat(beers.stream().map(beer -> beer.getBeerName().split(" ").length).distinct())
+                .contains(1, 2, 3, 4);
+        assertThat(beers.stream().map(Beer::getBeerName).distinct().count()).isGreaterThan(1000);
+    }
+}
@@ -0,0 +1,118 @@
+package guru.springframework.reactivemongo.cache;
+
+import guru.springframework.reactivemongo.config.EntityCacheProperties;
+import guru.springframework.reactivemongo.domain.Beer;
+import guru.springframework.reactivemongo.domain.Customer;
+import guru.springframework.reactivemongo.model.BeerDTO;
+import guru.springframework.reactivemongo.model.ChangeEventDTO;
+import guru.springframework.reactivemongo.model.CustomerDTO;
+import guru.springframework.reactivemongo.services.ChangeFeedService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.Mockito.mock;
+
+class CacheInvalidationListenerTest {
+
+    private final EntityCacheProperties properties = new EntityCacheProperties(100, Duration.ofMinutes(10), true,
+            Duration.ofMillis(10), Duration.ofMillis(50));
+    private final EntityCache<Beer> beerCache = new EntityCache<>("beer", properties, new SimpleMeterRegistry());
+    private final EntityCache<Customer> customerCache = new EntityCache<>("customer", properties, new SimpleMeterRegistry());
+    private final FailingChangeFeedService changeFeedService = new FailingChangeFeedService();
+    private final CacheInvalidationListener listener = new CacheInvalidationListener(changeFeedService, properties,
+            beerCache, customerCache);
+
+    @AfterEach
+    void tearDown() {
+        listener.destroy();
+    }
+
+    @Test
+    void testReconnectsAfterTheLastTokenAndClearsTheCache() {
+        cache("beer-1", "beer-2", "beer-3");
+        listener.onApplicationEvent(mock(ApplicationReadyEvent.class));
+
+        changeFeedService.beerChanges.tryEmitNext(change("beer-1", "token-1"));
+        await().until(() -> cached("beer-1") == null);
+        assertThat(cached("beer-2")).isNotNull();
+
+        Sinks.Many<ChangeEventDTO<BeerDTO>> failed = changeFeedService.beerChanges;
+        changeFeedService.beerChanges = Sinks.many().multicast().onBackpressureBuffer();
+        failed.tryEmitError(new IllegalStateException("primary stepped down"));
+
+        await().until(() -> changeFeedService.beerResumeTokens.size() == 2);
+        assertThat(changeFeedService.beerResumeTokens).containsExactly(null, "token-1");
+        assertThat(cached("beer-2")).isNull();
+        assertThat(cached("beer-3")).isNull();
+
+        cache("beer-4");
+        changeFeedService.beerChanges.tryEmitNext(change("beer-4", "token-2"));
+        await().until(() -> cached("beer-4") == null);
+    }
+
+    @Test
+    void testRepeatedFailuresStartOverFromLiveChanges() {
+        listener.onApplicationEvent(mock(ApplicationReadyEvent.class));
+        changeFeedService.beerChanges.tryEmitNext(change("beer-1", "token-1"));
+        await().until(() -> changeFeedService.beerResumeTokens.size() == 1);
+
+        changeFeedService.failResumes = true;
+        Sinks.Many<ChangeEventDTO<BeerDTO>> failed = changeFeedService.beerChanges;
+        changeFeedService.beerChanges = Sinks.many().multicast().onBackpressureBuffer();
+        failed.tryEmitError(new IllegalStateException("connection reset"));
+
+        await().until(() -> changeFeedService.beerResumeTokens.size() >= 3);
+        assertThat(changeFeedService.beerResumeTokens).startsWith(null, "token-1", null);
+    }
+
+    private void cache(String... ids) {
+        for (String id : ids) {
+            beerCache.get(id, key -> Mono.just(Beer.builder().id(key).build())).block();
+        }
+    }
+
+    private Beer cached(String id) {
+        return beerCache.getIfPresent(id).block();
+    }
+
+    private static ChangeEventDTO<BeerDTO> change(String id, String resumeToken) {
+        return ChangeEventDTO.<BeerDTO>builder().operation("update").id(id).resumeToken(resumeToken).build();
+    }
+
+    /**
+     * Serves the beer feed from a sink the test can fail and replace, and records the resume
+     * token of every subscription.
+     */
+    static class FailingChangeFeedService implements ChangeFeedService {
+        volatile Sinks.Many<ChangeEventDTO<BeerDTO>> beerChanges = Sinks.many().multicast().onBackpressureBuffer();
+        volatile boolean failResumes;
+        final List<String> beerResumeTokens = new CopyOnWriteArrayList<>();
+
+        @Override
+        public Flux<ChangeEventDTO<BeerDTO>> beerChanges(String resumeToken) {
+            return Flux.defer(() -> {
+                beerResumeTokens.add(resumeToken);
+                if (failResumes && resumeToken != null) {
+                    return Flux.error(new IllegalStateException("resume point no longer in the oplog"));
+                }
+                return beerChanges.asFlux();
+            });
+        }
+
+        @Override
+        public Flux<ChangeEventDTO<CustomerDTO>> customerChanges(String resumeToken) {
+            return Flux.never();
+        }
+    }
+}
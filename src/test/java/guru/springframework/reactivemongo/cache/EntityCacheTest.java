@@ -0,0 +1,97 @@
+package guru.springframework.reactivemongo.cache;
+
+import guru.springframework.reactivemongo.config.EntityCacheProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.function.Tuple2;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EntityCacheTest {
+
+    SimpleMeterRegistry meterRegistry;
+    EntityCache<String> cache;
+    AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new EntityCache<>("test", new EntityCacheProperties(100, Duration.ofMinutes(1), false,
+                Duration.ofSeconds(1), Duration.ofMinutes(1)), meterRegistry);
+        loads = new AtomicInteger();
+    }
+
+    Mono<String> load(String id) {
+        loads.incrementAndGet();
+        return id.equals("missing") ? Mono.empty() : Mono.just("value-" + id);
+    }
+
+    @Test
+    void testLoadsOnceAndServesHits() {
+        assertThat(cache.get("1", this::load).block()).isEqualTo("value-1");
+        assertThat(cache.get("1", this::load).block()).isEqualTo("value-1");
+
+        assertThat(loads).hasValue(1);
+        assertThat(meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void testEmptyLoadIsNotCached() {
+        assertThat(cache.get("missing", this::load).block()).isNull();
+        assertThat(cache.get("missing", this::load).block()).isNull();
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void testInvalidateForcesReload() {
+        cache.get("1", this::load).block();
+        cache.invalidate("1");
+        cache.get("1", this::load).block();
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void testGetAllLoadsOnlyMissesAndSkipsMissingIds() {
+        cache.get("1", this::load).block();
+
+        Map<String, String> values = cache.getAll(List.of("1", "2", "missing"), ids -> {
+            loads.addAndGet(ids.size());
+            assertThat(ids).containsExactlyInAnyOrder("2", "missing");
+            return Mono.just(Map.of("2", "value-2"));
+        }).block();
+
+        assertThat(values).containsOnlyKeys("1", "2");
+        assertThat(cache.getIfPresent("missing").block()).isNull();
+        assertThat(loads).hasValue(3);
+    }
+
+    @Test
+    void testGetAllJoinsLoadsInFlight() {
+        Sinks.One<Map<String, String>> pending = Sinks.one();
+        Mono<Map<String, String>> first = cache.getAll(List.of("1", "2"), ids -> {
+            loads.incrementAndGet();
+            return pending.asMono();
+        });
+        Mono<Map<String, String>> second = cache.getAll(List.of("2"), ids -> {
+            loads.incrementAndGet();
+            return Mono.just(Map.of("2", "other"));
+        });
+
+        Mono<Tuple2<Map<String, String>, Map<String, String>>> both = Mono.zip(first, second).cache();
+        both.subscribe();
+        pending.tryEmitValue(Map.of("1", "value-1", "2", "value-2"));
+
+        assertThat(both.block().getT2()).containsEntry("2", "value-2");
+        assertThat(loads).hasValue(1);
+    }
+}
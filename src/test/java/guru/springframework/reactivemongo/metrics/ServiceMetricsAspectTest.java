@@ -0,0 +1,57 @@
+package guru.springframework.reactivemongo.metrics;
+
+import guru.springframework.reactivemongo.model.BeerDTO;
+import guru.springframework.reactivemongo.services.BeerService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ServiceMetricsAspectTest {
+
+    SimpleMeterRegistry meterRegistry;
+    BeerService beerService;
+    BeerService target;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        target = mock(BeerService.class);
+
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(target);
+        proxyFactory.addAspect(new ServiceMetricsAspect(meterRegistry));
+        beerService = proxyFactory.getProxy();
+    }
+
+    @Test
+    void testTimesOnSubscriptionNotAssembly() {
+        when(target.getBeers()).thenReturn(Flux.just(new BeerDTO(), new BeerDTO()));
+
+        Flux<BeerDTO> beers = beerService.getBeers();
+        assertThat(meterRegistry.find(ServiceMetricsAspect.METRIC_NAME).timer()).isNull();
+
+        assertThat(beers.collectList().block()).hasSize(2);
+        assertThat(meterRegistry.get(ServiceMetricsAspect.METRIC_NAME)
+                .tag("method", "getBeers")
+                .tag("outcome", "success")
+                .timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void testTagsErrors() {
+        when(target.getBeerById("1")).thenReturn(Mono.error(new IllegalStateException("boom")));
+
+        assertThatThrownBy(() -> beerService.getBeerById("1").block()).isInstanceOf(IllegalStateException.class);
+        assertThat(meterRegistry.get(ServiceMetricsAspect.METRIC_NAME)
+                .tag("method", "getBeerById")
+                .tag("outcome", "error")
+                .timer().count()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,44 @@
+package guru.springframework.reactivemongo.repositories;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BeerRepositoryCustomImplTest {
+
+    @Test
+    void testPrefixUpperBoundIncrementsTheLastCodePoint() {
+        assertThat(BeerRepositoryCustomImpl.prefixUpperBound("Gal")).isEqualTo("Gam");
+        assertThat(BeerRepositoryCustomImpl.prefixUpperBound("Ale\uD83C\uDF7A")).isEqualTo("Ale\uD83C\uDF7B");
+        assertThat(BeerRepositoryCustomImpl.prefixUpperBound("Ale\uD7FF")).isEqualTo("Ale\uE000");
+    }
+
+    @Test
+    void testPrefixUpperBoundSkipsTheMaxCodePoint() {
+        String maxCodePoint = Character.toString(Character.MAX_CODE_POINT);
+
+        assertThat(BeerRepositoryCustomImpl.prefixUpperBound("Ale" + maxCodePoint)).isEqualTo("Alf");
+        assertThat(BeerRepositoryCustomImpl.prefixUpperBound(maxCodePoint)).isNull();
+    }
+
+    @Test
+    void testPrefixUpperBoundIsAboveNamesContinuingWithSupplementaryCharacters() {
+        String prefix = "Stout ";
+        String upperBound = BeerRepositoryCustomImpl.prefixUpperBound(prefix);
+
+        // Mongo compares strings by their UTF-8 bytes
+        String[] beerNames = {"Stout \uFFFF", "Stout \uD83C\uDF7A", "Stout " + Character.toString(Character.MAX_CODE_POINT)};
+        for (String beerName : beerNames) {
+            assertThat(compareUtf8(prefix, beerName)).isNegative();
+            assertThat(compareUtf8(beerName, upperBound)).isNegative();
+        }
+        assertThat(compareUtf8("Stouter", upperBound)).isPositive();
+    }
+
+    private static int compareUtf8(String left, String right) {
+        return Arrays.compareUnsigned(left.getBytes(StandardCharsets.UTF_8), right.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,59 @@
+package guru.springframework.reactivemongo.repositories;
+
+import guru.springframework.reactivemongo.model.BeerStatsDTO;
+import org.bson.Document;
+import org.bson.types.Decimal128;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Testcontainers
+@SpringBootTest
+class BeerRepositoryStatsTest {
+
+    @Container
+    @ServiceConnection
+    static MongoDBContainer mongoDBContainer = new MongoDBContainer("mongo:latest");
+
+    @Autowired
+    BeerRepository beerRepository;
+
+    @Autowired
+    ReactiveMongoTemplate mongoTemplate;
+
+    @Test
+    void testStatsOverMixedPrices() {
+        String beerStyle = "Legacy Lager";
+        mongoTemplate.insert(List.of(
+                new Document("beerName", "Decimal").append("beerStyle", beerStyle)
+                        .append("price", new Decimal128(new BigDecimal("10.00"))).append("quantityOnHand", 2),
+                new Document("beerName", "Numeric String").append("beerStyle", beerStyle)
+                        .append("price", "14.00").append("quantityOnHand", 1),
+                new Document("beerName", "Not A Number").append("beerStyle", beerStyle)
+                        .append("price", "n/a").append("quantityOnHand", 5),
+                new Document("beerName", "No Price").append("beerStyle", beerStyle)
+                        .append("quantityOnHand", 3)), "beer").blockLast();
+
+        BeerStatsDTO stats = beerRepository.aggregateStats(true)
+                .filter(dto -> beerStyle.equals(dto.getBeerStyle()))
+                .blockFirst();
+
+        assertThat(stats).isNotNull();
+        assertThat(stats.getCount()).isEqualTo(4);
+        assertThat(stats.getMinPrice()).isEqualByComparingTo("10.00");
+        assertThat(stats.getMaxPrice()).isEqualByComparingTo("14.00");
+        assertThat(stats.getAveragePrice()).isEqualByComparingTo("12.00");
+        assertThat(stats.getTotalQuantityOnHand()).isEqualTo(11);
+        assertThat(stats.getInventoryValue()).isEqualByComparingTo("34.00");
+    }
+}
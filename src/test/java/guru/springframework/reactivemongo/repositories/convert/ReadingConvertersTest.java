@@ -0,0 +1,109 @@
+package guru.springframework.reactivemongo.repositories.convert;
+
+import guru.springframework.reactivemongo.domain.Beer;
+import guru.springframework.reactivemongo.domain.Customer;
+import org.bson.Document;
+import org.bson.types.Decimal128;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReadingConvertersTest {
+
+    private final MappingMongoConverter mappingConverter = mappingConverter();
+
+    private static MappingMongoConverter mappingConverter() {
+        MongoCustomConversions conversions = new MongoCustomConversions(List.of());
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        return converter;
+    }
+
+    @Test
+    void testBeerReadsLikeTheMapping() {
+        Beer beer = Beer.builder()
+                .id(ObjectId.get().toHexString())
+                .beerName("Galaxy Cat")
+                .beerStyle("Pale Ale")
+                .upc("12356")
+                .quantityOnHand(122)
+                .price(new BigDecimal("1234567890123456789012345.678900000"))
+                .createdDate(LocalDateTime.of(2024, 3, 1, 12, 30, 15, 123_000_000))
+                .lastModifiedDate(LocalDateTime.of(2024, 3, 2, 8, 0))
+                .version(7L)
+                .build();
+
+        Document document = new Document();
+        mappingConverter.write(beer, document);
+
+        assertThat(document.get("_id")).isInstanceOf(ObjectId.class);
+        assertThat(document.get("price")).isInstanceOf(Decimal128.class);
+        Beer read = new BeerReadingConverter().convert(document);
+        assertThat(read).isEqualTo(mappingConverter.read(Beer.class, document)).isEqualTo(beer);
+        assertThat(read.getPrice().scale()).isEqualTo(9);
+    }
+
+    @Test
+    void testProjectedBeerLeavesMissingFieldsNull() {
+        Document document = new Document("_id", "not-an-object-id")
+                .append("beerName", "Crank")
+                .append("price", "10.50");
+
+        Beer read = new BeerReadingConverter().convert(document);
+
+        assertThat(read).isEqualTo(mappingConverter.read(Beer.class, document));
+        assertThat(read.getPrice()).isEqualTo(new BigDecimal("10.50"));
+        assertThat(read.getBeerStyle()).isNull();
+        assertThat(read.getVersion()).isNull();
+    }
+
+    @Test
+    void testMistypedFieldsReadLikeTheMapping() {
+        Document document = new Document("_id", ObjectId.get())
+                .append("beerName", 42)
+                .append("upc", 123456789012L)
+                .append("quantityOnHand", "17")
+                .append("price", 9.5)
+                .append("version", 3);
+
+        Beer read = new BeerReadingConverter().convert(document);
+
+        assertThat(read).isEqualTo(mappingConverter.read(Beer.class, document));
+        assertThat(read.getBeerName()).isEqualTo("42");
+        assertThat(read.getUpc()).isEqualTo("123456789012");
+        assertThat(read.getQuantityOnHand()).isEqualTo(17);
+        assertThat(read.getPrice()).isEqualTo(new BigDecimal("9.5"));
+        assertThat(read.getVersion()).isEqualTo(3L);
+    }
+
+    @Test
+    void testCustomerReadsLikeTheMapping() {
+        Customer customer = Customer.builder()
+                .id(ObjectId.get().toHexString())
+                .customerName("Jürgen")
+                .createdDate(LocalDateTime.of(2024, 3, 1, 12, 30))
+                .lastModifiedDate(LocalDateTime.of(2024, 3, 2, 8, 0))
+                .version(3L)
+                .build();
+
+        Document document = new Document();
+        mappingConverter.write(customer, document);
+
+        assertThat(new CustomerReadingConverter().convert(document))
+                .isEqualTo(mappingConverter.read(Customer.class, document))
+                .isEqualTo(customer);
+    }
+}
@@ -0,0 +1,74 @@
+package guru.springframework.reactivemongo.repositories.inmemory;
+
+import guru.springframework.reactivemongo.config.InMemoryProperties;
+import guru.springframework.reactivemongo.domain.Beer;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InMemoryBeerRepositoryTest {
+
+    private final InMemoryProperties inMemoryProperties = new InMemoryProperties(Duration.ZERO, Duration.ZERO);
+
+    @Test
+    void testBulkSaveReportsFailedBeersByIndex() {
+        InMemoryBeerRepository beerRepository = new InMemoryBeerRepository(inMemoryProperties) {
+            @Override
+            protected void upsert(Beer beer) {
+                if ("rejected".equals(beer.getId())) {
+                    throw new DuplicateKeyException("Duplicate key: " + beer.getId());
+                }
+                super.upsert(beer);
+            }
+        };
+        Beer rejected = beer("Rejected Lager");
+        rejected.setId("rejected");
+        Beer upserted = beer("Upserted Lager");
+        upserted.setId("upserted");
+
+        StepVerifier.create(beerRepository.bulkSave(List.of(beer("First Lager"), rejected, upserted, beer("Last Lager"))))
+                .assertNext(errorsByIndex -> assertThat(errorsByIndex)
+                        .containsOnlyKeys(1)
+                        .containsEntry(1, "Duplicate key: rejected"))
+                .verifyComplete();
+
+        StepVerifier.create(beerRepository.findAll().map(Beer::getBeerName).collectList())
+                .assertNext(names -> assertThat(names)
+                        .containsExactlyInAnyOrder("First Lager", "Upserted Lager", "Last Lager"))
+                .verifyComplete();
+    }
+
+    @Test
+    void testBulkSaveInsertsAndUpserts() {
+        InMemoryBeerRepository beerRepository = new InMemoryBeerRepository(inMemoryProperties);
+        Beer inserted = beer("Inserted Lager");
+        Beer upserted = beer("Upserted Lager");
+        upserted.setId("upserted");
+
+        StepVerifier.create(beerRepository.bulkSave(List.of(inserted, upserted)))
+                .assertNext(errorsByIndex -> assertThat(errorsByIndex).isEmpty())
+                .verifyComplete();
+        StepVerifier.create(beerRepository.bulkSave(List.of(upserted)))
+                .assertNext(errorsByIndex -> assertThat(errorsByIndex).isEmpty())
+                .verifyComplete();
+
+        assertThat(inserted.getId()).isNotNull();
+        assertThat(beerRepository.findById(inserted.getId()).block().getVersion()).isZero();
+        assertThat(beerRepository.findById("upserted").block().getVersion()).isEqualTo(1);
+    }
+
+    private static Beer beer(String beerName) {
+        return Beer.builder()
+                .beerName(beerName)
+                .beerStyle("Lager")
+                .price(new BigDecimal("7.25"))
+                .quantityOnHand(24)
+                .build();
+    }
+}
@@ -0,0 +1,100 @@
+package guru.springframework.reactivemongo.repositories.inmemory;
+
+import guru.springframework.reactivemongo.config.ChangeFeedProperties;
+import guru.springframework.reactivemongo.config.InMemoryProperties;
+import guru.springframework.reactivemongo.domain.Beer;
+import guru.springframework.reactivemongo.domain.Customer;
+import guru.springframework.reactivemongo.mappers.BeerMapperImpl;
+import guru.springframework.reactivemongo.mappers.CustomerMapperImpl;
+import guru.springframework.reactivemongo.model.BeerDTO;
+import guru.springframework.reactivemongo.model.ChangeEventDTO;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.Exceptions;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InMemoryChangeFeedServiceTest {
+
+    private final InMemoryProperties inMemoryProperties = new InMemoryProperties(Duration.ZERO, Duration.ZERO);
+    private final InMemoryBeerRepository beerRepository = new InMemoryBeerRepository(inMemoryProperties);
+    private final InMemoryCustomerRepository customerRepository = new InMemoryCustomerRepository(inMemoryProperties);
+    private final InMemoryChangeFeedService changeFeedService = new InMemoryChangeFeedService(beerRepository,
+            customerRepository, new BeerMapperImpl(), new CustomerMapperImpl(),
+            new ChangeFeedProperties(2, Duration.ofSeconds(15)));
+
+    @Test
+    void testWritesAreEmittedInOrder() {
+        StepVerifier.create(changeFeedService.beerChanges(null))
+                .then(() -> {
+                    Beer saved = beerRepository.save(beer("Feed Lager")).block();
+                    beerRepository.deleteById(saved.getId()).block();
+                })
+                .assertNext(change -> {
+                    assertThat(change.getOperation()).isEqualTo("insert");
+                    assertThat(change.getDocument().getBeerName()).isEqualTo("Feed Lager");
+                    assertThat(change.getId()).isEqualTo(change.getDocument().getId());
+                })
+                .assertNext(change -> {
+                    assertThat(change.getOperation()).isEqualTo("delete");
+                    assertThat(change.getDocument()).isNull();
+                    assertThat(Long.parseLong(change.getResumeToken())).isPositive();
+                })
+                .thenCancel()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void testResumeTokenSkipsChangesUpToIt() {
+        StepVerifier.create(changeFeedService.customerChanges(String.valueOf(Long.MAX_VALUE - 1)))
+                .then(() -> customerRepository.save(Customer.builder().customerName("Dora").build()).block())
+                .expectNoEvent(Duration.ofMillis(200))
+                .thenCancel()
+                .verify(Duration.ofSeconds(5));
+
+        StepVerifier.create(changeFeedService.customerChanges("not-a-sequence"))
+                .then(() -> customerRepository.save(Customer.builder().customerName("Emil").build()).block())
+                .assertNext(change -> assertThat(change.getDocument().getCustomerName()).isEqualTo("Emil"))
+                .thenCancel()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void testSlowSubscriberOverflowsAlone() {
+        List<ChangeEventDTO<BeerDTO>> received = new CopyOnWriteArrayList<>();
+        Disposable fast = changeFeedService.beerChanges(null).subscribe(received::add);
+
+        StepVerifier.create(changeFeedService.beerChanges(null), 0)
+                .then(() -> {
+                    for (int i = 0; i < 10; i++) {
+                        beerRepository.save(beer("Flood " + i)).block();
+                    }
+                })
+                // what was buffered before the overflow is still delivered, then the stream fails
+                .thenRequest(Long.MAX_VALUE)
+                .expectNextCount(2)
+                .expectErrorMatches(Exceptions::isOverflow)
+                .verify(Duration.ofSeconds(5));
+
+        assertThat(received).extracting(change -> change.getDocument().getBeerName())
+                .hasSize(10)
+                .startsWith("Flood 0", "Flood 1", "Flood 2");
+        fast.dispose();
+    }
+
+    private static Beer beer(String beerName) {
+        return Beer.builder()
+                .beerName(beerName)
+                .beerStyle("Lager")
+                .upc("334455")
+                .price(new BigDecimal("7.25"))
+                .quantityOnHand(4)
+                .build();
+    }
+}
@@ -0,0 +1,402 @@
+package guru.springframework.reactivemongo.repositories.inmemory;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import guru.springframework.reactivemongo.model.BeerDTO;
+import guru.springframework.reactivemongo.repositories.BeerRepository;
+import guru.springframework.reactivemongo.web.fn.BeerRouterConfig;
+import guru.springframework.reactivemongo.web.fn.CustomerRouterConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.reactive.server.SecurityMockServerConfigurers.mockOAuth2Login;
+
+@ActiveProfiles("inmemory")
+@SpringBootTest(properties = {"app.in-memory.latency=0ms", "app.in-memory.jitter=0ms"})
+@AutoConfigureWebTestClient
+class InMemoryProfileTest {
+
+    @Autowired
+    WebTestClient webTestClient;
+
+    @Autowired
+    BeerRepository beerRepository;
+
+    @Test
+    void testRepositoryIsInMemory() {
+        assertThat(beerRepository).isInstanceOf(InMemoryBeerRepository.class);
+    }
+
+    @Test
+    void testCreateAndUpdateBeer() {
+        BeerDTO newBeer = BeerDTO.builder()
+                .beerName("Zephyr Lager")
+                .beerStyle("Lager")
+                .upc("123123")
+                .price(new BigDecimal("9.99"))
+                .quantityOnHand(10)
+                .build();
+
+        webTestClient.mutateWith(mockOAuth2Login())
+                .post().uri(BeerRouterConfig.BEERS_PATH)
+                .bodyValue(newBeer)
+                .exchange()
+                .expectStatus().isCreated();
+
+        BeerDTO beerDTO = webTestClient.mutateWith(mockOAuth2Login())
+                .get().uri(UriComponentsBuilder.fromPath(BeerRouterConfig.BEERS_SEARCH_PATH)
+                        .queryParam("q", "Zephyr")
+                        .queryParam("mode", "prefix")
+                        .queryParam("fields", "beerName,price")
+                        .build().toUri())
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(BeerDTO.class).getResponseBody().blockFirst();
+
+        assertThat(beerDTO.getPrice()).isEqualByComparingTo("9.99");
+
+        String eTag = webTestClient.mutateWith(mockOAuth2Login())
+                .get().uri(BeerRouterConfig.BEERS_PATH_ID, beerDTO.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.version").isEqualTo(0)
+                .returnResult().getResponseHeaders().getETag();
+
+        webTestClient.mutateWith(mockOAuth2Login())
+                .put().uri(BeerRouterConfig.BEERS_PATH_ID, beerDTO.getId())
+                .header(HttpHeaders.IF_MATCH, eTag)
+                .bodyValue(newBeer)
+                .exchange()
+                .expectStatus().isNoContent();
+
+        webTestClient.mutateWith(mockOAuth2Login())
+                .put().uri(BeerRouterConfig.BEERS_PATH_ID, beerDTO.getId())
+                .header(HttpHeaders.IF_MATCH, eTag)
+                .bodyValue(newBeer)
+                .exchange()
+                .expectStatus().isEqualTo(412);
+    }
+
+    @Test
+    void testListCustomersIgnoreCase() {
+        webTestClient.mutateWith(mockOAuth2Login())
+                .get().uri(UriComponentsBuilder.fromPath(CustomerRouterConfig.CUSTOMER_PATH)
+                        .queryParam("customerName", "BOB")
+                        .queryParam("match", "ignoreCase")
+                        .build().toUri())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.size()").isEqualTo(1);
+    }
+
+    @Test
+    void testListCustomersPagedByName() {
+        webTestClient.mutateWith(mockOAuth2Login())
+                .get().uri(UriComponentsBuilder.fromPath(CustomerRouterConfig.CUSTOMER_PATH)
+                        .queryParam("customerName", "Bob")
+                        .queryParam("limit", 10)
+                        .build().toUri())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.size()").isEqualTo(1);
+
+        webTestClient.mutateWith(mockOAuth2Login())
+                .get().uri(UriComponentsBuilder.fromPath(CustomerRouterConfig.CUSTOMER_PATH)
+                        .queryParam("customerName", "CH")
+                        .queryParam("match", "prefix")
+                        .queryParam("limit", 10)
+                        .build().toUri())
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().doesNotExist("X-Next-Cursor")
+                .expectBody()
+                .jsonPath("$.size()").isEqualTo(1)
+                .jsonPath("$[0].customerName").isEqualTo("Charlie");
+    }
+
+    @Test
+    void testPageETagFollowsThePageDocuments() {
+        URI firstPage = UriComponentsBuilder.fromPath(BeerRouterConfig.BEERS_PATH)
+                .queryParam("limit", 1)
+                .build().toUri();
+        var result = webTestClient.mutateWith(mockOAuth2Login())
+                .get().uri(firstPage)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(BeerDTO.class);
+        String eTag = result.getResponseHeaders().getETag();
+        BeerDTO beerDTO = result.getResponseBody().blockFirst();
+        assertThat(eTag).startsWith("W/");
+
+        webTestClient.mutateWith(mockOAuth2Login())
+                .get().uri(firstPage)
+                .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                .exchange()
+                .expectStatus().isNotModified();
+
+        beerDTO.setQuantityOnHand(beerDTO.getQuantityOnHand() + 1);
+        webTestClient.mutateWith(mockOAuth2Login())
+                .put().uri(BeerRouterConfig.BEERS_PATH_ID, beerDTO.getId())
+                .bodyValue(beerDTO)
+                .exchange()
+                .expectStatus().isNoContent();
+
+        webTestClient.mutateWith(mockOAuth2Login())
+                .get().uri(firstPage)
+                .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().value(HttpHeaders.ETAG, newETag -> assertThat(newETag).isNotEqualTo(eTag));
+    }
+
+    @Test
+    void testGetBeersByIds() {
+        BeerDTO beerDTO = webTestClient.mutateWith(mockOAuth2Login())
+                .get().uri(UriComponentsBuilder.fromPath(BeerRouterConfig.BEERS_PATH)
+                        .queryParam("limit", 1)
+                        .build().toUri())
+                .exchange()
+                .returnResult(BeerDTO.class).getResponseBody().blockFirst();
+
+        webTestClient.mutateWith(mockOAuth2Login())
+                .post().uri(BeerRouterConfig.BEERS_LOOKUP_PATH)
+                .bodyValue(List.of("999", beerDTO.getId()))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[0].found").isEqualTo(false)
+                .jsonPath("$[1].document.beerName").isEqualTo(beerDTO.getBeerName());
+    }
+
+    @Test
+    void testGetBeerByIdCbor() throws IOException {
+        BeerDTO beerDTO = webTestClient.mutateWith(mockOAuth2Login())
+                .get().uri(UriComponentsBuilder.fromPath(BeerRouterConfig.BEERS_PATH)
+                        .queryParam("limit", 1)
+                        .build().toUri())
+                .exchange()
+                .returnResult(BeerDTO.class).getResponseBody().blockFirst();
+
+        byte[] body = webTestClient.mutateWith(mockOAuth2Login())
+                .get().uri(BeerRouterConfig.BEERS_PATH_ID, beerDTO.getId())
+                .accept(MediaType.APPLICATION_CBOR)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_CBOR)
+                .expectHeader().valueMatches(HttpHeaders.ETAG, "\"\\d+-cbor\"")
+                .expectBody().returnResult().getResponseBody();
+
+        ObjectMapper cborMapper = Jackson2ObjectMapperBuilder.json().factory(new CBORFactory()).build();
+        assertThat(cborMapper.readValue(body, BeerDTO.class).getBeerName()).isEqualTo(beerDTO.getBeerName());
+    }
+
+    @Test
+    void testConditionalUpdateCbor() {
+        BeerDTO newBeer = BeerDTO.builder()
+                .beerName("Binary Porter")
+                .beerStyle("Porter")
+                .upc("456456")
+                .price(new BigDecimal("11.50"))
+                .quantityOnHand(5)
+                .build();
+
+        URI location = webTestClient.mutateWith(mockOAuth2Login())
+                .post().uri(BeerRouterConfig.BEERS_PATH)
+                .bodyValue(newBeer)
+                .exchange()
+                .expectStatus().isCreated()
+                .returnResult(Void.class).getResponseHeaders().getLocation();
+
+        String eTag = webTestClient.mutateWith(mockOAuth2Login())
+                .get().uri(location)
+                .accept(MediaType.APPLICATION_CBOR)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(Void.class).getResponseHeaders().getETag();
+        assertThat(eTag).isEqualTo("\"0-cbor\"");
+
+        String updatedETag = webTestClient.mutateWith(mockOAuth2Login())
+                .put().uri(location)
+                .accept(MediaType.APPLICATION_CBOR)
+                .contentType(MediaType.APPLICATION_CBOR)
+                .header(HttpHeaders.IF_MATCH, eTag)
+                .bodyValue(newBeer)
+                .exchange()
+                .expectStatus().isNoContent()
+                .returnResult(Void.class).getResponseHeaders().getETag();
+        assertThat(updatedETag).isEqualTo("\"1-cbor\"");
+
+        webTestClient.mutateWith(mockOAuth2Login())
+                .get().uri(location)
+                .accept(MediaType.APPLICATION_CBOR)
+                .header(HttpHeaders.IF_NONE_MATCH, updatedETag)
+                .exchange()
+                .expectStatus().isNotModified();
+
+        webTestClient.mutateWith(mockOAuth2Login())
+                .put().uri(location)
+                .accept(MediaType.APPLICATION_CBOR)
+                .contentType(MediaType.APPLICATION_CBOR)
+                .header(HttpHeaders.IF_MATCH, eTag)
+                .bodyValue(newBeer)
+                .exchange()
+                .expectStatus().isEqualTo(412);
+    }
+
+    @Test
+    void testNullFieldsAreOnlyLeftOutOfProjections() throws IOException {
+        URI location = webTestClient.mutateWith(mockOAuth2Login())
+                .post().uri(BeerRouterConfig.BEERS_PATH)
+                .bodyValue(BeerDTO.builder().beerName("Plain Mild").beerStyle("Mild").build())
+                .exchange()
+                .expectStatus().isCreated()
+                .returnResult(Void.class).getResponseHeaders().getLocation();
+
+        String document = webTestClient.mutateWith(mockOAuth2Login())
+                .get().uri(location)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).returnResult().getResponseBody();
+        assertThat(document).contains("\"upc\":null", "\"price\":null");
+
+        webTestClient.mutateWith(mockOAuth2Login())
+                .get().uri(UriComponentsBuilder.fromUri(location).queryParam("fields", "beerName").build().toUri())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.beerName").isEqualTo("Plain Mild")
+                .jsonPath("$.beerStyle").doesNotExist()
+                .jsonPath("$.upc").doesNotExist();
+
+        byte[] projection = webTestClient.mutateWith(mockOAuth2Login())
+                .get().uri(UriComponentsBuilder.fromUri(location).queryParam("fields", "beerName").build().toUri())
+                .accept(MediaType.APPLICATION_CBOR)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().returnResult().getResponseBody();
+        ObjectMapper cborMapper = Jackson2ObjectMapperBuilder.json().factory(new CBORFactory()).build();
+        assertThat(cborMapper.readValue(projection, Map.class)).containsOnlyKeys("id", "beerName");
+    }
+
+    @Test
+    void testListBeersSmile() throws IOException {
+        byte[] body = webTestClient.mutateWith(mockOAuth2Login())
+                .get().uri(UriComponentsBuilder.fromPath(BeerRouterConfig.BEERS_PATH)
+                        .queryParam("limit", 2)
+                        .build().toUri())
+                .accept(MediaType.parseMediaType("application/x-jackson-smile"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType("application/x-jackson-smile")
+                .expectHeader().valueEquals(HttpHeaders.VARY, HttpHeaders.ACCEPT)
+                .expectBody().returnResult().getResponseBody();
+
+        ObjectMapper smileMapper = Jackson2ObjectMapperBuilder.json().factory(new SmileFactory()).build();
+        assertThat(smileMapper.readValue(body, BeerDTO[].class)).hasSize(2);
+    }
+
+    @Test
+    void testExportBeersGzipCsv() throws IOException {
+        byte[] body = webTestClient.mutateWith(mockOAuth2Login())
+                .get().uri(BeerRouterConfig.BEERS_EXPORT_PATH + "?format=csv")
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.CONTENT_ENCODING, "gzip")
+                .expectHeader().contentType("text/csv")
+                .expectBody().returnResult().getResponseBody();
+
+        String csv = new String(new GZIPInputStream(new ByteArrayInputStream(body)).readAllBytes(), StandardCharsets.UTF_8);
+        assertThat(csv).startsWith("id,beerName,beerStyle,");
+        assertThat(csv.lines().count()).isGreaterThan(1);
+    }
+
+    @Test
+    void testImportBeers() {
+        String body = """
+                {"beerName":"Import Pale","beerStyle":"Pale Ale","price":4.99}
+                {"beerName":"X","beerStyle":"Pale Ale"}
+                """;
+
+        webTestClient.mutateWith(mockOAuth2Login())
+                .post().uri(BeerRouterConfig.BEERS_IMPORT_PATH)
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .bodyValue(body)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.accepted").isEqualTo(1)
+                .jsonPath("$.rejected").isEqualTo(1)
+                .jsonPath("$.rejections[0].line").isEqualTo(2);
+    }
+
+    @Test
+    void testBulkRoutesOnTheBodyType() {
+        String body = """
+                {"beerName":"Bulk Bock","beerStyle":"Bock","price":6.49}
+                {"beerName":"","beerStyle":"Bock"}
+                """;
+
+        webTestClient.mutateWith(mockOAuth2Login())
+                .post().uri(BeerRouterConfig.BEERS_BULK_PATH)
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .bodyValue(body)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody()
+                .jsonPath("$.size()").isEqualTo(2)
+                .jsonPath("$[0].status").isEqualTo("CREATED")
+                .jsonPath("$[1].status").isEqualTo("INVALID");
+
+        webTestClient.mutateWith(mockOAuth2Login())
+                .post().uri(BeerRouterConfig.BEERS_BULK_PATH)
+                .contentType(MediaType.APPLICATION_CBOR)
+                .bodyValue(new byte[]{(byte) 0x80})
+                .exchange()
+                .expectStatus().isEqualTo(415);
+
+        webTestClient.mutateWith(mockOAuth2Login())
+                .post().uri(BeerRouterConfig.BEERS_BULK_PATH)
+                .contentType(MediaType.TEXT_PLAIN)
+                .bodyValue(body)
+                .exchange()
+                .expectStatus().isEqualTo(415);
+
+        webTestClient.mutateWith(mockOAuth2Login())
+                .post().uri(BeerRouterConfig.BEERS_IMPORT_PATH)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(body)
+                .exchange()
+                .expectStatus().isEqualTo(415);
+    }
+
+    @Test
+    void testBeerStats() {
+        webTestClient.mutateWith(mockOAuth2Login())
+                .get().uri(BeerRouterConfig.BEERS_STATS_PATH)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.count").isNumber();
+    }
+}
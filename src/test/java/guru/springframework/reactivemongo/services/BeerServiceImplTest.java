@@ -10,12 +10,15 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.testcontainers.containers.MongoDBContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.math.BigDecimal;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -131,6 +134,49 @@ public class BeerServiceImplTest {
         assertThat(beerRef.get().getBeerName()).isEqualTo(newName);
     }
 
+    @Test
+    void testModifyBeerRetriesConcurrentWrites() {
+        BeerDTO savedDto = getSavedBeerDto();
+        // each conflict means another writer's write went through, so with fewer writers
+        // than the 5 attempts every writer gets its turn
+        int writers = 4;
+
+        Flux.range(0, writers)
+                .flatMap(i -> beerService.modifyBeer(savedDto.getId(), BeerServiceImplTest::incrementQuantity))
+                .blockLast();
+
+        BeerDTO modified = beerService.getBeerById(savedDto.getId()).block();
+        // the test beer has no quantity on hand, which the modification reads as 0
+        assertThat(modified.getQuantityOnHand()).isEqualTo(writers);
+        assertThat(modified.getVersion()).isEqualTo(savedDto.getVersion() + writers);
+    }
+
+    @Test
+    void testModifyBeerGivesUpAfterMaxAttempts() {
+        BeerDTO savedDto = getSavedBeerDto();
+        int writers = 10;
+
+        List<Boolean> outcomes = Flux.range(0, writers)
+                .flatMap(i -> beerService.modifyBeer(savedDto.getId(), BeerServiceImplTest::incrementQuantity)
+                        .map(beerDTO -> true)
+                        .onErrorResume(OptimisticLockingFailureException.class, e -> Mono.just(false)))
+                .collectList()
+                .block();
+
+        long successes = outcomes.stream().filter(Boolean::booleanValue).count();
+        BeerDTO modified = beerService.getBeerById(savedDto.getId()).block();
+        assertThat(outcomes).hasSize(writers);
+        assertThat(successes).isPositive();
+        assertThat(modified.getQuantityOnHand()).isEqualTo((int) successes);
+        assertThat(modified.getVersion()).isEqualTo(savedDto.getVersion() + successes);
+    }
+
+    private static BeerDTO incrementQuantity(BeerDTO current) {
+        int quantityOnHand = current.getQuantityOnHand() == null ? 0 : current.getQuantityOnHand();
+        current.setQuantityOnHand(quantityOnHand + 1);
+        return current;
+    }
+
     @Test
     void testDeleteBeer() {
         BeerDTO savedDto = getSavedBeerDto();
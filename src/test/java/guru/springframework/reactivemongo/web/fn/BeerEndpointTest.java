@@ -2,6 +2,7 @@ package guru.springframework.reactivemongo.web.fn;
 
 import guru.springframework.reactivemongo.domain.Beer;
 import guru.springframework.reactivemongo.model.BeerDTO;
+import guru.springframework.reactivemongo.model.StockAdjustmentDTO;
 import guru.springframework.reactivemongo.services.BeerServiceImpl;
 import guru.springframework.reactivemongo.services.BeerServiceImplTest;
 import org.junit.jupiter.api.MethodOrderer;
@@ -13,6 +14,8 @@ import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWeb
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.test.web.reactive.server.FluxExchangeResult;
 import org.springframework.test.web.reactive.server.WebTestClient;
 import org.springframework.web.util.UriComponentsBuilder;
@@ -23,6 +26,7 @@ import reactor.core.publisher.Mono;
 
 import java.util.List;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.security.test.web.reactive.server.SecurityMockServerConfigurers.mockOAuth2Login;
 
 @Testcontainers
@@ -52,6 +56,47 @@ class BeerEndpointTest {
                 .expectBody().jsonPath("$.size()").isEqualTo(3);
     }
 
+    @Test
+    @Order(1)
+    void testListBeersPaged() {
+        String nextCursor = webTestClient.mutateWith(mockOAuth2Login())
+                .get().uri(UriComponentsBuilder
+                        .fromPath(BeerRouterConfig.BEERS_PATH)
+                        .queryParam("limit", 2)
+                        .build().toUri())
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().exists(PageCursor.NEXT_CURSOR_HEADER)
+                .expectBody().jsonPath("$.size()").isEqualTo(2)
+                .returnResult().getResponseHeaders().getFirst(PageCursor.NEXT_CURSOR_HEADER);
+
+        webTestClient.mutateWith(mockOAuth2Login())
+                .get().uri(UriComponentsBuilder
+                        .fromPath(BeerRouterConfig.BEERS_PATH)
+                        .queryParam("limit", 2)
+                        .queryParam("after", nextCursor)
+                        .build().toUri())
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().doesNotExist(PageCursor.NEXT_CURSOR_HEADER)
+                .expectBody().jsonPath("$.size()").isEqualTo(1);
+    }
+
+    @Test
+    @Order(1)
+    void testStreamBeersNdjson() {
+        List<BeerDTO> beers = webTestClient.mutateWith(mockOAuth2Login())
+                .get().uri(BeerRouterConfig.BEERS_PATH)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(BeerDTO.class)
+                .getResponseBody().collectList().block();
+
+        assertThat(beers).hasSize(3);
+    }
+
     @Test
     @Order(2)
     void testListBeersByStyle() {
@@ -91,6 +136,135 @@ class BeerEndpointTest {
                 .expectBody(BeerDTO.class);
     }
 
+    @Test
+    @Order(1)
+    void testGetBeerStats() {
+        webTestClient.mutateWith(mockOAuth2Login())
+                .get().uri(BeerRouterConfig.BEERS_STATS_PATH)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.count").isEqualTo(3);
+
+        webTestClient.mutateWith(mockOAuth2Login())
+                .get().uri(BeerRouterConfig.BEERS_STATS_PATH + "?groupBy=beerStyle")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$[0].beerStyle").exists();
+    }
+
+    @Test
+    @Order(2)
+    void testGetByIdNotModified() {
+        BeerDTO beerDTO = getSavedTestBeer();
+
+        String eTag = webTestClient
+                .mutateWith(mockOAuth2Login())
+                .get().uri(BeerRouterConfig.BEERS_PATH_ID, beerDTO.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().exists(HttpHeaders.ETAG)
+                .returnResult(BeerDTO.class).getResponseHeaders().getETag();
+
+        webTestClient
+                .mutateWith(mockOAuth2Login())
+                .get().uri(BeerRouterConfig.BEERS_PATH_ID, beerDTO.getId())
+                .ifNoneMatch(eTag)
+                .exchange()
+                .expectStatus().isNotModified();
+    }
+
+    @Test
+    @Order(2)
+    void testListBeersNotModified() {
+        String eTag = webTestClient.mutateWith(mockOAuth2Login())
+                .get().uri(BeerRouterConfig.BEERS_PATH)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(BeerDTO.class).getResponseHeaders().getETag();
+
+        assertThat(eTag).startsWith("W/");
+
+        webTestClient.mutateWith(mockOAuth2Login())
+                .get().uri(BeerRouterConfig.BEERS_PATH)
+                .ifNoneMatch(eTag)
+                .exchange()
+                .expectStatus().isNotModified();
+    }
+
+    @Test
+    @Order(2)
+    void testGetByIdWithFields() {
+        BeerDTO beerDTO = getSavedTestBeer();
+
+        webTestClient
+                .mutateWith(mockOAuth2Login())
+                .get().uri(UriComponentsBuilder
+                        .fromPath(BeerRouterConfig.BEERS_PATH_ID)
+                        .queryParam("fields", "beerName,quantityOnHand")
+                        .build(beerDTO.getId()))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.id").isEqualTo(beerDTO.getId())
+                .jsonPath("$.beerName").isEqualTo(beerDTO.getBeerName())
+                .jsonPath("$.beerStyle").doesNotExist()
+                .jsonPath("$.price").doesNotExist();
+    }
+
+    @Test
+    @Order(2)
+    void testListBeersUnknownField() {
+        webTestClient.mutateWith(mockOAuth2Login())
+                .get().uri(UriComponentsBuilder
+                        .fromPath(BeerRouterConfig.BEERS_PATH)
+                        .queryParam("fields", "beerName,brewery")
+                        .build().toUri())
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    @Order(2)
+    void testSearchBeersText() {
+        webTestClient.mutateWith(mockOAuth2Login())
+                .get().uri(UriComponentsBuilder
+                        .fromPath(BeerRouterConfig.BEERS_SEARCH_PATH)
+                        .queryParam("q", "galaxy")
+                        .build().toUri())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.size()").isEqualTo(1)
+                .jsonPath("$[0].beerName").isEqualTo("Galaxy Cat");
+    }
+
+    @Test
+    @Order(2)
+    void testSearchBeersPrefix() {
+        webTestClient.mutateWith(mockOAuth2Login())
+                .get().uri(UriComponentsBuilder
+                        .fromPath(BeerRouterConfig.BEERS_SEARCH_PATH)
+                        .queryParam("q", "Cr")
+                        .queryParam("mode", "prefix")
+                        .build().toUri())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.size()").isEqualTo(1)
+                .jsonPath("$[0].id").exists()
+                .jsonPath("$[0].beerName").isEqualTo("Crank")
+                .jsonPath("$[0].beerStyle").doesNotExist();
+    }
+
+    @Test
+    @Order(2)
+    void testSearchBeersWithoutQuery() {
+        webTestClient.mutateWith(mockOAuth2Login())
+                .get().uri(BeerRouterConfig.BEERS_SEARCH_PATH)
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
     @Test
     @Order(3)
     void testCreateBeer() {
@@ -131,6 +305,66 @@ class BeerEndpointTest {
                 .expectStatus().isNoContent();
     }
 
+    @Test
+    @Order(4)
+    void testUpdateBeerIfMatch() {
+        BeerDTO beerDTO = getSavedTestBeer();
+        beerDTO.setBeerName("New Name");
+        String currentETag = "\"" + beerDTO.getVersion() + "\"";
+
+        webTestClient.mutateWith(mockOAuth2Login())
+                .put().uri(BeerRouterConfig.BEERS_PATH_ID, beerDTO.getId())
+                .header(HttpHeaders.IF_MATCH, currentETag)
+                .body(Mono.just(beerDTO), BeerDTO.class)
+                .exchange()
+                .expectStatus().isNoContent()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"" + (beerDTO.getVersion() + 1) + "\"");
+
+        webTestClient.mutateWith(mockOAuth2Login())
+                .put().uri(BeerRouterConfig.BEERS_PATH_ID, beerDTO.getId())
+                .header(HttpHeaders.IF_MATCH, currentETag)
+                .body(Mono.just(beerDTO), BeerDTO.class)
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.PRECONDITION_FAILED);
+    }
+
+    @Test
+    @Order(4)
+    void testAdjustStock() {
+        BeerDTO beerDTO = getSavedTestBeer();
+        int quantityOnHand = beerDTO.getQuantityOnHand() == null ? 0 : beerDTO.getQuantityOnHand();
+
+        webTestClient.mutateWith(mockOAuth2Login())
+                .post().uri(BeerRouterConfig.BEERS_STOCK_PATH, beerDTO.getId())
+                .bodyValue(new StockAdjustmentDTO(5))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.quantityOnHand").isEqualTo(quantityOnHand + 5);
+
+        webTestClient.mutateWith(mockOAuth2Login())
+                .post().uri(BeerRouterConfig.BEERS_STOCK_PATH, beerDTO.getId())
+                .bodyValue(new StockAdjustmentDTO(-(quantityOnHand + 5)))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.quantityOnHand").isEqualTo(0);
+
+        webTestClient.mutateWith(mockOAuth2Login())
+                .post().uri(BeerRouterConfig.BEERS_STOCK_PATH, beerDTO.getId())
+                .bodyValue(new StockAdjustmentDTO(-1))
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.CONFLICT);
+    }
+
+    @Test
+    @Order(4)
+    void testAdjustStockNotFound() {
+        webTestClient.mutateWith(mockOAuth2Login())
+                .post().uri(BeerRouterConfig.BEERS_STOCK_PATH, 999)
+                .bodyValue(new StockAdjustmentDTO(-1))
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
     @Test
     @Order(4)
     void testUpdateBeerNotFound() {
@@ -196,6 +430,25 @@ class BeerEndpointTest {
                 .expectStatus().isNotFound();
     }
 
+    @Test
+    @Order(6)
+    void testBulkSaveBeers() {
+        BeerDTO invalidBeer = BeerServiceImplTest.getTestBeerDto();
+        invalidBeer.setBeerName("");
+
+        webTestClient.mutateWith(mockOAuth2Login())
+                .post().uri(BeerRouterConfig.BEERS_BULK_PATH)
+                .bodyValue(List.of(BeerServiceImplTest.getTestBeerDto(), invalidBeer, BeerServiceImplTest.getTestBeerDto()))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.size()").isEqualTo(3)
+                .jsonPath("$[0].status").isEqualTo("CREATED")
+                .jsonPath("$[0].id").isNotEmpty()
+                .jsonPath("$[1].status").isEqualTo("INVALID")
+                .jsonPath("$[2].index").isEqualTo(2);
+    }
+
     @Test
     @Order(6)
     void testGetByIdNotFound() {
@@ -205,6 +458,110 @@ class BeerEndpointTest {
                 .expectStatus().isNotFound();
     }
 
+    @Test
+    @Order(7)
+    void testDeleteBeersByIds() {
+        BeerDTO first = getSavedTestBeer();
+        BeerDTO second = getSavedTestBeer();
+
+        webTestClient.mutateWith(mockOAuth2Login())
+                .delete().uri(UriComponentsBuilder
+                        .fromPath(BeerRouterConfig.BEERS_PATH)
+                        .queryParam("ids", first.getId() + "," + second.getId() + ",999")
+                        .build().toUri())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.deletedCount").isEqualTo(2);
+    }
+
+    @Test
+    @Order(2)
+    void testGetBeersByIds() {
+        BeerDTO first = getSavedTestBeer();
+        BeerDTO second = getSavedTestBeer();
+
+        webTestClient.mutateWith(mockOAuth2Login())
+                .get().uri(UriComponentsBuilder
+                        .fromPath(BeerRouterConfig.BEERS_PATH)
+                        .queryParam("ids", second.getId() + ",999," + first.getId())
+                        .build().toUri())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.size()").isEqualTo(3)
+                .jsonPath("$[0].id").isEqualTo(second.getId())
+                .jsonPath("$[0].document.beerName").isEqualTo(second.getBeerName())
+                .jsonPath("$[1].id").isEqualTo("999")
+                .jsonPath("$[1].found").isEqualTo(false)
+                .jsonPath("$[1].document").doesNotExist()
+                .jsonPath("$[2].found").isEqualTo(true);
+    }
+
+    @Test
+    @Order(2)
+    void testLookupBeers() {
+        BeerDTO beerDTO = getSavedTestBeer();
+
+        webTestClient.mutateWith(mockOAuth2Login())
+                .post().uri(BeerRouterConfig.BEERS_LOOKUP_PATH)
+                .bodyValue(List.of("999", beerDTO.getId()))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[0].found").isEqualTo(false)
+                .jsonPath("$[1].document.id").isEqualTo(beerDTO.getId());
+    }
+
+    @Test
+    @Order(2)
+    void testExportBeersCsv() {
+        webTestClient.mutateWith(mockOAuth2Login())
+                .get().uri(BeerRouterConfig.BEERS_EXPORT_PATH)
+                .accept(ExportEncoder.TEXT_CSV)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(ExportEncoder.TEXT_CSV)
+                .expectBody(String.class).value(csv -> assertThat(csv)
+                        .startsWith("id,beerName,")
+                        .contains("Galaxy Cat"));
+    }
+
+    @Test
+    @Order(2)
+    void testImportBeers() {
+        webTestClient.mutateWith(mockOAuth2Login())
+                .post().uri(BeerRouterConfig.BEERS_IMPORT_PATH)
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .bodyValue("""
+                        {"beerName":"Imported Stout","beerStyle":"Stout","price":5.99}
+                        not json
+                        """)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.accepted").isEqualTo(1)
+                .jsonPath("$.rejected").isEqualTo(1)
+                .jsonPath("$.rejections[0].line").isEqualTo(2);
+    }
+
+    @Test
+    void testExportBeersModifiedSince() {
+        webTestClient.mutateWith(mockOAuth2Login())
+                .get().uri(BeerRouterConfig.BEERS_EXPORT_PATH + "?modifiedSince=2999-01-01")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_NDJSON)
+                .expectBody().isEmpty();
+    }
+
+    @Test
+    void testLookupBeersWithoutIds() {
+        webTestClient.mutateWith(mockOAuth2Login())
+                .post().uri(BeerRouterConfig.BEERS_LOOKUP_PATH)
+                .bodyValue(List.of())
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
 
     public BeerDTO getSavedTestBeer() {
         FluxExchangeResult<BeerDTO> beerDTOFluxExchangeResult = webTestClient.mutateWith(mockOAuth2Login())
@@ -0,0 +1,230 @@
+package guru.springframework.reactivemongo.web.fn;
+
+import guru.springframework.reactivemongo.model.BeerDTO;
+import guru.springframework.reactivemongo.model.ChangeEventDTO;
+import guru.springframework.reactivemongo.model.CustomerDTO;
+import guru.springframework.reactivemongo.services.BeerService;
+import guru.springframework.reactivemongo.services.CustomerService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.util.UriComponentsBuilder;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.reactive.server.SecurityMockServerConfigurers.mockOAuth2Login;
+
+/**
+ * Change feeds against the single node replica set the Mongo container starts. A live
+ * stream only sees writes made after its server side cursor opened, so the tests keep
+ * writing until the first event arrives instead of guessing when the cursor is ready.
+ */
+@Testcontainers
+@SpringBootTest(properties = "app.change-feed.heartbeat-interval=1s")
+@AutoConfigureWebTestClient
+class ChangeFeedEndpointTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+    private static final ParameterizedTypeReference<ChangeEventDTO<BeerDTO>> BEER_CHANGE =
+            new ParameterizedTypeReference<>() {
+            };
+    private static final ParameterizedTypeReference<ServerSentEvent<ChangeEventDTO<BeerDTO>>> BEER_CHANGE_EVENT =
+            new ParameterizedTypeReference<>() {
+            };
+
+    @Container
+    @ServiceConnection
+    static MongoDBContainer mongoDBContainer = new MongoDBContainer("mongo:latest");
+
+    @Autowired
+    WebTestClient webTestClient;
+
+    @Autowired
+    BeerService beerService;
+
+    @Autowired
+    CustomerService customerService;
+
+    @Test
+    void testBeerChangesNdjson() {
+        Disposable writes = keepCreatingBeers("Ndjson Stout");
+        ChangeEventDTO<BeerDTO> change;
+        try {
+            change = beerChanges(null).filter(named("Ndjson Stout")).blockFirst(TIMEOUT);
+        } finally {
+            writes.dispose();
+        }
+
+        assertThat(change).isNotNull();
+        assertThat(change.getOperation()).isEqualTo("insert");
+        assertThat(change.getResumeToken()).isNotBlank();
+        assertThat(change.getDocument().getBeerName()).startsWith("Ndjson Stout");
+        assertThat(change.getDocument().getId()).isEqualTo(change.getId());
+    }
+
+    @Test
+    void testBeerChangesResumeAfterToken() {
+        Disposable writes = keepCreatingBeers("Resume Stout");
+        ChangeEventDTO<BeerDTO> seen;
+        try {
+            seen = beerChanges(null).filter(named("Resume Stout")).blockFirst(TIMEOUT);
+        } finally {
+            writes.dispose();
+        }
+        BeerDTO later = beerService.createBeer(beer("Resume Stout Later")).block();
+
+        Flux<ChangeEventDTO<BeerDTO>> resumed = beerChanges(seen.getResumeToken());
+
+        ChangeEventDTO<BeerDTO> laterChange = resumed
+                .doOnNext(change -> assertThat(change.getId()).isNotEqualTo(seen.getId()))
+                .filter(change -> later.getId().equals(change.getId()))
+                .blockFirst(TIMEOUT);
+        assertThat(laterChange.getOperation()).isEqualTo("insert");
+    }
+
+    @Test
+    void testBeerChangesSseResumeWithLastEventId() {
+        Disposable writes = keepCreatingBeers("Sse Stout");
+        ServerSentEvent<ChangeEventDTO<BeerDTO>> seen;
+        try {
+            seen = beerChangeEvents(null)
+                    .filter(event -> event.data() != null && named("Sse Stout").test(event.data()))
+                    .blockFirst(TIMEOUT);
+        } finally {
+            writes.dispose();
+        }
+
+        assertThat(seen.id()).isEqualTo(seen.data().getResumeToken());
+        assertThat(seen.event()).isEqualTo("insert");
+
+        BeerDTO later = beerService.createBeer(beer("Sse Stout Later")).block();
+
+        ServerSentEvent<ChangeEventDTO<BeerDTO>> laterEvent = beerChangeEvents(seen.id())
+                .filter(event -> event.data() != null)
+                .filter(event -> later.getId().equals(event.data().getId()))
+                .blockFirst(TIMEOUT);
+        assertThat(laterEvent.data().getDocument().getBeerName()).isEqualTo("Sse Stout Later");
+    }
+
+    @Test
+    void testLiveSubscribersShareEvents() {
+        Disposable writes = keepCreatingBeers("Shared Stout");
+        Flux<ChangeEventDTO<BeerDTO>> first;
+        Flux<ChangeEventDTO<BeerDTO>> second;
+        try {
+            // replayed, so waiting for the first event does not cancel the stream
+            first = beerChanges(null).replay().autoConnect();
+            second = beerChanges(null).replay().autoConnect();
+            // both subscribers are connected once each has received an event
+            Mono.zip(first.next(), second.next()).block(TIMEOUT);
+        } finally {
+            writes.dispose();
+        }
+        BeerDTO shared = beerService.createBeer(beer("Shared Stout Final")).block();
+
+        var changes = Mono.zip(
+                first.filter(change -> shared.getId().equals(change.getId())).next(),
+                second.filter(change -> shared.getId().equals(change.getId())).next()).block(TIMEOUT);
+
+        assertThat(changes.getT1().getResumeToken()).isEqualTo(changes.getT2().getResumeToken());
+        assertThat(changes.getT1().getDocument()).isEqualTo(changes.getT2().getDocument());
+    }
+
+    @Test
+    void testCustomerChanges() {
+        Disposable writes = Flux.interval(Duration.ofMillis(200))
+                .concatMap(i -> customerService.save(CustomerDTO.builder().customerName("Feed " + i).build()))
+                .subscribe();
+        ChangeEventDTO<CustomerDTO> change;
+        try {
+            change = webTestClient.mutate().responseTimeout(TIMEOUT).build()
+                    .mutateWith(mockOAuth2Login())
+                    .get().uri(CustomerRouterConfig.CUSTOMER_CHANGES_PATH)
+                    .accept(MediaType.APPLICATION_NDJSON)
+                    .exchange()
+                    .expectStatus().isOk()
+                    .returnResult(new ParameterizedTypeReference<ChangeEventDTO<CustomerDTO>>() {
+                    })
+                    .getResponseBody()
+                    .filter(customerChange -> customerChange.getDocument() != null
+                            && customerChange.getDocument().getCustomerName().startsWith("Feed "))
+                    .blockFirst(TIMEOUT);
+        } finally {
+            writes.dispose();
+        }
+
+        assertThat(change.getOperation()).isEqualTo("insert");
+        assertThat(change.getDocument().getCustomerName()).startsWith("Feed ");
+    }
+
+    private Flux<ChangeEventDTO<BeerDTO>> beerChanges(String resumeAfter) {
+        return client().get().uri(changesUri(resumeAfter))
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_NDJSON)
+                .returnResult(BEER_CHANGE)
+                .getResponseBody();
+    }
+
+    private Flux<ServerSentEvent<ChangeEventDTO<BeerDTO>>> beerChangeEvents(String lastEventId) {
+        return client().get().uri(BeerRouterConfig.BEERS_CHANGES_PATH)
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .headers(headers -> {
+                    if (lastEventId != null) {
+                        headers.set(ChangeFeeds.LAST_EVENT_ID_HEADER, lastEventId);
+                    }
+                })
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(BEER_CHANGE_EVENT)
+                .getResponseBody();
+    }
+
+    private WebTestClient client() {
+        return webTestClient.mutate().responseTimeout(TIMEOUT).build().mutateWith(mockOAuth2Login());
+    }
+
+    private static String changesUri(String resumeAfter) {
+        UriComponentsBuilder uri = UriComponentsBuilder.fromPath(BeerRouterConfig.BEERS_CHANGES_PATH);
+        if (resumeAfter != null) {
+            uri.queryParam(ChangeFeeds.RESUME_AFTER_PARAM, resumeAfter);
+        }
+        return uri.build().toUriString();
+    }
+
+    private static Predicate<ChangeEventDTO<BeerDTO>> named(String namePrefix) {
+        return change -> change.getDocument() != null && change.getDocument().getBeerName().startsWith(namePrefix);
+    }
+
+    private Disposable keepCreatingBeers(String namePrefix) {
+        return Flux.interval(Duration.ofMillis(200))
+                .concatMap(i -> beerService.createBeer(beer(namePrefix + " " + i)))
+                .subscribe();
+    }
+
+    private static BeerDTO beer(String beerName) {
+        return BeerDTO.builder()
+                .beerName(beerName)
+                .beerStyle("Stout")
+                .upc("778899")
+                .price(new BigDecimal("8.50"))
+                .quantityOnHand(12)
+                .build();
+    }
+}
@@ -0,0 +1,97 @@
+package guru.springframework.reactivemongo.web.fn;
+
+import guru.springframework.reactivemongo.model.ChangeEventDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+
+import static org.springframework.web.reactive.function.server.RequestPredicates.GET;
+import static org.springframework.web.reactive.function.server.RouterFunctions.route;
+
+class ChangeFeedsTest {
+
+    private final WebTestClient webTestClient = WebTestClient.bindToRouterFunction(route(GET("/changes"),
+                    request -> ChangeFeeds.respond(request, Flux.just(change("1"), change("2")), Duration.ofHours(1))))
+            .build();
+
+    @Test
+    void testFiniteSseFeedCompletes() {
+        Flux<ServerSentEvent<ChangeEventDTO<String>>> events = webTestClient.get().uri("/changes")
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.TEXT_EVENT_STREAM)
+                .returnResult(new ParameterizedTypeReference<ServerSentEvent<ChangeEventDTO<String>>>() {
+                })
+                .getResponseBody();
+
+        StepVerifier.create(events)
+                .expectNextMatches(event -> "1".equals(event.id()) && "update".equals(event.event()))
+                .expectNextMatches(event -> "2".equals(event.id()) && "doc-2".equals(event.data().getDocument()))
+                .expectComplete()
+                .verify(Duration.ofSeconds(10));
+    }
+
+    @Test
+    void testFiniteNdjsonFeedCompletes() {
+        Flux<ChangeEventDTO<String>> changes = webTestClient.get().uri("/changes")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_NDJSON)
+                .returnResult(new ParameterizedTypeReference<ChangeEventDTO<String>>() {
+                })
+                .getResponseBody();
+
+        StepVerifier.create(changes)
+                .expectNextMatches(change -> "1".equals(change.getResumeToken()))
+                .expectNextMatches(change -> "2".equals(change.getResumeToken()))
+                .expectComplete()
+                .verify(Duration.ofSeconds(10));
+    }
+
+    @Test
+    void testHeartbeatsStopWhenTheEventsComplete() {
+        StepVerifier.withVirtualTime(() -> {
+                    Sinks.Many<ServerSentEvent<Object>> events = Sinks.many().unicast().onBackpressureBuffer();
+                    Flux.interval(Duration.ofSeconds(25)).take(1)
+                            .subscribe(tick -> {
+                                events.tryEmitNext(ServerSentEvent.builder().id("1").data((Object) "change").build());
+                                events.tryEmitComplete();
+                            });
+                    return ChangeFeeds.withHeartbeats(events.asFlux(), Duration.ofSeconds(10));
+                })
+                .thenAwait(Duration.ofSeconds(25))
+                .expectNextMatches(event -> "heartbeat".equals(event.comment()))
+                .expectNextMatches(event -> "heartbeat".equals(event.comment()))
+                .expectNextMatches(event -> "1".equals(event.id()))
+                .verifyComplete();
+    }
+
+    @Test
+    void testEventErrorsEndTheStream() {
+        StepVerifier.withVirtualTime(() -> ChangeFeeds.withHeartbeats(
+                        Flux.<ServerSentEvent<Object>>error(new IllegalStateException("feed closed"))
+                                .delaySubscription(Duration.ofSeconds(15)),
+                        Duration.ofSeconds(10)))
+                .thenAwait(Duration.ofSeconds(15))
+                .expectNextMatches(event -> "heartbeat".equals(event.comment()))
+                .verifyErrorMessage("feed closed");
+    }
+
+    private static ChangeEventDTO<String> change(String resumeToken) {
+        return ChangeEventDTO.<String>builder()
+                .operation("update")
+                .id("beer-" + resumeToken)
+                .document("doc-" + resumeToken)
+                .resumeToken(resumeToken)
+                .build();
+    }
+}
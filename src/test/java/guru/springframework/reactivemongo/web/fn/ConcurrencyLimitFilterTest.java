@@ -0,0 +1,112 @@
+package guru.springframework.reactivemongo.web.fn;
+
+import guru.springframework.reactivemongo.config.ConcurrencyLimitProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.HttpMessageWriter;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.reactive.function.server.MockServerRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.reactive.result.view.ViewResolver;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConcurrencyLimitFilterTest {
+
+    static final ServerResponse.Context CONTEXT = new ServerResponse.Context() {
+        @Override
+        public List<HttpMessageWriter<?>> messageWriters() {
+            return HandlerStrategies.withDefaults().messageWriters();
+        }
+
+        @Override
+        public List<ViewResolver> viewResolvers() {
+            return List.of();
+        }
+    };
+
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    ConcurrencyLimitFilter filter(int initialLimit, Duration latencyThreshold) {
+        ConcurrencyLimitProperties.Budget budget =
+                new ConcurrencyLimitProperties.Budget(initialLimit, 1, 100, latencyThreshold);
+        return new ConcurrencyLimitFilter(new ConcurrencyLimitProperties(true, Duration.ofSeconds(2), 0.5,
+                budget, budget), meterRegistry);
+    }
+
+    static ServerRequest request(MediaType accept) {
+        return MockServerRequest.builder()
+                .method(HttpMethod.GET)
+                .header(HttpHeaders.ACCEPT, accept.toString())
+                .attribute(RouterFunctions.MATCHING_PATTERN_ATTRIBUTE,
+                        PathPatternParser.defaultInstance.parse(BeerRouterConfig.BEERS_PATH_ID))
+                .build();
+    }
+
+    static void write(ServerResponse response) {
+        response.writeTo(MockServerWebExchange.from(MockServerHttpRequest.get("/")), CONTEXT).block();
+    }
+
+    @Test
+    void testRejectsAboveLimitUntilResponseIsWritten() {
+        ConcurrencyLimitFilter filter = filter(2, Duration.ofHours(1));
+        Sinks.One<ServerResponse> pending = Sinks.one();
+        filter.filter(request(MediaType.APPLICATION_JSON), request -> pending.asMono()).subscribe();
+        ServerResponse second = filter.filter(request(MediaType.APPLICATION_JSON), request -> ServerResponse.ok().build()).block();
+
+        ServerResponse rejected = filter.filter(request(MediaType.APPLICATION_JSON), request -> ServerResponse.ok().build()).block();
+        assertThat(rejected.statusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(rejected.headers().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("2");
+        assertThat(meterRegistry.get("http.server.concurrency.rejected").counter().count()).isEqualTo(1);
+
+        write(second);
+        assertThat(filter.filter(request(MediaType.APPLICATION_JSON), request -> ServerResponse.ok().build())
+                .block().statusCode()).isEqualTo(HttpStatus.OK);
+    }
+
+    @Test
+    void testLimitGrowsWhenFastAndShrinksWhenSlow() {
+        ConcurrencyLimitFilter fast = filter(2, Duration.ofHours(1));
+        write(fast.filter(request(MediaType.APPLICATION_JSON), request -> ServerResponse.ok().build()).block());
+        assertThat(fast.limit(HttpMethod.GET, BeerRouterConfig.BEERS_PATH_ID)).isEqualTo(3);
+        assertThat(meterRegistry.get("http.server.concurrency.limit").tag("budget", "read").gauge().value()).isEqualTo(3);
+
+        ConcurrencyLimitFilter slow = filter(10, Duration.ZERO);
+        write(slow.filter(request(MediaType.APPLICATION_JSON),
+                request -> ServerResponse.ok().build().delayElement(Duration.ofMillis(5))).block());
+        assertThat(slow.limit(HttpMethod.GET, BeerRouterConfig.BEERS_PATH_ID)).isEqualTo(5);
+    }
+
+    @Test
+    void testServerErrorShrinksLimit() {
+        ConcurrencyLimitFilter filter = filter(10, Duration.ofHours(1));
+        filter.filter(request(MediaType.APPLICATION_JSON), request -> Mono.error(new IllegalStateException()))
+                .onErrorResume(IllegalStateException.class, e -> Mono.empty())
+                .block();
+
+        assertThat(filter.limit(HttpMethod.GET, BeerRouterConfig.BEERS_PATH_ID)).isEqualTo(5);
+    }
+
+    @Test
+    void testStreamsAreNotLimited() {
+        ConcurrencyLimitFilter filter = filter(1, Duration.ofHours(1));
+        filter.filter(request(MediaType.APPLICATION_NDJSON), request -> Mono.never()).subscribe();
+        filter.filter(request(MediaType.APPLICATION_NDJSON), request -> Mono.never()).subscribe();
+
+        assertThat(filter.limit(HttpMethod.GET, BeerRouterConfig.BEERS_PATH_ID)).isEqualTo(-1);
+    }
+}
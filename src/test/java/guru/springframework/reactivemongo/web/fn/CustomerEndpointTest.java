@@ -10,6 +10,7 @@ import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWeb
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.test.web.reactive.server.FluxExchangeResult;
 import org.springframework.test.web.reactive.server.WebTestClient;
 import org.springframework.web.util.UriComponentsBuilder;
@@ -20,6 +21,7 @@ import reactor.core.publisher.Mono;
 
 import java.util.List;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.security.test.web.reactive.server.SecurityMockServerConfigurers.mockOAuth2Login;
 
 @Testcontainers
@@ -87,6 +89,69 @@ class CustomerEndpointTest {
                 .expectBody().jsonPath("$.size()").isEqualTo(1);
     }
 
+    @Test
+    @Order(2)
+    void testListCustomersIgnoreCase() {
+        webTestClient.mutateWith(mockOAuth2Login())
+                .get().uri(UriComponentsBuilder
+                        .fromPath(CustomerRouterConfig.CUSTOMER_PATH)
+                        .queryParam("customerName", "ÁLICE")
+                        .queryParam("match", "ignoreCase")
+                        .build().toUri())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.size()").isEqualTo(1)
+                .jsonPath("$[0].customerName").isEqualTo("Alice");
+    }
+
+    @Test
+    @Order(2)
+    void testListCustomersByPrefix() {
+        webTestClient.mutateWith(mockOAuth2Login())
+                .get().uri(UriComponentsBuilder
+                        .fromPath(CustomerRouterConfig.CUSTOMER_PATH)
+                        .queryParam("customerName", "ch")
+                        .queryParam("match", "prefix")
+                        .build().toUri())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.size()").isEqualTo(1)
+                .jsonPath("$[0].customerName").isEqualTo("Charlie");
+    }
+
+    @Test
+    @Order(2)
+    void testListCustomersPaged() {
+        webTestClient.mutateWith(mockOAuth2Login())
+                .get().uri(UriComponentsBuilder
+                        .fromPath(CustomerRouterConfig.CUSTOMER_PATH)
+                        .queryParam("limit", 2)
+                        .toUriString())
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().exists(PageCursor.NEXT_CURSOR_HEADER)
+                .expectBody().jsonPath("$.size()").isEqualTo(2);
+    }
+
+    @Test
+    @Order(2)
+    void testListCustomersPagedByName() {
+        webTestClient.mutateWith(mockOAuth2Login())
+                .get().uri(UriComponentsBuilder
+                        .fromPath(CustomerRouterConfig.CUSTOMER_PATH)
+                        .queryParam("customerName", "ÁLICE")
+                        .queryParam("match", "ignoreCase")
+                        .queryParam("limit", 2)
+                        .toUriString())
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().doesNotExist(PageCursor.NEXT_CURSOR_HEADER)
+                .expectBody()
+                .jsonPath("$.size()").isEqualTo(1)
+                .jsonPath("$[0].customerName").isEqualTo("Alice");
+    }
 
     @Test
     @Order(2)
@@ -100,6 +165,63 @@ class CustomerEndpointTest {
                 .expectBody(CustomerDTO.class);
     }
 
+    @Test
+    @Order(3)
+    void testGetCustomersByIds() {
+        CustomerDTO customerDTO = getSavedTestCustomer();
+
+        webTestClient.mutateWith(mockOAuth2Login())
+                .get().uri(UriComponentsBuilder
+                        .fromPath(CustomerRouterConfig.CUSTOMER_PATH)
+                        .queryParam("ids", "999," + customerDTO.getId())
+                        .build().toUri())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.size()").isEqualTo(2)
+                .jsonPath("$[0].found").isEqualTo(false)
+                .jsonPath("$[1].document.customerName").isEqualTo(customerDTO.getCustomerName());
+    }
+
+    @Test
+    @Order(3)
+    void testLookupCustomers() {
+        CustomerDTO customerDTO = getSavedTestCustomer();
+
+        webTestClient.mutateWith(mockOAuth2Login())
+                .post().uri(CustomerRouterConfig.CUSTOMER_LOOKUP_PATH)
+                .bodyValue(List.of(customerDTO.getId(), "999"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[0].id").isEqualTo(customerDTO.getId())
+                .jsonPath("$[0].found").isEqualTo(true)
+                .jsonPath("$[1].found").isEqualTo(false);
+    }
+
+    @Test
+    @Order(3)
+    void testExportCustomersModifiedSince() {
+        CustomerDTO customerDTO = getSavedTestCustomer();
+
+        webTestClient.mutateWith(mockOAuth2Login())
+                .get().uri(UriComponentsBuilder.fromPath(CustomerRouterConfig.CUSTOMER_EXPORT_PATH)
+                        .queryParam("modifiedSince", customerDTO.getLastModifiedDate().toString())
+                        .build().toUri())
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_NDJSON)
+                .expectBody(String.class).value(ndjson -> assertThat(ndjson).contains(customerDTO.getId()));
+    }
+
+    @Test
+    void testExportCustomersInvalidModifiedSince() {
+        webTestClient.mutateWith(mockOAuth2Login())
+                .get().uri(CustomerRouterConfig.CUSTOMER_EXPORT_PATH + "?modifiedSince=yesterday")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
     @Test
     void testGetByIdNotFound() {
         webTestClient.mutateWith(mockOAuth2Login())
@@ -108,6 +230,22 @@ class CustomerEndpointTest {
                 .expectStatus().isNotFound();
     }
 
+    @Test
+    @Order(3)
+    void testListCustomersWithFields() {
+        webTestClient.mutateWith(mockOAuth2Login())
+                .get().uri(UriComponentsBuilder
+                        .fromPath(CustomerRouterConfig.CUSTOMER_PATH)
+                        .queryParam("fields", "customerName")
+                        .toUriString())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[0].id").exists()
+                .jsonPath("$[0].customerName").exists()
+                .jsonPath("$[0].createdDate").doesNotExist();
+    }
+
     @Test
     @Order(3)
     void testCreateCustomer() {
@@ -0,0 +1,67 @@
+package guru.springframework.reactivemongo.web.fn;
+
+import com.fasterxml.jackson.databind.SerializationFeature;
+import guru.springframework.reactivemongo.config.StreamingProperties;
+import guru.springframework.reactivemongo.model.BeerDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import reactor.core.publisher.Flux;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExportEncoderTest {
+
+    ExportEncoder exportEncoder = new ExportEncoder(Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build(), new StreamingProperties(2));
+
+    Flux<BeerDTO> beers(int count) {
+        return Flux.range(1, count).map(i -> BeerDTO.builder()
+                .id(String.valueOf(i))
+                .beerName("Beer, \"" + i + "\"")
+                .beerStyle("IPA")
+                .price(new BigDecimal("12.99"))
+                .lastModifiedDate(LocalDateTime.of(2024, 1, i, 12, 0))
+                .build());
+    }
+
+    String encode(Flux<BeerDTO> beers, ExportEncoder.Format format, boolean gzip) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        exportEncoder.encode(beers, BeerDTO.class, format, gzip).toIterable().forEach(body::writeBytes);
+        byte[] bytes = gzip
+                ? new GZIPInputStream(new ByteArrayInputStream(body.toByteArray())).readAllBytes()
+                : body.toByteArray();
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void testCsvHasHeaderAndEscapedRows() throws IOException {
+        String csv = encode(beers(3), ExportEncoder.Format.CSV, false);
+
+        assertThat(csv.lines()).hasSize(4);
+        assertThat(csv.lines().findFirst()).hasValue(
+                "id,beerName,beerStyle,upc,quantityOnHand,price,createdDate,lastModifiedDate,version");
+        assertThat(csv).contains("1,\"Beer, \"\"1\"\"\",IPA,,,12.99,,2024-01-01T12:00:00,\n");
+    }
+
+    @Test
+    void testGzipNdjsonRoundTrips() throws IOException {
+        String ndjson = encode(beers(5), ExportEncoder.Format.NDJSON, true);
+
+        assertThat(ndjson.lines()).hasSize(5);
+        assertThat(ndjson).endsWith("\n").contains("\"lastModifiedDate\":\"2024-01-05T12:00:00\"");
+    }
+
+    @Test
+    void testEmptyGzipCsvStillHasHeader() throws IOException {
+        assertThat(encode(Flux.empty(), ExportEncoder.Format.CSV, true)).startsWith("id,beerName,");
+    }
+}
@@ -0,0 +1,83 @@
+package guru.springframework.reactivemongo.web.fn;
+
+import guru.springframework.reactivemongo.config.BulkProperties;
+import guru.springframework.reactivemongo.model.BeerDTO;
+import guru.springframework.reactivemongo.model.BulkItemResultDTO;
+import guru.springframework.reactivemongo.model.ImportReportDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.reactive.function.server.MockServerRequest;
+import reactor.core.publisher.Flux;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ImportDecoderTest {
+
+    static final String BODY = """
+            {"beerName":"Crank","beerStyle":"IPA"}
+
+            {"beerName":"Galaxy Cat",
+            {"beerName":"","beerStyle":"IPA"}
+            {"beerName":"Sunshine City","beerStyle":"IPA"}
+            """;
+
+    ImportDecoder importDecoder = new ImportDecoder(Jackson2ObjectMapperBuilder.json().build(), new BulkProperties(2, 2));
+
+    /**
+     * Rejects beers without a name, like the validator would.
+     */
+    Flux<BulkItemResultDTO> save(Flux<BeerDTO> beers) {
+        return beers.index().map(beer -> BulkItemResultDTO.builder()
+                .index(beer.getT1())
+                .status(beer.getT2().getBeerName().isEmpty()
+                        ? BulkItemResultDTO.Status.INVALID : BulkItemResultDTO.Status.CREATED)
+                .error(beer.getT2().getBeerName().isEmpty() ? "beerName is required" : null)
+                .build());
+    }
+
+    ImportReportDTO importBody(byte[] body, boolean gzip) {
+        // split mid line to exercise reads across buffers
+        int middle = body.length / 2;
+        Flux<DataBuffer> buffers = Flux.just(
+                DefaultDataBufferFactory.sharedInstance.wrap(Arrays.copyOfRange(body, 0, middle)),
+                DefaultDataBufferFactory.sharedInstance.wrap(Arrays.copyOfRange(body, middle, body.length)));
+        MockServerRequest.Builder request = MockServerRequest.builder();
+        if (gzip) {
+            request.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return importDecoder.importLines(request.body(buffers), BeerDTO.class, this::save).block();
+    }
+
+    @Test
+    void testReportsRejectedLineNumbers() {
+        ImportReportDTO report = importBody(BODY.getBytes(StandardCharsets.UTF_8), false);
+
+        assertThat(report.getAccepted()).isEqualTo(2);
+        assertThat(report.getRejected()).isEqualTo(2);
+        assertThat(report.getRejections()).extracting(ImportReportDTO.Rejection::getLine).containsExactly(3L, 4L);
+        assertThat(report.getRejections().get(0).getError()).startsWith("Malformed JSON");
+        assertThat(report.getRejections().get(1).getError()).isEqualTo("beerName is required");
+    }
+
+    @Test
+    void testReadsGzipBody() throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(BODY.getBytes(StandardCharsets.UTF_8));
+        }
+
+        ImportReportDTO report = importBody(compressed.toByteArray(), true);
+
+        assertThat(report.getAccepted()).isEqualTo(2);
+        assertThat(report.getRejected()).isEqualTo(2);
+    }
+}